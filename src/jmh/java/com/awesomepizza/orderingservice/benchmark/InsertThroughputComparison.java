@@ -0,0 +1,161 @@
+package com.awesomepizza.orderingservice.benchmark;
+
+import com.awesomepizza.orderingservice.OrderingserviceApplication;
+import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Measures order insert throughput with JDBC batching on and off, on embedded H2 and, when a URL is
+ * given, on PostgreSQL. Clients call {@code createOrder} directly for a fixed time, each order carrying
+ * {@code load.lines} items. "unbatched" sets {@code hibernate.jdbc.batch_size} to 1, which sends one
+ * INSERT round trip per row as the IDENTITY ids did before; "batched" is the shipped configuration.
+ * <p>
+ * As in {@link ThreadModeLoadComparison}, every statement execution can be held back by
+ * {@code load.statement-latency-ms} to stand in for a remote database; a batch pays that once.
+ * The only argument is a pattern over the run names, for example {@code h2-batched}.
+ */
+public final class InsertThroughputComparison {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("load.seconds", 20));
+    private static final int POOL_SIZE = Integer.getInteger("load.pool-size", 10);
+    private static final int LINES = Integer.getInteger("load.lines", 10);
+    private static final String POSTGRES_URL = System.getProperty("load.postgres-url");
+    private static final String POSTGRES_USER = System.getProperty("load.postgres-user", "postgres");
+    private static final String POSTGRES_PASSWORD = System.getProperty("load.postgres-password", "postgres");
+
+    private InsertThroughputComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Pattern runs = Pattern.compile(args.length > 0 ? args[0] : ".*");
+
+        List<Result> results = new ArrayList<>();
+        for (String database : List.of("h2", "postgres")) {
+            for (String batching : List.of("unbatched", "batched")) {
+                String name = database + "-" + batching;
+                if (!runs.matcher(name).find()) {
+                    continue;
+                }
+                if (database.equals("postgres") && POSTGRES_URL == null) {
+                    System.out.printf("Skipping %s: set -Dload.postgres-url to a throwaway database%n", name);
+                    continue;
+                }
+                results.add(run(name, database, batching.equals("batched")));
+            }
+        }
+
+        System.out.printf("%n%d clients, %d connections, %d items per order, %d ms per statement%n",
+                CLIENTS, POOL_SIZE, LINES, Long.getLong("load.statement-latency-ms", 5));
+        System.out.printf("%-19s %10s %10s %11s %11s %7s%n", "run", "orders/s", "rows/s", "p50", "p99", "errors");
+        for (Result result : results) {
+            System.out.printf("%-19s %10.0f %10.0f %9.1fms %9.1fms %7d%n", result.name, result.ordersPerSecond,
+                    result.ordersPerSecond * (LINES + 1), millis(result.latencies, 0.50),
+                    millis(result.latencies, 0.99), result.errors);
+        }
+    }
+
+    private static Result run(String name, String database, boolean batched) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--pizzeria.jfr.always-on=false",
+                "--pizzeria.order-code.secret=benchmark-order-code-secret",
+                "--logging.level.root=WARN",
+                "--logging.level.com.awesomepizza=WARN"));
+        if (database.equals("h2")) {
+            arguments.add("--spring.datasource.url=jdbc:h2:mem:insert-" + name);
+        } else {
+            arguments.add("--spring.datasource.url=" + POSTGRES_URL);
+            arguments.add("--spring.datasource.driver-class-name=org.postgresql.Driver");
+            arguments.add("--spring.datasource.username=" + POSTGRES_USER);
+            arguments.add("--spring.datasource.password=" + POSTGRES_PASSWORD);
+            arguments.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect");
+        }
+        if (!batched) {
+            arguments.add("--spring.jpa.properties.hibernate.jdbc.batch_size=1");
+            arguments.add("--spring.jpa.properties.hibernate.order_inserts=false");
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                OrderingserviceApplication.class, ThreadModeLoadComparison.StatementLatency.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(String[]::new));
+        try {
+            OrderService orderService = context.getBean(OrderService.class);
+            List<Pizza> pizzas = context.getBean(PizzaRepository.class).findByAvailableTrue();
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                    .items(IntStream.range(0, LINES)
+                            .mapToObj(i -> PizzaItemDto.builder()
+                                    .pizzaId(pizzas.get(i % pizzas.size()).getId())
+                                    .quantity(1)
+                                    .build())
+                            .toList())
+                    .build();
+            return drive(name, orderService, request);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result drive(String name, OrderService orderService, CreateOrderRequest request) {
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureUntil = measureFrom + MEASUREMENT.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < measureUntil) {
+                        long start = System.nanoTime();
+                        try {
+                            orderService.createOrder(request);
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                        long end = System.nanoTime();
+                        if (start >= measureFrom && end <= measureUntil) {
+                            latencies.add(end - start);
+                        }
+                    }
+                });
+            }
+        }
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return new Result(name, sorted.length / (MEASUREMENT.toNanos() / 1e9), sorted, errors.get());
+    }
+
+    private static double millis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(String name, double ordersPerSecond, long[] latencies, long errors) {
+    }
+}
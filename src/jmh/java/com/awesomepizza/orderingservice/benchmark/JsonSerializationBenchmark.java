@@ -0,0 +1,77 @@
+package com.awesomepizza.orderingservice.benchmark;
+
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.dto.OrderStatusResponse;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private OrderResponse orderResponse;
+    private OrderStatusResponse orderStatusResponse;
+
+    @Setup
+    public void setUp() {
+        // Same module and feature set as the ObjectMapper Spring MVC writes responses with
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<OrderResponse.OrderItemResponse> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(OrderResponse.OrderItemResponse.builder()
+                    .pizzaName("Pizza " + i)
+                    .quantity(i + 1)
+                    .notes(i == 0 ? "Extra cheese" : null)
+                    .build());
+        }
+        orderResponse = OrderResponse.builder()
+                .id(42L)
+                .orderCode("ABC12345")
+                .status(OrderStatus.IN_PREPARATION)
+                .statusDescription(OrderStatus.IN_PREPARATION.getDescription())
+                .items(items)
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .startedAt(LocalDateTime.now())
+                .build();
+
+        orderStatusResponse = OrderStatusResponse.builder()
+                .orderCode("ABC12345")
+                .status(OrderStatus.IN_PREPARATION)
+                .statusDescription(OrderStatus.IN_PREPARATION.getDescription())
+                .message(OrderStatus.IN_PREPARATION.getCustomerMessage())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeOrderResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderStatusResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderStatusResponse);
+    }
+}
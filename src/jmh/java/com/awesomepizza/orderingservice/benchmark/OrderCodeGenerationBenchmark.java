@@ -0,0 +1,60 @@
+package com.awesomepizza.orderingservice.benchmark;
+
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.service.OrderCodeBlockAllocator;
+import com.awesomepizza.orderingservice.service.ScrambledCounterOrderCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the random UUID-prefix fallback with the scrambled counter generator, reported as
+ * codes per microsecond. Block reservation is stubbed in memory, so the figures exclude the one
+ * database round trip paid per block.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderCodeGenerationBenchmark {
+
+    private ScrambledCounterOrderCodeGenerator generator;
+
+    @Setup
+    public void setUp() {
+        AtomicLong nextBlock = new AtomicLong();
+        OrderCodeBlockAllocator allocator = nodeId -> nextBlock.getAndIncrement();
+        generator = new ScrambledCounterOrderCodeGenerator(allocator, 0, 1000, "benchmark-secret");
+    }
+
+    @Benchmark
+    public String uuidPrefix() {
+        Order order = new Order();
+        order.generateOrderCode();
+        return order.getOrderCode();
+    }
+
+    @Benchmark
+    public String scrambledCounter() {
+        return generator.nextCode();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String scrambledCounterContended() {
+        return generator.nextCode();
+    }
+}
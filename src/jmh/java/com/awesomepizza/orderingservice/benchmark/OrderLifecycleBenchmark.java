@@ -0,0 +1,114 @@
+package com.awesomepizza.orderingservice.benchmark;
+
+import com.awesomepizza.orderingservice.OrderingserviceApplication;
+import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderService;
+import com.awesomepizza.orderingservice.service.PizzeriaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * End-to-end order creation and claiming through the service layer against an embedded H2
+ * database, with the full Spring context and transaction handling in place.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Spring and Hibernate paths need around half a minute of warmup before the JIT settles
+@Warmup(iterations = 6, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderLifecycleBenchmark {
+
+    private static final int LARGE_ORDER_LINES = 50;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private PizzeriaService pizzeriaService;
+    private CreateOrderRequest request;
+    private CreateOrderRequest largeRequest;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderingserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they override application.yml, which logs every SQL statement
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmarkdb",
+                        "--spring.jpa.show-sql=false",
+                        "--pizzeria.order-code.secret=benchmark-order-code-secret",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.awesomepizza=WARN");
+
+        orderService = context.getBean(OrderService.class);
+        pizzeriaService = context.getBean(PizzeriaService.class);
+
+        List<Pizza> pizzas = context.getBean(PizzaRepository.class).findByAvailableTrue();
+        request = CreateOrderRequest.builder()
+                .items(pizzas.stream()
+                        .limit(3)
+                        .map(pizza -> PizzaItemDto.builder().pizzaId(pizza.getId()).quantity(1).build())
+                        .toList())
+                .build();
+        largeRequest = CreateOrderRequest.builder()
+                .items(IntStream.range(0, LARGE_ORDER_LINES)
+                        .mapToObj(i -> PizzaItemDto.builder()
+                                .pizzaId(pizzas.get(i % pizzas.size()).getId())
+                                .quantity(1)
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(request);
+    }
+
+    // Large enough that per-row insert round trips dominate unless inserts are batched
+    @Benchmark
+    public OrderResponse createLargeOrder() {
+        return orderService.createOrder(largeRequest);
+    }
+
+    @Benchmark
+    public OrderResponse takeNextOrder(PendingOrder pendingOrder) {
+        return pizzeriaService.takeNextOrder();
+    }
+
+    // Creates an order before every takeNextOrder call, outside the measured time, so there is always one to claim
+    @State(Scope.Benchmark)
+    public static class PendingOrder {
+
+        @Setup(Level.Invocation)
+        public void enqueue(OrderLifecycleBenchmark benchmark) {
+            benchmark.orderService.createOrder(benchmark.request);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.awesomepizza.orderingservice.benchmark;
+
+import com.awesomepizza.orderingservice.OrderingserviceApplication;
+import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Drives the HTTP API once with platform request threads and once with virtual ones and prints the
+ * concurrency each mode sustained with its latency percentiles. The mix is mostly status polls,
+ * which are answered from memory, plus order creations, which wait on JDBC. Every statement is held
+ * back by a fixed delay standing in for the round trip to a remote database, since embedded H2
+ * answers too quickly for a request thread ever to block on it.
+ * <p>
+ * The only argument is a pattern over the mode names ({@code platform}, {@code virtual}); the load
+ * itself is set with the {@code load.*} system properties below.
+ */
+public final class ThreadModeLoadComparison {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 1000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("load.seconds", 30));
+    private static final int TOMCAT_THREADS = Integer.getInteger("load.tomcat-threads", 200);
+    private static final int POOL_SIZE = Integer.getInteger("load.pool-size", 20);
+    private static final long STATEMENT_LATENCY_MS = Long.getLong("load.statement-latency-ms", 5);
+    // One request in this many creates an order, the rest poll a status
+    private static final int CREATE_EVERY = Integer.getInteger("load.create-every", 10);
+    private static final int SEEDED_ORDERS = 500;
+
+    private ThreadModeLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Pattern modes = Pattern.compile(args.length > 0 ? args[0] : ".*");
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : List.of("platform", "virtual")) {
+            if (modes.matcher(mode).find()) {
+                results.add(run(mode));
+            }
+        }
+
+        System.out.printf("%n%d clients, %d Tomcat threads, %d connections, %d ms per statement, 1 in %d requests creates%n",
+                CLIENTS, TOMCAT_THREADS, POOL_SIZE, STATEMENT_LATENCY_MS, CREATE_EVERY);
+        System.out.printf("%-9s %10s %10s %9s %11s %11s %11s %11s %7s%n", "mode", "peak-conc", "threads",
+                "req/s", "poll-p50", "poll-p99", "create-p50", "create-p99", "errors");
+        for (Result result : results) {
+            System.out.printf("%-9s %10d %10d %9.0f %9.1fms %9.1fms %9.1fms %9.1fms %7d%n", result.mode,
+                    result.peakInFlight, result.peakPlatformThreads, result.throughput,
+                    millis(result.polls, 0.50), millis(result.polls, 0.99),
+                    millis(result.creates, 0.50), millis(result.creates, 0.99), result.errors);
+        }
+    }
+
+    private static Result run(String mode) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                OrderingserviceApplication.class, StatementLatency.class)
+                .run("--server.port=0",
+                        "--management.server.port=0",
+                        "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--pizzeria.jfr.always-on=false",
+                        "--pizzeria.order-code.secret=benchmark-order-code-secret",
+                        // Measures the thread modes themselves; admission control would shed the load being compared
+                        "--pizzeria.admission.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.awesomepizza=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            OrderService orderService = context.getBean(OrderService.class);
+            Pizza pizza = context.getBean(PizzaRepository.class).findByAvailableTrue().get(0);
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                    .items(List.of(PizzaItemDto.builder().pizzaId(pizza.getId()).quantity(1).build()))
+                    .build();
+            List<String> orderCodes = new ArrayList<>();
+            for (int i = 0; i < SEEDED_ORDERS; i++) {
+                orderCodes.add(orderService.createOrder(request).getOrderCode());
+            }
+            String orderBody = "{\"items\":[{\"pizzaId\":" + pizza.getId() + ",\"quantity\":1}]}";
+            return drive(mode, "http://localhost:" + port + "/api/v1/orders", orderCodes, orderBody);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result drive(String mode, String baseUrl, List<String> orderCodes, String orderBody)
+            throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Queue<Long> polls = new ConcurrentLinkedQueue<>();
+        Queue<Long> creates = new ConcurrentLinkedQueue<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureUntil = measureFrom + MEASUREMENT.toNanos();
+
+        // Clients close first, which waits for every client to pass the end of the measurement
+        try (HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                clients.submit(() -> {
+                    for (long n = client; System.nanoTime() < measureUntil; n++) {
+                        boolean create = n % CREATE_EVERY == 0;
+                        HttpRequest request = create
+                                ? HttpRequest.newBuilder(URI.create(baseUrl))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString(orderBody))
+                                        .build()
+                                : HttpRequest.newBuilder(URI.create(baseUrl + "/"
+                                        + orderCodes.get(ThreadLocalRandom.current().nextInt(orderCodes.size()))
+                                        + "/status")).build();
+
+                        long start = System.nanoTime();
+                        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        try {
+                            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                        long end = System.nanoTime();
+                        if (start >= measureFrom && end <= measureUntil) {
+                            (create ? creates : polls).add(end - start);
+                        }
+                    }
+                });
+            }
+            // Peaks from the warmup are not reported
+            Thread.sleep(WARMUP);
+            peakInFlight.set(inFlight.get());
+            threads.resetPeakThreadCount();
+        }
+
+        double throughput = (polls.size() + creates.size()) / (MEASUREMENT.toNanos() / 1e9);
+        return new Result(mode, peakInFlight.get(), threads.getPeakThreadCount(), throughput,
+                sorted(polls), sorted(creates), errors.get());
+    }
+
+    private static long[] sorted(Collection<Long> latencies) {
+        long[] values = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    private static double millis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(String mode, int peakInFlight, int peakPlatformThreads, double throughput,
+                          long[] polls, long[] creates, long errors) {
+    }
+
+    /**
+     * Delays every statement execution while its connection is held, as a remote database would.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class StatementLatency {
+
+        @Bean
+        static BeanPostProcessor statementLatencyPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource
+                            ? proxy(dataSource, StatementLatency::wrapConnection, DataSource.class, Closeable.class)
+                            : bean;
+                }
+            };
+        }
+
+        private static Object wrapConnection(Object result) {
+            return result instanceof Connection connection
+                    ? proxy(connection, StatementLatency::wrapStatement, Connection.class)
+                    : result;
+        }
+
+        private static Object wrapStatement(Object result) {
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            InvocationHandler delayExecutes = (proxy, method, methodArgs) -> {
+                if (method.getName().startsWith("execute")) {
+                    Thread.sleep(STATEMENT_LATENCY_MS);
+                }
+                return invoke(statement, method, methodArgs);
+            };
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, delayExecutes);
+        }
+
+        // Closeable lets the context still close the pool through the proxy
+        private static Object proxy(Object target, UnaryOperator<Object> wrapResult, Class<?>... types) {
+            InvocationHandler handler = (proxy, method, methodArgs) ->
+                    wrapResult.apply(invoke(target, method, methodArgs));
+            return Proxy.newProxyInstance(types[0].getClassLoader(), types, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] methodArgs) throws Throwable {
+            try {
+                return method.invoke(target, methodArgs);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
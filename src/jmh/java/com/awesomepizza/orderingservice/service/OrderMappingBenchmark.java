@@ -0,0 +1,87 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.entity.OrderItem;
+import com.awesomepizza.orderingservice.model.entity.OrderItemsConverter;
+import com.awesomepizza.orderingservice.model.entity.OrderView;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Lives in the service package to reach the package-private mappers
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int itemCount;
+
+    private OrderServiceImpl orderService;
+    private PizzeriaServiceImpl pizzeriaService;
+    private Order order;
+    private OrderView view;
+    private OrderItemsConverter itemsConverter;
+    private String itemsJson;
+
+    @Setup
+    public void setUp() {
+        orderService = new OrderServiceImpl(null, null, null, null, null, null, null, null, null);
+        pizzeriaService = new PizzeriaServiceImpl(null, null, null, null, null, null);
+
+        order = Order.builder()
+                .id(42L)
+                .orderCode("ABC12345")
+                .status(OrderStatus.IN_PREPARATION)
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .startedAt(LocalDateTime.now())
+                .build();
+        for (int i = 0; i < itemCount; i++) {
+            Pizza pizza = Pizza.builder()
+                    .id((long) i)
+                    .name("Pizza " + i)
+                    .price(new BigDecimal("9.00"))
+                    .available(true)
+                    .build();
+            order.addItem(OrderItem.builder().pizza(pizza).quantity(1).build());
+        }
+        view = OrderView.from(order);
+        itemsConverter = new OrderItemsConverter();
+        itemsJson = itemsConverter.convertToDatabaseColumn(view.getItems());
+    }
+
+    @Benchmark
+    public OrderResponse orderServiceMapToOrderResponse() {
+        return orderService.mapToOrderResponse(order);
+    }
+
+    @Benchmark
+    public OrderResponse pizzeriaServiceMapToOrderResponse() {
+        return pizzeriaService.mapToOrderResponse(view);
+    }
+
+    // What loading an order_view row adds on top of the mapping: parsing its item summary
+    @Benchmark
+    public List<OrderResponse.OrderItemResponse> orderViewItemsFromJson() {
+        return itemsConverter.convertToEntityAttribute(itemsJson);
+    }
+}
@@ -0,0 +1,59 @@
+package com.awesomepizza.orderingservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class AdmissionControlConfig {
+
+    @Bean
+    FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${pizzeria.admission.enabled:true}") boolean enabled,
+            @Value("${pizzeria.admission.order-creation.capacity:10}") int capacity,
+            @Value("${pizzeria.admission.order-creation.refill-per-second:1}") double refillPerSecond,
+            @Value("${pizzeria.admission.order-creation.max-clients:10000}") int maxClients,
+            @Value("${pizzeria.admission.bulk-creation.capacity:2}") int bulkCapacity,
+            @Value("${pizzeria.admission.bulk-creation.refill-per-second:0.02}") double bulkRefillPerSecond,
+            @Value("${pizzeria.admission.client-id-header:}") String clientIdHeader,
+            @Value("${pizzeria.admission.max-concurrent-requests:64}") int maxConcurrentRequests,
+            @Value("${pizzeria.admission.max-concurrent-creations:0}") int maxConcurrentCreations,
+            @Value("${pizzeria.admission.max-concurrent-polls:256}") int maxConcurrentPolls,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${pizzeria.admission.overload-retry-after-seconds:1}") long overloadRetryAfterSeconds) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(new ClientRateLimiter(capacity, refillPerSecond, maxClients),
+                        new ClientRateLimiter(bulkCapacity, bulkRefillPerSecond, maxClients), clientIdHeader,
+                        maxConcurrentRequests, creationLimit(maxConcurrentCreations, connectionPoolSize),
+                        maxConcurrentPolls, overloadRetryAfterSeconds, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/v1/orders/*", "/api/v1/pizzeria/*");
+        // Ahead of every application filter, but after request observation so rejections still show up
+        // in http.server.requests
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    /**
+     * Each creation holds a pooled connection for its transaction, so more creations than connections
+     * would only queue inside the pool, which is what the limit is there to prevent. Unset, creations
+     * get half the pool and the kitchen and other requests keep the rest.
+     */
+    static int creationLimit(int configured, int connectionPoolSize) {
+        if (configured <= 0) {
+            return Math.max(1, connectionPoolSize / 2);
+        }
+        if (configured > connectionPoolSize) {
+            throw new IllegalArgumentException(String.format(
+                    "pizzeria.admission.max-concurrent-creations (%d) exceeds the connection pool (%d)",
+                    configured, connectionPoolSize));
+        }
+        return configured;
+    }
+}
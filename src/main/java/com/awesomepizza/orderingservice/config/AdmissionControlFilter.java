@@ -0,0 +1,183 @@
+package com.awesomepizza.orderingservice.config;
+
+import com.awesomepizza.orderingservice.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Sheds load in front of the order and pizzeria controllers before a request reaches a transaction or
+ * a connection. Order creation is rate limited per client with token buckets, and the number of
+ * requests running at once is capped, with a smaller cap for creations so that a burst of new orders
+ * cannot take the capacity that status polls and the kitchen need. A request over any limit gets 429
+ * with Retry-After straight away rather than queueing for the connection pool.
+ * <p>
+ * A bulk request carries up to {@link com.awesomepizza.orderingservice.model.dto.BulkCreateOrderRequest#MAX_ORDERS}
+ * orders, which the filter cannot count without reading the body, so bulk requests draw on a separate,
+ * slower bucket instead of costing a single order's token. Concurrency is checked before any token is
+ * taken, so a request turned away as overloaded leaves the client's allowance untouched.
+ * <p>
+ * Clients are told apart by a client id header when one is configured, which a gateway or aggregator in
+ * front of the service must then set itself, and otherwise by remote address; behind a proxy that is
+ * the forwarded address once {@code server.forward-headers-strategy} is set. Status polls are answered
+ * from memory and have a cap of their own, so a crowd of pollers cannot hold the slots creations and
+ * the kitchen need, nor the other way round.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    static final String REJECTED_METRIC = "admission.rejected";
+    static final String IN_FLIGHT_METRIC = "admission.in.flight";
+    static final String CLIENTS_METRIC = "admission.clients";
+
+    private static final String CREATION_PATH = "/api/v1/orders";
+    private static final String BULK_CREATION_PATH = "/api/v1/orders/bulk";
+    private static final Pattern STATUS_POLL_PATH = Pattern.compile("/api/v1/orders/[^/]+/status");
+    // Longer ids are ignored rather than kept as bucket keys
+    private static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    private final ClientRateLimiter creationLimiter;
+    private final ClientRateLimiter bulkCreationLimiter;
+    private final String clientIdHeader;
+    private final Semaphore requestPermits;
+    private final Semaphore creationPermits;
+    private final Semaphore pollPermits;
+    private final long overloadRetryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlFilter(ClientRateLimiter creationLimiter, ClientRateLimiter bulkCreationLimiter,
+                                  String clientIdHeader, int maxConcurrentRequests, int maxConcurrentCreations,
+                                  int maxConcurrentPolls, long overloadRetryAfterSeconds, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        if (maxConcurrentRequests < 1 || maxConcurrentCreations < 1 || maxConcurrentPolls < 1) {
+            throw new IllegalArgumentException("Admission concurrency limits must be positive");
+        }
+        // Creations also hold a request permit, so their own limit never needs to exceed the overall one
+        int creationLimit = Math.min(maxConcurrentCreations, maxConcurrentRequests);
+        this.creationLimiter = creationLimiter;
+        this.bulkCreationLimiter = bulkCreationLimiter;
+        this.clientIdHeader = clientIdHeader == null || clientIdHeader.isBlank() ? null : clientIdHeader;
+        this.requestPermits = new Semaphore(maxConcurrentRequests);
+        this.creationPermits = new Semaphore(creationLimit);
+        this.pollPermits = new Semaphore(maxConcurrentPolls);
+        this.overloadRetryAfterSeconds = overloadRetryAfterSeconds;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder(IN_FLIGHT_METRIC, requestPermits, permits -> maxConcurrentRequests - permits.availablePermits())
+                .description("Requests admitted and still running")
+                .tag("scope", "all")
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, creationPermits, permits -> creationLimit - permits.availablePermits())
+                .description("Requests admitted and still running")
+                .tag("scope", "creation")
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, pollPermits, permits -> maxConcurrentPolls - permits.availablePermits())
+                .description("Requests admitted and still running")
+                .tag("scope", "poll")
+                .register(meterRegistry);
+        Gauge.builder(CLIENTS_METRIC, creationLimiter, ClientRateLimiter::trackedClients)
+                .description("Clients with an order creation token bucket")
+                .tag("bucket", "order")
+                .register(meterRegistry);
+        Gauge.builder(CLIENTS_METRIC, bulkCreationLimiter, ClientRateLimiter::trackedClients)
+                .description("Clients with a bulk order creation token bucket")
+                .tag("bucket", "bulk")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ClientRateLimiter limiter = creationLimiterFor(request);
+        Semaphore permits = isStatusPoll(request) ? pollPermits : requestPermits;
+        if (!permits.tryAcquire()) {
+            reject(response, "overloaded", "Service is busy, please retry later", overloadRetryAfterSeconds);
+            return;
+        }
+        try {
+            if (limiter == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (!creationPermits.tryAcquire()) {
+                reject(response, "overloaded", "Service is busy, please retry later", overloadRetryAfterSeconds);
+                return;
+            }
+            try {
+                long waitNanos = limiter.tryAcquire(clientKey(request));
+                if (waitNanos > 0) {
+                    reject(response, "rate_limited", "Too many orders from this client, please retry later",
+                            (long) Math.ceil((double) waitNanos / TimeUnit.SECONDS.toNanos(1)));
+                    return;
+                }
+                filterChain.doFilter(request, response);
+            } finally {
+                creationPermits.release();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (clientIdHeader != null) {
+            String clientId = request.getHeader(clientIdHeader);
+            if (clientId != null && !clientId.isBlank() && clientId.length() <= MAX_CLIENT_ID_LENGTH) {
+                return "id:" + clientId;
+            }
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    private static boolean isStatusPoll(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && STATUS_POLL_PATH.matcher(path(request)).matches();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private ClientRateLimiter creationLimiterFor(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        return switch (path(request)) {
+            case CREATION_PATH -> creationLimiter;
+            case BULK_CREATION_PATH -> bulkCreationLimiter;
+            default -> null;
+        };
+    }
+
+    private void reject(HttpServletResponse response, String reason, String message, long retryAfterSeconds)
+            throws IOException {
+        meterRegistry.counter(REJECTED_METRIC, "reason", reason).increment();
+        log.debug("Request rejected ({}), retry after {} s", reason, retryAfterSeconds);
+
+        ErrorResponse error = ErrorResponse.builder()
+                .message(message)
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
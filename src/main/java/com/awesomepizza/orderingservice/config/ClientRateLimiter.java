@@ -0,0 +1,92 @@
+package com.awesomepizza.orderingservice.config;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per client: a client may burst up to capacity requests, then gets refill-per-second
+ * on average. Buckets are refilled lazily when the client returns, so idle clients cost nothing but
+ * their entry. The table holds at most max-clients entries and drops the least recently seen client
+ * first; a dropped client simply starts again with a full bucket.
+ */
+public class ClientRateLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int maxClients;
+    private final LongSupplier clock;
+
+    // Access order, so the eldest entry is the client seen least recently
+    private final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock bucketsLock = new ReentrantLock();
+
+    public ClientRateLimiter(int capacity, double refillPerSecond, int maxClients) {
+        this(capacity, refillPerSecond, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(int capacity, double refillPerSecond, int maxClients, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0 || maxClients < 1) {
+            throw new IllegalArgumentException("Rate limit capacity, refill rate and client count must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxClients = maxClients;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token from the client's bucket. Returns 0 when one was taken, otherwise the nanoseconds
+     * until the bucket holds a token again.
+     */
+    public long tryAcquire(String client) {
+        long now = clock.getAsLong();
+        bucketsLock.lock();
+        try {
+            Bucket bucket = buckets.get(client);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                buckets.put(client, bucket);
+                evictEldest();
+            }
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+            bucket.refilledAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        } finally {
+            bucketsLock.unlock();
+        }
+    }
+
+    public int trackedClients() {
+        bucketsLock.lock();
+        try {
+            return buckets.size();
+        } finally {
+            bucketsLock.unlock();
+        }
+    }
+
+    private void evictEldest() {
+        Iterator<Bucket> eldest = buckets.values().iterator();
+        while (buckets.size() > maxClients) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
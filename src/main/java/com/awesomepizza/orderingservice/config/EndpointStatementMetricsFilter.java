@@ -0,0 +1,48 @@
+package com.awesomepizza.orderingservice.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each endpoint issued per request, including those from
+ * after-commit listeners running on the request thread. Requests that matched no handler are
+ * not recorded, so unknown paths cannot grow the number of meters.
+ */
+@RequiredArgsConstructor
+public class EndpointStatementMetricsFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "http.server.requests.db.statements";
+
+    private final StatementCountingInspector statementCountingInspector;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        statementCountingInspector.startCounting();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = statementCountingInspector.stopCounting();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (uri != null) {
+                DistributionSummary.builder(METRIC)
+                        .description("SQL statements issued per request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri.toString())
+                        .register(meterRegistry)
+                        .record(statements);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.awesomepizza.orderingservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    StatementCountingInspector statementCountingInspector() {
+        return new StatementCountingInspector();
+    }
+
+    @Bean
+    FilterRegistrationBean<EndpointStatementMetricsFilter> endpointStatementMetricsFilter(
+            StatementCountingInspector statementCountingInspector, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<EndpointStatementMetricsFilter> registration = new FilterRegistrationBean<>(
+                new EndpointStatementMetricsFilter(statementCountingInspector, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,41 @@
+package com.awesomepizza.orderingservice.config;
+
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import com.awesomepizza.orderingservice.service.OrderViewRebuilder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the order_view read model.
+ * <ul>
+ *   <li>{@code GET /actuator/orderview} - rows in orders and in order_view</li>
+ *   <li>{@code POST /actuator/orderview} - rebuild order_view from the normalized tables</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "orderview")
+@RequiredArgsConstructor
+public class OrderViewEndpoint {
+
+    private final OrderRepository orderRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final OrderViewRebuilder orderViewRebuilder;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of(
+                "orders", orderRepository.count(),
+                "views", orderViewRepository.count());
+    }
+
+    @WriteOperation
+    public OrderViewRebuilder.Result rebuild() {
+        return orderViewRebuilder.rebuild();
+    }
+}
@@ -0,0 +1,58 @@
+package com.awesomepizza.orderingservice.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between
+ * {@link #startCounting()} and {@link #stopCounting()}, and records their text between
+ * {@link #startRecording()} and {@link #stopRecording()}. Statements pass through unchanged.
+ */
+public class StatementCountingInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<long[]> statements = new ThreadLocal<>();
+    private final ThreadLocal<List<String>> recorded = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = statements.get();
+        if (count != null) {
+            count[0]++;
+        }
+        List<String> sqls = recorded.get();
+        if (sqls != null) {
+            sqls.add(sql);
+        }
+        return sql;
+    }
+
+    public void startCounting() {
+        statements.set(new long[1]);
+    }
+
+    public long stopCounting() {
+        long[] count = statements.get();
+        statements.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    public void startRecording() {
+        recorded.set(new ArrayList<>());
+    }
+
+    public List<String> stopRecording() {
+        List<String> sqls = recorded.get();
+        recorded.remove();
+        return sqls == null ? List.of() : sqls;
+    }
+}
@@ -2,7 +2,8 @@ package com.awesomepizza.orderingservice.controller;
 
 
 import com.awesomepizza.orderingservice.model.entity.Pizza;
-import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.MenuCache;
+import com.awesomepizza.orderingservice.service.MenuCache.MenuSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,22 +12,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/menu")
 @RequiredArgsConstructor
 @Tag(name = "Menu", description = "Pizza menu operations")
 public class MenuController {
 
-    private final PizzaRepository pizzaRepository;
+    private final MenuCache menuCache;
 
     @Operation(
             summary = "Get available pizzas",
-            description = "Retrieve all available pizzas from the menu"
+            description = "Retrieve all available pizzas from the menu. Responses carry an ETag; " +
+                    "send it back in If-None-Match to get 304 Not Modified while the menu is unchanged."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -36,11 +37,19 @@ public class MenuController {
                             mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = Pizza.class))
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Menu unchanged since the ETag sent in If-None-Match"
             )
     })
     @GetMapping("/pizzas")
-    public ResponseEntity<List<Pizza>> getAvailablePizzas() {
-        List<Pizza> pizzas = pizzaRepository.findByAvailableTrue();
-        return ResponseEntity.ok(pizzas);
+    public ResponseEntity<byte[]> getAvailablePizzas() {
+        // Spring answers 304 itself when If-None-Match matches the ETag set here
+        MenuSnapshot menu = menuCache.getSnapshot();
+        return ResponseEntity.ok()
+                .eTag(menu.version())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(menu.json());
     }
 }
@@ -1,11 +1,16 @@
 package com.awesomepizza.orderingservice.controller;
+import com.awesomepizza.orderingservice.model.dto.BulkCreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.BulkOrderResponse;
 import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
 import com.awesomepizza.orderingservice.model.dto.OrderResponse;
 import com.awesomepizza.orderingservice.model.dto.OrderStatusResponse;
 import com.awesomepizza.orderingservice.exception.GlobalExceptionHandler.ErrorResponse;
+import com.awesomepizza.orderingservice.service.IdempotentOrderCreator;
 import com.awesomepizza.orderingservice.service.OrderService;
+import com.awesomepizza.orderingservice.service.OrderStatusBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -15,8 +20,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -24,16 +31,25 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Customer Orders", description = "Customer order operations")
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final IdempotentOrderCreator idempotentOrderCreator;
+    private final OrderStatusBroadcaster orderStatusBroadcaster;
 
     @Operation(
             summary = "Create a new order",
-            description = "Place a new pizza order. No registration required. Returns an order code for tracking."
+            description = "Place a new pizza order. No registration required. Returns an order code for tracking. " +
+                    "Send an Idempotency-Key to retry safely: a repeated key returns the order it created " +
+                    "instead of placing another one."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "201",
-                    description = "Order created successfully",
+                    description = "Order created successfully, or the order already created with this Idempotency-Key",
+                    headers = @Header(name = IDEMPOTENT_REPLAYED,
+                            description = "true when the order was created by an earlier request with the same key"),
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = OrderResponse.class),
@@ -57,15 +73,15 @@ public class OrderController {
             ),
             @ApiResponse(
                     responseCode = "400",
-                    description = "Invalid input",
+                    description = "Invalid input, unknown or unavailable pizzas, or a malformed Idempotency-Key",
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)
                     )
             ),
             @ApiResponse(
-                    responseCode = "404",
-                    description = "Pizza not found",
+                    responseCode = "422",
+                    description = "Idempotency-Key was already used for a different order",
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)
@@ -97,9 +113,68 @@ public class OrderController {
             )
     )
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse response = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<OrderResponse> createOrder(
+            @Parameter(description = "Client-generated key, up to 64 characters, that makes retries of this order safe",
+                    example = "3f2b8c1e-6d4a-4c9e-9a57-0e1f2d3c4b5a")
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest request) {
+        if (idempotencyKey == null) {
+            OrderResponse response = orderService.createOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+        IdempotentOrderCreator.Outcome outcome = idempotentOrderCreator.createOrder(idempotencyKey, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, Boolean.toString(outcome.replayed()))
+                .body(outcome.order());
+    }
+
+    @Operation(
+            summary = "Create orders in bulk",
+            description = "Place up to 500 orders at once, for aggregators and kiosks replaying buffered orders. " +
+                    "Entries are validated independently and saved in chunks, so an invalid entry is reported " +
+                    "in its result without rejecting the rest of the batch."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed; each result carries the order code or the reason it was rejected",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkOrderResponse.class),
+                            examples = @ExampleObject(value = """
+                    {
+                        "accepted": 1,
+                        "rejected": 1,
+                        "results": [
+                            {
+                                "index": 0,
+                                "orderCode": "ABC12345"
+                            },
+                            {
+                                "index": 1,
+                                "error": "Order is invalid",
+                                "validationErrors": {
+                                    "items[0].pizzaId": "Pizza not found: 99"
+                                }
+                            }
+                        ]
+                    }
+                    """)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Batch is empty or larger than 500 orders",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkOrderResponse> createOrders(@Valid @RequestBody BulkCreateOrderRequest request) {
+        BulkOrderResponse response = orderService.createOrders(request.getOrders());
+        return ResponseEntity.ok(response);
     }
 
     @Operation(
@@ -139,4 +214,35 @@ public class OrderController {
         OrderStatusResponse response = orderService.getOrderStatus(orderCode);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Stream order status",
+            description = "Subscribe to status updates for an order via Server-Sent Events. " +
+                    "The current status is sent immediately, then one 'status' event per change; " +
+                    "the stream closes once the order is completed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Status stream opened",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = OrderStatusResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Order not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @GetMapping(value = "/{orderCode}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatus(
+            @Parameter(description = "Order code received when order was created", example = "ABC12345")
+            @PathVariable String orderCode) {
+        return orderStatusBroadcaster.subscribe(orderCode, () -> orderService.getOrderStatus(orderCode));
+    }
+}
@@ -1,10 +1,15 @@
 package com.awesomepizza.orderingservice.controller;
 
+import com.awesomepizza.orderingservice.model.dto.OrderPage;
 import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
 import com.awesomepizza.orderingservice.exception.GlobalExceptionHandler.ErrorResponse;
+import com.awesomepizza.orderingservice.model.dto.KitchenQueueEvent;
+import com.awesomepizza.orderingservice.service.KitchenQueueStream;
 import com.awesomepizza.orderingservice.service.PizzeriaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,8 +17,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -23,26 +30,108 @@ import java.util.List;
 @Tag(name = "Pizzeria Management", description = "Pizzeria staff operations")
 public class PizzeriaController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String RETURN_MINIMAL = "return=minimal";
+    private static final String DEFAULT_PAGE_SIZE = "50";
+
     private final PizzeriaService pizzeriaService;
+    private final KitchenQueueStream kitchenQueueStream;
 
     @Operation(
             summary = "View order queue",
-            description = "Get all active orders in the queue (PENDING, IN_PREPARATION, READY)"
+            description = "Get a page of active orders in the queue (PENDING, IN_PREPARATION, READY), oldest first. " +
+                    "When more orders follow, the X-Next-Cursor response header holds the cursor for the next page."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Queue retrieved successfully",
+                    headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page"),
                     content = @Content(
                             mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = OrderResponse.class))
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor, page size or status filter",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
             )
     })
     @GetMapping("/queue")
-    public ResponseEntity<List<OrderResponse>> getOrderQueue() {
-        List<OrderResponse> queue = pizzeriaService.getOrderQueue();
-        return ResponseEntity.ok(queue);
+    public ResponseEntity<List<OrderResponse>> getOrderQueue(
+            @Parameter(description = "Only return orders in these active statuses")
+            @RequestParam(value = "status", required = false) List<OrderStatus> statuses,
+            @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 200", example = "50")
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return toPageResponse(pizzeriaService.getOrderQueue(statuses, cursor, limit));
+    }
+
+    @Operation(
+            summary = "View order history",
+            description = "Get a page of orders in any status, including completed ones, newest first. " +
+                    "When more orders follow, the X-Next-Cursor response header holds the cursor for the next page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "History retrieved successfully",
+                    headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page"),
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = OrderResponse.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or page size",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/orders/history")
+    public ResponseEntity<List<OrderResponse>> getOrderHistory(
+            @Parameter(description = "Only return orders in these statuses")
+            @RequestParam(value = "status", required = false) List<OrderStatus> statuses,
+            @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 200", example = "50")
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return toPageResponse(pizzeriaService.getOrderHistory(statuses, cursor, limit));
+    }
+
+    @Operation(
+            summary = "Stream order queue",
+            description = "Subscribe to the order queue via Server-Sent Events. A SNAPSHOT event carries the " +
+                    "current queue, followed by ORDER_ADDED, STATUS_CHANGED and ORDER_REMOVED deltas. " +
+                    "Every event id is a run id and a sequence number; reconnecting with Last-Event-ID (or lastEventId) " +
+                    "replays only the missed deltas, or a fresh snapshot when they are no longer buffered or " +
+                    "the id comes from an earlier run."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Queue stream opened",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = KitchenQueueEvent.class)
+                    )
+            )
+    })
+    @GetMapping(value = "/queue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderQueue(
+            @Parameter(description = "Last event id received, sent automatically by EventSource on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @Parameter(description = "Last event id received, for clients that cannot set headers", example = "3f9c2a1b-42")
+            @RequestParam(value = "lastEventId", required = false) String lastEventId) {
+        return kitchenQueueStream.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
     }
 
     @Operation(
@@ -75,7 +164,8 @@ public class PizzeriaController {
 
     @Operation(
             summary = "Mark order as ready",
-            description = "Mark an order that is being prepared as ready for pickup"
+            description = "Mark an order that is being prepared as ready for pickup. " +
+                    "With Prefer: return=minimal the order is not loaded and 204 is returned."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -86,6 +176,11 @@ public class PizzeriaController {
                             schema = @Schema(implementation = OrderResponse.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Order marked as ready, no body sent because of Prefer: return=minimal",
+                    headers = @Header(name = "Preference-Applied", description = "return=minimal")
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid order state transition",
@@ -106,14 +201,21 @@ public class PizzeriaController {
     @PutMapping("/orders/{orderCode}/ready")
     public ResponseEntity<OrderResponse> markOrderAsReady(
             @Parameter(description = "Order code", example = "ABC12345")
-            @PathVariable String orderCode) {
+            @PathVariable String orderCode,
+            @Parameter(description = "Send return=minimal to skip the order in the response", example = RETURN_MINIMAL)
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (prefersMinimal(prefer)) {
+            pizzeriaService.transitionOrder(orderCode, OrderStatus.READY);
+            return minimalResponse();
+        }
         OrderResponse response = pizzeriaService.markOrderAsReady(orderCode);
         return ResponseEntity.ok(response);
     }
 
     @Operation(
             summary = "Complete order",
-            description = "Mark an order as completed (delivered to customer)"
+            description = "Mark an order as completed (delivered to customer). " +
+                    "With Prefer: return=minimal the order is not loaded and 204 is returned."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -124,6 +226,11 @@ public class PizzeriaController {
                             schema = @Schema(implementation = OrderResponse.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Order completed successfully, no body sent because of Prefer: return=minimal",
+                    headers = @Header(name = "Preference-Applied", description = "return=minimal")
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid order state transition",
@@ -144,8 +251,41 @@ public class PizzeriaController {
     @PutMapping("/orders/{orderCode}/complete")
     public ResponseEntity<OrderResponse> completeOrder(
             @Parameter(description = "Order code", example = "ABC12345")
-            @PathVariable String orderCode) {
+            @PathVariable String orderCode,
+            @Parameter(description = "Send return=minimal to skip the order in the response", example = RETURN_MINIMAL)
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (prefersMinimal(prefer)) {
+            pizzeriaService.transitionOrder(orderCode, OrderStatus.COMPLETED);
+            return minimalResponse();
+        }
         OrderResponse response = pizzeriaService.completeOrder(orderCode);
         return ResponseEntity.ok(response);
     }
+
+    // Prefer may carry several comma-separated preferences (RFC 7240)
+    private static boolean prefersMinimal(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (RETURN_MINIMAL.equalsIgnoreCase(preference.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<OrderResponse> minimalResponse() {
+        return ResponseEntity.noContent()
+                .header("Preference-Applied", RETURN_MINIMAL)
+                .build();
+    }
+
+    private ResponseEntity<List<OrderResponse>> toPageResponse(OrderPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getOrders());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.awesomepizza.orderingservice.diagnostics;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Actuator endpoint for a bounded Java Flight Recorder recording with the JDK's low-overhead
+ * "default" settings plus this service's order and repository events. The recording keeps at most
+ * max-age of history and max-size bytes on disk, so it can run for the life of the process.
+ * <ul>
+ *   <li>{@code GET /actuator/flightrecording} - recording state</li>
+ *   <li>{@code POST /actuator/flightrecording} - start, optionally with maxAgeSeconds and maxSizeMb</li>
+ *   <li>{@code DELETE /actuator/flightrecording} - stop; the stopped recording can still be downloaded</li>
+ *   <li>{@code GET /actuator/flightrecording/download} - the recording so far as a .jfr file</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "flightrecording")
+@Slf4j
+public class FlightRecordingEndpoint {
+
+    static final String DOWNLOAD = "download";
+    private static final String SETTINGS = "default";
+
+    private final boolean startOnReady;
+    private final Duration defaultMaxAge;
+    private final long defaultMaxSizeMb;
+
+    // Dumps write the recording to disk while holding it, so not a monitor
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+    // Dumps handed out but not yet streamed, so shutdown can remove any a client never read
+    private final Set<Path> pendingDumps = ConcurrentHashMap.newKeySet();
+
+    public FlightRecordingEndpoint(
+            @Value("${pizzeria.jfr.always-on:true}") boolean startOnReady,
+            @Value("${pizzeria.jfr.max-age:15m}") Duration defaultMaxAge,
+            @Value("${pizzeria.jfr.max-size-mb:64}") long defaultMaxSizeMb) {
+        this.startOnReady = startOnReady;
+        this.defaultMaxAge = defaultMaxAge;
+        this.defaultMaxSizeMb = defaultMaxSizeMb;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startAlwaysOnRecording() {
+        if (startOnReady) {
+            start(null, null);
+        }
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        lock.lock();
+        try {
+            Map<String, Object> status = new LinkedHashMap<>();
+            if (recording == null) {
+                status.put("state", RecordingState.NEW.name());
+                return status;
+            }
+            status.put("state", recording.getState().name());
+            status.put("startTime", recording.getStartTime());
+            status.put("stopTime", recording.getStopTime());
+            status.put("maxAgeSeconds", recording.getMaxAge().toSeconds());
+            status.put("maxSizeMb", recording.getMaxSize() / (1024 * 1024));
+            status.put("sizeBytes", recording.getSize());
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Long maxAgeSeconds, @Nullable Long maxSizeMb) {
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                return status();
+            }
+            closeRecording();
+
+            Recording started;
+            try {
+                started = new Recording(Configuration.getConfiguration(SETTINGS));
+            } catch (IOException | ParseException e) {
+                throw new IllegalStateException("JFR settings '" + SETTINGS + "' are not available", e);
+            }
+            started.setName("orders");
+            started.setToDisk(true);
+            started.setMaxAge(maxAgeSeconds != null ? Duration.ofSeconds(maxAgeSeconds) : defaultMaxAge);
+            started.setMaxSize((maxSizeMb != null ? maxSizeMb : defaultMaxSizeMb) * 1024 * 1024);
+            started.enable(OrderCreationEvent.class);
+            started.enable(OrderTransitionEvent.class);
+            started.enable(OrderMappingEvent.class);
+            started.enable(RepositoryCallEvent.class);
+            started.start();
+            recording = started;
+            log.info("Flight recording started, keeping {} or {} MB",
+                    started.getMaxAge(), started.getMaxSize() / (1024 * 1024));
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+                log.info("Flight recording stopped");
+            }
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource download(@Selector String file) {
+        lock.lock();
+        try {
+            if (!DOWNLOAD.equals(file) || recording == null || recording.getState() == RecordingState.CLOSED) {
+                return null;
+            }
+            Path dump = null;
+            try {
+                // One file per request, so concurrent downloads never read or delete each other's dump
+                dump = Files.createTempFile("orders-", ".jfr");
+                pendingDumps.add(dump);
+                recording.dump(dump);
+                return new DumpResource(dump);
+            } catch (IOException e) {
+                if (dump != null) {
+                    discard(dump);
+                }
+                throw new UncheckedIOException("Could not dump the flight recording", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            closeRecording();
+            pendingDumps.forEach(this::discard);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void discard(Path dump) {
+        pendingDumps.remove(dump);
+        try {
+            Files.deleteIfExists(dump);
+        } catch (IOException e) {
+            log.warn("Could not delete flight recording dump {}: {}", dump, e.getMessage());
+        }
+    }
+
+    /**
+     * A dump that is deleted once the response has streamed it: closing the stream it was read from
+     * removes the file.
+     */
+    private final class DumpResource extends FileSystemResource {
+
+        private final Path dump;
+
+        private DumpResource(Path dump) {
+            super(dump);
+            this.dump = dump;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        discard(dump);
+                    }
+                }
+            };
+        }
+    }
+}
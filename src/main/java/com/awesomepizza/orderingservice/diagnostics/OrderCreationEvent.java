@@ -0,0 +1,36 @@
+package com.awesomepizza.orderingservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.awesomepizza.OrderCreation")
+@Label("Order Creation")
+@Description("Validating, persisting and mapping one new order")
+@Category({"Awesome Pizza", "Orders"})
+@StackTrace(false)
+public class OrderCreationEvent extends Event {
+
+    @Label("Order Code")
+    String orderCode;
+
+    @Label("Items")
+    int itemCount;
+
+    public static OrderCreationEvent start() {
+        OrderCreationEvent event = new OrderCreationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String orderCode, int itemCount) {
+        if (shouldCommit()) {
+            this.orderCode = orderCode;
+            this.itemCount = itemCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.awesomepizza.orderingservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.awesomepizza.OrderMapping")
+@Label("Order Mapping")
+@Description("Mapping one order entity to its response DTO, including lazy item loads")
+@Category({"Awesome Pizza", "Orders"})
+@StackTrace(false)
+public class OrderMappingEvent extends Event {
+
+    @Label("Order Code")
+    String orderCode;
+
+    @Label("Items")
+    int itemCount;
+
+    public static OrderMappingEvent start() {
+        OrderMappingEvent event = new OrderMappingEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String orderCode, int itemCount) {
+        if (shouldCommit()) {
+            this.orderCode = orderCode;
+            this.itemCount = itemCount;
+            commit();
+        }
+    }
+}
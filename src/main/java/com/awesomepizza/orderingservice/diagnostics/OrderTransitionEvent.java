@@ -0,0 +1,45 @@
+package com.awesomepizza.orderingservice.diagnostics;
+
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.awesomepizza.OrderTransition")
+@Label("Order Transition")
+@Description("One attempt to move an order to a new status, applied or rejected")
+@Category({"Awesome Pizza", "Orders"})
+@StackTrace(false)
+public class OrderTransitionEvent extends Event {
+
+    @Label("Order Code")
+    String orderCode;
+
+    @Label("From Status")
+    String fromStatus;
+
+    @Label("To Status")
+    String toStatus;
+
+    @Label("Applied")
+    boolean applied;
+
+    public static OrderTransitionEvent start(OrderStatus toStatus) {
+        OrderTransitionEvent event = new OrderTransitionEvent();
+        event.toStatus = toStatus.name();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String orderCode, OrderStatus fromStatus, boolean applied) {
+        if (shouldCommit()) {
+            this.orderCode = orderCode;
+            this.fromStatus = fromStatus == null ? null : fromStatus.name();
+            this.applied = applied;
+            commit();
+        }
+    }
+}
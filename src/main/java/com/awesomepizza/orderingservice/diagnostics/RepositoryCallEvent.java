@@ -0,0 +1,28 @@
+package com.awesomepizza.orderingservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.awesomepizza.RepositoryCall")
+@Label("Repository Call")
+@Description("One Spring Data repository method call and the rows it returned or updated")
+@Category({"Awesome Pizza", "Persistence"})
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
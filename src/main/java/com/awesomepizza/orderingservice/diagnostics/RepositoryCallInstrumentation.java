@@ -0,0 +1,23 @@
+package com.awesomepizza.orderingservice.diagnostics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a {@link RepositoryCallRecorder} to every Spring Data repository proxy as it is created.
+ */
+@Component
+public class RepositoryCallInstrumentation implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    // First in the chain, so the duration includes the repository's own transaction
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0,
+                            new RepositoryCallRecorder(repositoryInformation.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+}
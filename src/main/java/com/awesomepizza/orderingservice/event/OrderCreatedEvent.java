@@ -0,0 +1,4 @@
+package com.awesomepizza.orderingservice.event;
+
+public record OrderCreatedEvent(Long orderId, String orderCode) {
+}
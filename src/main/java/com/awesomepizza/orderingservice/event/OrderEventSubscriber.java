@@ -0,0 +1,16 @@
+package com.awesomepizza.orderingservice.event;
+
+/**
+ * Receives order events from the outbox relay, on the relay's thread once the change has committed,
+ * so a slow subscriber never holds up a request or a transaction. Events for one order arrive in the
+ * order they happened. Delivery is at least once: after a failure or a restart, an event may arrive
+ * again, also at subscribers that already handled it.
+ */
+public interface OrderEventSubscriber {
+
+    default void onOrderCreated(OrderCreatedEvent event) {
+    }
+
+    default void onOrderStatusChanged(OrderStatusChangedEvent event) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.awesomepizza.orderingservice.event;
+
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public record OrderStatusChangedEvent(
+        String orderCode,
+        OrderStatus previousStatus,
+        OrderStatus newStatus,
+        LocalDateTime occurredAt
+) {
+}
@@ -0,0 +1,7 @@
+package com.awesomepizza.orderingservice.exception;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
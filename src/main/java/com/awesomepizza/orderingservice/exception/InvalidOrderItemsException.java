@@ -0,0 +1,16 @@
+package com.awesomepizza.orderingservice.exception;
+
+import java.util.Map;
+
+public class InvalidOrderItemsException extends RuntimeException {
+    private final Map<String, String> itemErrors;
+
+    public InvalidOrderItemsException(Map<String, String> itemErrors) {
+        super("Order contains unknown or unavailable pizzas");
+        this.itemErrors = itemErrors;
+    }
+
+    public Map<String, String> getItemErrors() {
+        return itemErrors;
+    }
+}
@@ -0,0 +1,7 @@
+package com.awesomepizza.orderingservice.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.awesomepizza.orderingservice.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+// Entries are deliberately not @Valid: each one is validated on its own so a bad entry is reported, not fatal
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCreateOrderRequest {
+    public static final int MAX_ORDERS = 500;
+
+    @NotEmpty(message = "Batch must contain at least one order")
+    @Size(max = MAX_ORDERS, message = "Batch must contain at most " + MAX_ORDERS + " orders")
+    private List<CreateOrderRequest> orders;
+}
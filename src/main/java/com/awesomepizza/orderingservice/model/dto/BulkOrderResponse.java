@@ -0,0 +1,32 @@
+package com.awesomepizza.orderingservice.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderResponse {
+    private int accepted;
+    private int rejected;
+    private List<BulkOrderResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class BulkOrderResult {
+        private int index;
+        private String orderCode;
+        private String error;
+        private Map<String, String> validationErrors;
+    }
+}
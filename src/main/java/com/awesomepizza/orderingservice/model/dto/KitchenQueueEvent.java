@@ -0,0 +1,32 @@
+package com.awesomepizza.orderingservice.model.dto;
+
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class KitchenQueueEvent {
+    private long sequence;
+    private Type type;
+    private String orderCode;
+    private OrderStatus status;
+    private String statusDescription;
+    private OrderResponse order;
+    private List<OrderResponse> orders;
+
+    public enum Type {
+        SNAPSHOT,
+        ORDER_ADDED,
+        STATUS_CHANGED,
+        ORDER_REMOVED
+    }
+}
@@ -0,0 +1,17 @@
+package com.awesomepizza.orderingservice.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPage {
+    private List<OrderResponse> orders;
+    private String nextCursor;
+}
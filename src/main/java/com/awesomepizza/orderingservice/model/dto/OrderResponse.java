@@ -21,6 +21,7 @@ public class OrderResponse {
     private List<OrderItemResponse> items;
     private LocalDateTime createdAt;
     private LocalDateTime startedAt;
+    private LocalDateTime readyAt;
     private LocalDateTime completedAt;
 
     @Data
@@ -0,0 +1,88 @@
+package com.awesomepizza.orderingservice.model.entity;
+
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A completed order moved out of orders and order_items by the archiver. Archived orders are never
+ * changed again and are only read whole, so each one is a single row with its items kept as the same
+ * resolved summary the order view holds, and no longer depends on the pizzas still existing.
+ */
+@Entity
+@Table(name = "archived_orders", indexes = {
+        @Index(name = "idx_archived_orders_created_at_order_id", columnList = "createdAt, orderId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrder {
+    // The order keeps its id, so responses and idempotency keys still point at it
+    @Id
+    private Long orderId;
+
+    @Column(unique = true, nullable = false)
+    private String orderCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Convert(converter = OrderItemsConverter.class)
+    @Column(nullable = false, length = 1_000_000)
+    private List<OrderResponse.OrderItemResponse> items;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime readyAt;
+
+    private LocalDateTime completedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // A null version marks the row as new, so saving it persists without reading the id first
+    @Version
+    private Long version;
+
+    public static ArchivedOrder from(OrderView view, LocalDateTime archivedAt) {
+        return ArchivedOrder.builder()
+                .orderId(view.getOrderId())
+                .orderCode(view.getOrderCode())
+                .status(view.getStatus())
+                .items(view.getItems())
+                .createdAt(view.getCreatedAt())
+                .startedAt(view.getStartedAt())
+                .readyAt(view.getReadyAt())
+                .completedAt(view.getCompletedAt())
+                .archivedAt(archivedAt)
+                .build();
+    }
+
+    /**
+     * The order as the hot read model would show it, so archived orders are answered like any other.
+     */
+    public OrderView toView() {
+        return OrderView.builder()
+                .orderId(orderId)
+                .orderCode(orderCode)
+                .status(status)
+                .items(items)
+                .createdAt(createdAt)
+                .startedAt(startedAt)
+                .readyAt(readyAt)
+                .completedAt(completedAt)
+                .build();
+    }
+}
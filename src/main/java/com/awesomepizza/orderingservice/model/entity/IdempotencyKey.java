@@ -0,0 +1,47 @@
+package com.awesomepizza.orderingservice.model.entity;
+
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * An Idempotency-Key that created an order, written in the order's own transaction. The response the
+ * order was created with is kept alongside a hash of the request, so a replay answers exactly what the
+ * first request got, whatever the order's status is by then.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+    @Id
+    @Column(length = 64)
+    private String idempotencyKey;
+
+    // SHA-256 of the request, so a key reused for a different order is rejected
+    @Column(nullable = false, length = 32)
+    private byte[] requestHash;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Convert(converter = OrderResponseConverter.class)
+    @Column(nullable = false, length = 1_000_000)
+    private OrderResponse response;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // A null version marks the row as new, so a concurrent insert of the same key fails instead of merging
+    @Version
+    private Long version;
+}
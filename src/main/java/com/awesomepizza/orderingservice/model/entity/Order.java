@@ -14,14 +14,19 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_created_at_id", columnList = "status, createdAt, id"),
+        @Index(name = "idx_orders_created_at_id", columnList = "createdAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Order {
+    // Pooled sequence ids are assigned without an insert, which leaves Hibernate free to batch the insert
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -31,7 +36,7 @@ public class Order {
     @Column(nullable = false)
     private OrderStatus status;
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
 
@@ -40,8 +45,16 @@ public class Order {
 
     private LocalDateTime startedAt;
 
+    private LocalDateTime readyAt;
+
     private LocalDateTime completedAt;
 
+    // Bumped once by every transition, by the entity write or in the conditional update, so it numbers the
+    // order's changes and the outbox delivers its events in that order. No write is expected to fail the
+    // check: transitions hold the row lock or test the status in the same UPDATE
+    @Version
+    private Long version;
+
     @PrePersist
     public void generateOrderCode() {
         if (this.orderCode == null) {
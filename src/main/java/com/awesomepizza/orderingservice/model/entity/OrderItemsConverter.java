@@ -0,0 +1,39 @@
+package com.awesomepizza.orderingservice.model.entity;
+
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+/**
+ * Stores an order's item summary as a JSON array in a single column of {@link OrderView}.
+ */
+@Converter
+public class OrderItemsConverter implements AttributeConverter<List<OrderResponse.OrderItemResponse>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<OrderResponse.OrderItemResponse>> ITEMS = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<OrderResponse.OrderItemResponse> items) {
+        try {
+            return MAPPER.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Order items cannot be written as JSON", e);
+        }
+    }
+
+    @Override
+    public List<OrderResponse.OrderItemResponse> convertToEntityAttribute(String json) {
+        try {
+            return MAPPER.readValue(json, ITEMS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Stored order items are not valid JSON", e);
+        }
+    }
+}
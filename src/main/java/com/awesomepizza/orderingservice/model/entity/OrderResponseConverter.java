@@ -0,0 +1,38 @@
+package com.awesomepizza.orderingservice.model.entity;
+
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the response an order was created with as JSON in a single column of {@link IdempotencyKey}.
+ */
+@Converter
+public class OrderResponseConverter implements AttributeConverter<OrderResponse, String> {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .build();
+
+    @Override
+    public String convertToDatabaseColumn(OrderResponse response) {
+        try {
+            return MAPPER.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Order response cannot be written as JSON", e);
+        }
+    }
+
+    @Override
+    public OrderResponse convertToEntityAttribute(String json) {
+        try {
+            return MAPPER.readValue(json, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Stored order response is not valid JSON", e);
+        }
+    }
+}
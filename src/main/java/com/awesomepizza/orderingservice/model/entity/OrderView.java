@@ -0,0 +1,79 @@
+package com.awesomepizza.orderingservice.model.entity;
+
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read model of an order: one row holding everything an order response shows, with the items
+ * already resolved to pizza names. It is written in the same transaction as the order itself, so
+ * reads never see it lag behind, and can be regenerated from orders and order_items at any time.
+ */
+@Entity
+@Table(name = "order_view", indexes = {
+        @Index(name = "idx_order_view_status_created_at_order_id", columnList = "status, createdAt, orderId"),
+        @Index(name = "idx_order_view_created_at_order_id", columnList = "createdAt, orderId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderView {
+    // The order's own id; the view has no sequence of its own
+    @Id
+    private Long orderId;
+
+    @Column(unique = true, nullable = false)
+    private String orderCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    // Names are copied when the order is written, so a renamed pizza keeps its old name here until a rebuild
+    @Convert(converter = OrderItemsConverter.class)
+    @Column(nullable = false, length = 1_000_000)
+    private List<OrderResponse.OrderItemResponse> items;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime readyAt;
+
+    private LocalDateTime completedAt;
+
+    // A null version marks the row as new, so saving it persists without reading the id first
+    @Version
+    private Long version;
+
+    /**
+     * The view of an order whose items and pizzas are loaded.
+     */
+    public static OrderView from(Order order) {
+        return OrderView.builder()
+                .orderId(order.getId())
+                .orderCode(order.getOrderCode())
+                .status(order.getStatus())
+                .items(order.getItems().stream()
+                        .map(item -> OrderResponse.OrderItemResponse.builder()
+                                .pizzaName(item.getPizza().getName())
+                                .quantity(item.getQuantity())
+                                .notes(item.getNotes())
+                                .build())
+                        .toList())
+                .createdAt(order.getCreatedAt())
+                .startedAt(order.getStartedAt())
+                .readyAt(order.getReadyAt())
+                .completedAt(order.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.awesomepizza.orderingservice.model.entity;
+
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order event waiting to be relayed, written in the same transaction as the change it describes.
+ * Rows are deleted once every subscriber has received them.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_order_code_order_version", columnList = "orderCode, orderVersion")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    // Pooled like orders, so the rows of a bulk chunk go out in one insert batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxEventType type;
+
+    private Long orderId;
+
+    @Column(nullable = false, length = 8)
+    private String orderCode;
+
+    // The order's version once the change committed. Ids come from pooled blocks, so an instance can write
+    // a later event with a lower id than another instance's earlier one; this orders an order's events
+    @Column(nullable = false)
+    private Long orderVersion;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus newStatus;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+}
@@ -1,5 +1,6 @@
 package com.awesomepizza.orderingservice.model.entity;
 
+import com.awesomepizza.orderingservice.service.PizzaChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,7 +10,10 @@ import lombok.Builder;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "pizzas")
+@Table(name = "pizzas", indexes = {
+        @Index(name = "idx_pizzas_available", columnList = "available")
+})
+@EntityListeners(PizzaChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,21 +1,35 @@
 package com.awesomepizza.orderingservice.model.enums;
 
 public enum OrderStatus {
-    PENDING("In attesa"),
-    IN_PREPARATION("In preparazione"),
-    READY("Pronto"),
-    COMPLETED("Completato");
+    PENDING("In attesa", "Il tuo ordine è in coda e verrà preso in carico a breve"),
+    IN_PREPARATION("In preparazione", "Il pizzaiolo sta preparando il tuo ordine"),
+    READY("Pronto", "Il tuo ordine è pronto!"),
+    COMPLETED("Completato", "Ordine completato. Grazie!");
 
     private final String description;
+    private final String customerMessage;
 
-    OrderStatus(String description) {
+    OrderStatus(String description, String customerMessage) {
         this.description = description;
+        this.customerMessage = customerMessage;
     }
 
     public String getDescription() {
         return description;
     }
 
+    public String getCustomerMessage() {
+        return customerMessage;
+    }
+
+    /**
+     * The {@code @Version} of an order in this status. Orders are created at 0 and every transition bumps
+     * the version by one along the single path below, so each status has exactly one version.
+     */
+    public long orderVersion() {
+        return ordinal();
+    }
+
     public boolean canTransitionTo(OrderStatus newStatus) {
         return switch (this) {
             case PENDING -> newStatus == IN_PREPARATION;
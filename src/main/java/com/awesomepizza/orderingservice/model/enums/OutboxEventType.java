@@ -0,0 +1,6 @@
+package com.awesomepizza.orderingservice.model.enums;
+
+public enum OutboxEventType {
+    ORDER_CREATED,
+    STATUS_CHANGED
+}
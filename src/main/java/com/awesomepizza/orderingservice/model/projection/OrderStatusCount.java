@@ -0,0 +1,6 @@
+package com.awesomepizza.orderingservice.model.projection;
+
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+
+public record OrderStatusCount(OrderStatus status, Long count) {
+}
@@ -0,0 +1,6 @@
+package com.awesomepizza.orderingservice.model.projection;
+
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+
+public record OrderStatusView(String orderCode, OrderStatus status) {
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.awesomepizza.orderingservice.model.projection;
+
+/**
+ * The lowest order version among an order's outbox rows.
+ */
+public record OutboxHead(String orderCode, Long orderVersion) {
+}
@@ -0,0 +1,32 @@
+package com.awesomepizza.orderingservice.repository;
+
+import com.awesomepizza.orderingservice.model.entity.ArchivedOrder;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    // Fallback for codes the hot table no longer has; same two-column projection as OrderRepository
+    @Query("SELECT new com.awesomepizza.orderingservice.model.projection.OrderStatusView(a.orderCode, a.status) " +
+            "FROM ArchivedOrder a WHERE a.orderCode = :orderCode")
+    Optional<OrderStatusView> findStatusByOrderCode(@Param("orderCode") String orderCode);
+
+    // History continues into the archive with the view's (createdAt, orderId) keyset, so one cursor
+    // walks both tables. Every archived order is COMPLETED, so there is no status to filter on
+    List<ArchivedOrder> findByOrderByCreatedAtDescOrderIdDesc(Limit limit);
+
+    @Query("SELECT a FROM ArchivedOrder a " +
+            "WHERE a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.orderId < :orderId) " +
+            "ORDER BY a.createdAt DESC, a.orderId DESC")
+    List<ArchivedOrder> findBefore(@Param("createdAt") LocalDateTime createdAt,
+                                   @Param("orderId") Long orderId,
+                                   Limit limit);
+}
@@ -0,0 +1,25 @@
+package com.awesomepizza.orderingservice.repository;
+
+import com.awesomepizza.orderingservice.model.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    // Rows past the TTL stay until the next purge, so lookups skip them rather than rely on the purge
+    Optional<IdempotencyKey> findByIdempotencyKeyAndCreatedAtAfter(String idempotencyKey, LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.idempotencyKey = :idempotencyKey AND k.createdAt <= :cutoff")
+    int deleteExpired(@Param("idempotencyKey") String idempotencyKey, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,15 +1,98 @@
 package com.awesomepizza.orderingservice.repository;
 import com.awesomepizza.orderingservice.model.entity.Order;
 import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusCount;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @EntityGraph(attributePaths = {"items", "items.pizza"})
     Optional<Order> findByOrderCode(String orderCode);
+
+    @EntityGraph(attributePaths = {"items", "items.pizza"})
+    Optional<Order> findWithItemsById(Long id);
+
+    // Second step of a paged read: pages are limited on the orders table alone, then their items are
+    // fetched in one join, since fetching a collection together with a row limit would page in memory
+    @EntityGraph(attributePaths = {"items", "items.pizza"})
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    // Reads two columns through the order_code unique index without materialising the entity or its items
+    @Query("SELECT new com.awesomepizza.orderingservice.model.projection.OrderStatusView(o.orderCode, o.status) " +
+            "FROM Order o WHERE o.orderCode = :orderCode")
+    Optional<OrderStatusView> findStatusByOrderCode(@Param("orderCode") String orderCode);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+    @Query("SELECT new com.awesomepizza.orderingservice.model.projection.OrderStatusCount(o.status, COUNT(o)) " +
+            "FROM Order o GROUP BY o.status")
+    List<OrderStatusCount> countByStatus();
+
     List<Order> findByStatusOrderByCreatedAtAsc(OrderStatus status);
-    List<Order> findByStatusInOrderByCreatedAtAsc(List<OrderStatus> statuses);
-}
\ No newline at end of file
+
+    // Row-locks the oldest order in the given status. A lock timeout of -2 asks Hibernate for
+    // SKIP LOCKED, so concurrent callers each get a different row; dialects without SKIP LOCKED
+    // fall back to a plain FOR UPDATE and wait for the competing transaction instead.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    Optional<Order> findFirstByStatusOrderByCreatedAtAscIdAsc(OrderStatus status);
+
+    // Read-model rebuild walks the table in id order; the row locks make transitions on the chunk wait
+    // until its views are rewritten, so a rebuild cannot overwrite a newer status with an older one
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Archival walks the (status, createdAt, id) index from the oldest completed order. SKIP LOCKED as in
+    // the claim, so archivers on several instances move disjoint batches instead of waiting on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<Order> findByStatusAndCreatedAtBeforeOrderByCreatedAtAscIdAsc(OrderStatus status,
+                                                                       LocalDateTime createdAt,
+                                                                       Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :orderIds")
+    int deleteItemsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status ORDER BY o.createdAt ASC, o.id ASC")
+    List<Long> findIdsByStatusOrderByCreatedAtAsc(@Param("status") OrderStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.awesomepizza.orderingservice.model.enums.OrderStatus.IN_PREPARATION, " +
+            "o.startedAt = :startedAt, o.version = o.version + 1 " +
+            "WHERE o.id = :id AND o.status = com.awesomepizza.orderingservice.model.enums.OrderStatus.PENDING")
+    int claimPendingOrder(@Param("id") Long id, @Param("startedAt") LocalDateTime startedAt);
+
+    // Transitions by code check the current status in the WHERE clause, so the check and the write are one
+    // atomic statement; zero rows means the order is missing or no longer in the expected status
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.awesomepizza.orderingservice.model.enums.OrderStatus.READY, " +
+            "o.readyAt = :readyAt, o.version = o.version + 1 " +
+            "WHERE o.orderCode = :orderCode " +
+            "AND o.status = com.awesomepizza.orderingservice.model.enums.OrderStatus.IN_PREPARATION")
+    int markOrderReady(@Param("orderCode") String orderCode, @Param("readyAt") LocalDateTime readyAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.awesomepizza.orderingservice.model.enums.OrderStatus.COMPLETED, " +
+            "o.completedAt = :completedAt, o.version = o.version + 1 " +
+            "WHERE o.orderCode = :orderCode " +
+            "AND o.status = com.awesomepizza.orderingservice.model.enums.OrderStatus.READY")
+    int completeReadyOrder(@Param("orderCode") String orderCode, @Param("completedAt") LocalDateTime completedAt);
+}
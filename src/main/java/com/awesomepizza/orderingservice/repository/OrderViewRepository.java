@@ -0,0 +1,64 @@
+package com.awesomepizza.orderingservice.repository;
+
+import com.awesomepizza.orderingservice.model.entity.OrderView;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+    Optional<OrderView> findByOrderCode(String orderCode);
+
+    List<OrderView> findByStatusInOrderByCreatedAtAscOrderIdAsc(List<OrderStatus> statuses);
+
+    // Keyset pages ordered by (createdAt, orderId): each page seeks past the previous page's last row
+    // instead of skipping an OFFSET, so the cost of a page does not depend on how deep it is
+    List<OrderView> findByStatusInOrderByCreatedAtAscOrderIdAsc(List<OrderStatus> statuses, Limit limit);
+
+    @Query("SELECT v FROM OrderView v WHERE v.status IN :statuses " +
+            "AND (v.createdAt > :createdAt OR (v.createdAt = :createdAt AND v.orderId > :orderId)) " +
+            "ORDER BY v.createdAt ASC, v.orderId ASC")
+    List<OrderView> findByStatusInAfter(@Param("statuses") List<OrderStatus> statuses,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("orderId") Long orderId,
+                                        Limit limit);
+
+    List<OrderView> findByStatusInOrderByCreatedAtDescOrderIdDesc(List<OrderStatus> statuses, Limit limit);
+
+    @Query("SELECT v FROM OrderView v WHERE v.status IN :statuses " +
+            "AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.orderId < :orderId)) " +
+            "ORDER BY v.createdAt DESC, v.orderId DESC")
+    List<OrderView> findByStatusInBefore(@Param("statuses") List<OrderStatus> statuses,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("orderId") Long orderId,
+                                         Limit limit);
+
+    // Transitions copy what the conditional update on orders already checked; the order row stays
+    // locked by that update until commit, so two transitions cannot reach the view out of order
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderView v SET v.status = com.awesomepizza.orderingservice.model.enums.OrderStatus.IN_PREPARATION, " +
+            "v.startedAt = :startedAt WHERE v.orderId = :orderId")
+    int markInPreparation(@Param("orderId") Long orderId, @Param("startedAt") LocalDateTime startedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderView v SET v.status = com.awesomepizza.orderingservice.model.enums.OrderStatus.READY, " +
+            "v.readyAt = :readyAt WHERE v.orderCode = :orderCode")
+    int markReady(@Param("orderCode") String orderCode, @Param("readyAt") LocalDateTime readyAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderView v SET v.status = com.awesomepizza.orderingservice.model.enums.OrderStatus.COMPLETED, " +
+            "v.completedAt = :completedAt WHERE v.orderCode = :orderCode")
+    int markCompleted(@Param("orderCode") String orderCode, @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("DELETE FROM OrderView v WHERE NOT EXISTS (SELECT o.id FROM Order o WHERE o.id = v.orderId)")
+    int deleteWithoutOrder();
+}
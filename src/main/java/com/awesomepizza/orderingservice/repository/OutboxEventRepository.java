@@ -0,0 +1,37 @@
+package com.awesomepizza.orderingservice.repository;
+
+import com.awesomepizza.orderingservice.model.entity.OutboxEvent;
+import com.awesomepizza.orderingservice.model.projection.OutboxHead;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Any relay takes any row, whichever instance wrote it. SKIP LOCKED as in the order claim, so relays
+    // on several instances take disjoint batches, and rows of an instance that stopped are not stranded
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxEvent> findByOrderByIdAsc(Limit limit);
+
+    // Earliest rows of the given orders outside a claimed batch, which another relay holds or which sort
+    // after the batch by id; the batch's rows of those orders with a later version have to wait for them
+    @Query("SELECT new com.awesomepizza.orderingservice.model.projection.OutboxHead(e.orderCode, MIN(e.orderVersion)) " +
+            "FROM OutboxEvent e WHERE e.orderCode IN :orderCodes AND e.id NOT IN :claimedIds GROUP BY e.orderCode")
+    List<OutboxHead> findHeadsOutside(@Param("orderCodes") Collection<String> orderCodes,
+                                      @Param("claimedIds") Collection<Long> claimedIds);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+}
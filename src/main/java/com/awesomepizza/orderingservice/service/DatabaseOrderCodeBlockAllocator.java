@@ -0,0 +1,72 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Reserves order code blocks over a dedicated single-connection pool. Blocks are reserved while an
+ * order is being created, by a caller that already holds a connection from the application pool;
+ * taking a second one from that pool could wait on every other creator, each holding its own
+ * connection while it waits for the block. The reservation also commits independently of the order,
+ * so it is never rolled back.
+ */
+@Component
+@Slf4j
+public class DatabaseOrderCodeBlockAllocator implements OrderCodeBlockAllocator, DisposableBean {
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public DatabaseOrderCodeBlockAllocator(DataSourceProperties dataSourceProperties) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("order-code-blocks");
+        // One reservation at a time per instance is all the generator ever asks for
+        this.dataSource.setMaximumPoolSize(1);
+        this.dataSource.setMinimumIdle(0);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public long reserveBlock(int nodeId) {
+        try {
+            return transactionTemplate.execute(status -> reserve(nodeId));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the node's row first; it exists now, so lock and advance it
+            log.debug("Order code block row for node {} created concurrently, retrying", nodeId);
+            return transactionTemplate.execute(status -> reserve(nodeId));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dataSource.close();
+    }
+
+    private long reserve(int nodeId) {
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT next_block FROM order_code_blocks WHERE node_id = ? FOR UPDATE", Long.class, nodeId);
+        long reserved;
+        if (current.isEmpty()) {
+            reserved = 0;
+            jdbcTemplate.update("INSERT INTO order_code_blocks (node_id, next_block) VALUES (?, ?)",
+                    nodeId, reserved + 1);
+        } else {
+            reserved = current.get(0);
+            jdbcTemplate.update("UPDATE order_code_blocks SET next_block = ? WHERE node_id = ?",
+                    reserved + 1, nodeId);
+        }
+        log.debug("Reserved order code block {} for node {}", reserved, nodeId);
+        return reserved;
+    }
+}
@@ -0,0 +1,272 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.exception.IdempotencyKeyReuseException;
+import com.awesomepizza.orderingservice.exception.InvalidIdempotencyKeyException;
+import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.entity.IdempotencyKey;
+import com.awesomepizza.orderingservice.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Creates an order at most once per Idempotency-Key. The key is saved with a hash of the request in
+ * the order's own transaction, so a committed order always has its key and a crash can never leave
+ * one without the other. The key row also holds the response the order was created with. Recent keys
+ * are held in memory with that response, which answers most client retries without touching the
+ * database; older keys, or keys seen before a restart, are answered from the stored response, so a
+ * retry never sees a later status than the first request did. Keys older than the TTL are ignored
+ * even before the purge deletes them.
+ * <p>
+ * Concurrent requests with the same key wait for the first one and share its outcome, so a retry
+ * storm costs one insert. A key reused with a different request is rejected.
+ */
+@Component
+@Slf4j
+public class IdempotentOrderCreator {
+
+    static final int MAX_KEY_LENGTH = 64;
+    static final String REPLAYS_METRIC = "orders.idempotency.replays";
+
+    // Requests are hashed as JSON with sorted properties, by a mapper of its own so that neither field
+    // order in the DTOs nor the application's Jackson settings can change the hash of a stored key
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionOperations transactionOperations;
+    private final MeterRegistry meterRegistry;
+    private final int capacity;
+    private final Duration ttl;
+    private final LongSupplier clock;
+
+    // Insertion order is also expiry order, so the eldest entry is the first to go either way
+    private final LinkedHashMap<String, Remembered> remembered = new LinkedHashMap<>();
+    private final ReentrantLock rememberedLock = new ReentrantLock();
+    private final Map<String, CompletableFuture<Remembered>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotentOrderCreator(
+            OrderService orderService,
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            TransactionOperations transactionOperations,
+            MeterRegistry meterRegistry,
+            @Value("${pizzeria.idempotency.capacity:10000}") int capacity,
+            @Value("${pizzeria.idempotency.ttl:24h}") Duration ttl) {
+        this(orderService, idempotencyKeyRepository, transactionOperations, meterRegistry,
+                capacity, ttl, System::nanoTime);
+    }
+
+    IdempotentOrderCreator(OrderService orderService, IdempotencyKeyRepository idempotencyKeyRepository,
+                           TransactionOperations transactionOperations, MeterRegistry meterRegistry,
+                           int capacity, Duration ttl, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Idempotency key capacity must be positive");
+        }
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionOperations = transactionOperations;
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public Outcome createOrder(String idempotencyKey, CreateOrderRequest request) {
+        validateKey(idempotencyKey);
+        byte[] requestHash = hash(request);
+
+        Remembered known = recall(idempotencyKey);
+        if (known != null) {
+            return replay(idempotencyKey, known, requestHash, "memory");
+        }
+
+        CompletableFuture<Remembered> execution = new CompletableFuture<>();
+        CompletableFuture<Remembered> running = inFlight.putIfAbsent(idempotencyKey, execution);
+        if (running != null) {
+            return replay(idempotencyKey, await(running), requestHash, "in_flight");
+        }
+
+        try {
+            // The previous holder of this key may have finished between the lookup and taking over
+            known = recall(idempotencyKey);
+            if (known != null) {
+                execution.complete(known);
+                return replay(idempotencyKey, known, requestHash, "memory");
+            }
+
+            return createOrReplay(idempotencyKey, request, requestHash, execution);
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, execution);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${pizzeria.idempotency.purge-interval-ms:3600000}",
+            fixedDelayString = "${pizzeria.idempotency.purge-interval-ms:3600000}"
+    )
+    public void purgeExpiredKeys() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        Integer purged = transactionOperations.execute(status -> idempotencyKeyRepository.deleteCreatedBefore(cutoff));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} idempotency keys older than {}", purged, ttl);
+        }
+    }
+
+    private Outcome createOrReplay(String idempotencyKey, CreateOrderRequest request, byte[] requestHash,
+                                   CompletableFuture<Remembered> execution) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        IdempotencyKey stored = idempotencyKeyRepository
+                .findByIdempotencyKeyAndCreatedAtAfter(idempotencyKey, cutoff).orElse(null);
+        if (stored == null) {
+            try {
+                OrderResponse created = transactionOperations.execute(status -> {
+                    OrderResponse order = orderService.createOrder(request);
+                    // An expired row the purge has not reached yet would otherwise block the new key
+                    idempotencyKeyRepository.deleteExpired(idempotencyKey, cutoff);
+                    idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                            .idempotencyKey(idempotencyKey)
+                            .requestHash(requestHash)
+                            .orderId(order.getId())
+                            .response(order)
+                            .createdAt(LocalDateTime.now())
+                            .build());
+                    return order;
+                });
+                Remembered known = new Remembered(requestHash, created, clock.getAsLong());
+                remember(idempotencyKey, known);
+                execution.complete(known);
+                return new Outcome(created, false);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance committed the same key first; our order rolled back with the key
+                log.debug("Idempotency key {} committed concurrently, replaying", idempotencyKey);
+                stored = idempotencyKeyRepository
+                        .findByIdempotencyKeyAndCreatedAtAfter(idempotencyKey, cutoff).orElseThrow(() -> e);
+            }
+        }
+
+        Remembered restored = new Remembered(stored.getRequestHash(), stored.getResponse(), clock.getAsLong());
+        remember(idempotencyKey, restored);
+        execution.complete(restored);
+        return replay(idempotencyKey, restored, requestHash, "database");
+    }
+
+    private Outcome replay(String idempotencyKey, Remembered known, byte[] requestHash, String source) {
+        if (!Arrays.equals(known.requestHash(), requestHash)) {
+            throw new IdempotencyKeyReuseException(
+                    "Idempotency-Key " + idempotencyKey + " was already used for a different order");
+        }
+        meterRegistry.counter(REPLAYS_METRIC, "source", source).increment();
+        log.debug("Replaying order {} for idempotency key {} from {}",
+                known.order().getOrderCode(), idempotencyKey, source);
+        return new Outcome(known.order(), true);
+    }
+
+    private Remembered recall(String idempotencyKey) {
+        rememberedLock.lock();
+        try {
+            Remembered known = remembered.get(idempotencyKey);
+            if (known == null) {
+                return null;
+            }
+            if (isExpired(known)) {
+                remembered.remove(idempotencyKey);
+                return null;
+            }
+            return known;
+        } finally {
+            rememberedLock.unlock();
+        }
+    }
+
+    private void remember(String idempotencyKey, Remembered known) {
+        rememberedLock.lock();
+        try {
+            remembered.remove(idempotencyKey);
+            remembered.put(idempotencyKey, known);
+            Iterator<Remembered> eldest = remembered.values().iterator();
+            while (eldest.hasNext()) {
+                Remembered entry = eldest.next();
+                if (remembered.size() <= capacity && !isExpired(entry)) {
+                    break;
+                }
+                eldest.remove();
+            }
+        } finally {
+            rememberedLock.unlock();
+        }
+    }
+
+    private boolean isExpired(Remembered known) {
+        return clock.getAsLong() - known.rememberedAt() >= ttl.toNanos();
+    }
+
+    private static Remembered await(CompletableFuture<Remembered> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH
+                || !idempotencyKey.chars().allMatch(c -> c > 0x20 && c < 0x7F)) {
+            throw new InvalidIdempotencyKeyException(String.format(
+                    "Idempotency-Key must be 1 to %d visible ASCII characters", MAX_KEY_LENGTH));
+        }
+    }
+
+    private static byte[] hash(CreateOrderRequest request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(CANONICAL_JSON.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order request could not be serialized for hashing", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The order for a key, and whether it was created earlier rather than by this request.
+     */
+    public record Outcome(OrderResponse order, boolean replayed) {
+    }
+
+    private record Remembered(byte[] requestHash, OrderResponse order, long rememberedAt) {
+    }
+}
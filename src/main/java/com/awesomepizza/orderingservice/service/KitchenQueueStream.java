@@ -0,0 +1,349 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderEventSubscriber;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.dto.KitchenQueueEvent;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streams the kitchen queue as one snapshot followed by sequenced deltas. Recent deltas are kept
+ * in a bounded replay buffer so a display that reconnects with its last sequence only receives
+ * what it missed; anything older than the buffer falls back to a fresh snapshot.
+ * <p>
+ * Event ids carry a run id picked at startup next to the sequence. Sequences restart with the process,
+ * so an id from another run, or from another instance behind the same address, never resumes a stream;
+ * it gets a snapshot like any unknown id.
+ * <p>
+ * The snapshot is read from the view while deltas arrive later from the outbox relay, so a delta can
+ * describe a change the snapshot already shows. Each subscriber keeps the order versions its snapshot
+ * saw and drops deltas at or below them, until the first newer delta of that order gets through.
+ * <p>
+ * Events are numbered and queued per subscriber under one lock, but written to the emitters outside
+ * it, by at most one virtual thread per subscriber at a time. A slow or half-open display therefore
+ * only delays its own stream. One that falls more than the replay buffer behind is dropped, and
+ * catches up with a snapshot when it reconnects.
+ */
+@Component
+@Slf4j
+public class KitchenQueueStream implements OrderEventSubscriber {
+
+    private final PizzeriaService pizzeriaService;
+    private final long emitterTimeoutMs;
+    private final int replayBufferSize;
+    private final ExecutorService sendExecutor;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Deque<KitchenQueueEvent> replayBuffer = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    // Guards the sequence, the replay buffer and the order in which events are queued; never held across IO
+    private final ReentrantLock lock = new ReentrantLock();
+    private long sequence;
+
+    @Autowired
+    public KitchenQueueStream(
+            PizzeriaService pizzeriaService,
+            @Value("${pizzeria.kitchen-stream.timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${pizzeria.kitchen-stream.replay-buffer-size:1000}") int replayBufferSize) {
+        this(pizzeriaService, emitterTimeoutMs, replayBufferSize, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    KitchenQueueStream(PizzeriaService pizzeriaService, long emitterTimeoutMs, int replayBufferSize,
+                       ExecutorService sendExecutor) {
+        this.pizzeriaService = pizzeriaService;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.replayBufferSize = replayBufferSize;
+        this.sendExecutor = sendExecutor;
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        Long lastSequence = sequenceOf(lastEventId);
+        Subscriber subscriber = new Subscriber(new SseEmitter(emitterTimeoutMs));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+
+        boolean resumed;
+        lock.lock();
+        try {
+            resumed = lastSequence != null && canResumeFrom(lastSequence);
+            if (resumed) {
+                for (KitchenQueueEvent event : replayBuffer) {
+                    if (event.getSequence() > lastSequence) {
+                        subscriber.enqueue(toSseEvent(event));
+                    }
+                }
+                subscriber.live = true;
+                subscribers.add(subscriber);
+            } else {
+                // Deltas published while the snapshot is read are held back and sent after it
+                subscriber.baseline = sequence;
+                subscribers.add(subscriber);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (resumed) {
+            subscriber.flushBeforeReturn();
+            return subscriber.emitter;
+        }
+
+        List<OrderResponse> orders;
+        try {
+            orders = pizzeriaService.getOrderQueue();
+        } catch (RuntimeException e) {
+            subscribers.remove(subscriber);
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            subscriber.enqueue(toSseEvent(KitchenQueueEvent.builder()
+                    .sequence(subscriber.baseline)
+                    .type(KitchenQueueEvent.Type.SNAPSHOT)
+                    .orders(orders)
+                    .build()));
+            for (OrderResponse order : orders) {
+                subscriber.snapshotVersions.put(order.getOrderCode(), order.getStatus().orderVersion());
+            }
+            for (KitchenQueueEvent event : subscriber.backlog) {
+                if (!subscriber.covers(event)) {
+                    subscriber.enqueue(toSseEvent(event));
+                }
+            }
+            subscriber.backlog.clear();
+            subscriber.live = true;
+        } finally {
+            lock.unlock();
+        }
+        subscriber.flushBeforeReturn();
+        return subscriber.emitter;
+    }
+
+    @Override
+    public void onOrderCreated(OrderCreatedEvent event) {
+        OrderResponse order = pizzeriaService.getOrder(event.orderId());
+        publish(KitchenQueueEvent.builder()
+                .type(KitchenQueueEvent.Type.ORDER_ADDED)
+                .orderCode(order.getOrderCode())
+                .status(order.getStatus())
+                .statusDescription(order.getStatusDescription())
+                .order(order));
+    }
+
+    @Override
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        KitchenQueueEvent.Type type = event.newStatus() == OrderStatus.COMPLETED
+                ? KitchenQueueEvent.Type.ORDER_REMOVED
+                : KitchenQueueEvent.Type.STATUS_CHANGED;
+        publish(KitchenQueueEvent.builder()
+                .type(type)
+                .orderCode(event.orderCode())
+                .status(event.newStatus())
+                .statusDescription(event.newStatus().getDescription()));
+    }
+
+    @Scheduled(
+            initialDelayString = "${pizzeria.sse.heartbeat-interval-ms:15000}",
+            fixedRateString = "${pizzeria.sse.heartbeat-interval-ms:15000}"
+    )
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            // A subscriber with events still queued does not need one, and one that is stuck must not pile them up
+            if (subscriber.live && subscriber.idle()) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+                subscriber.flush();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+
+    public long getSequence() {
+        lock.lock();
+        try {
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public String eventId(long sequence) {
+        return runId + "-" + sequence;
+    }
+
+    // The sequence of an id from this run; null for a missing or malformed id, or one from another run
+    private Long sequenceOf(String eventId) {
+        if (eventId == null || !eventId.startsWith(runId + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(runId.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void publish(KitchenQueueEvent.KitchenQueueEventBuilder builder) {
+        lock.lock();
+        try {
+            KitchenQueueEvent event = builder.sequence(++sequence).build();
+            replayBuffer.addLast(event);
+            if (replayBuffer.size() > replayBufferSize) {
+                replayBuffer.removeFirst();
+            }
+
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.live) {
+                    subscriber.backlog.add(event);
+                } else if (subscriber.covers(event)) {
+                    continue;
+                } else if (subscriber.queued() >= replayBufferSize) {
+                    subscriber.drop(new IOException("Subscriber fell behind the replay buffer"));
+                } else {
+                    subscriber.enqueue(toSseEvent(event));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.live) {
+                subscriber.flush();
+            }
+        }
+    }
+
+    private boolean canResumeFrom(long lastSequence) {
+        if (lastSequence > sequence) {
+            // Sequence is ahead of ours, so the client saw a previous run of the service
+            return false;
+        }
+        long oldestBuffered = replayBuffer.isEmpty() ? sequence + 1 : replayBuffer.peekFirst().getSequence();
+        return lastSequence + 1 >= oldestBuffered;
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(KitchenQueueEvent event) {
+        return SseEmitter.event()
+                .id(eventId(event.getSequence()))
+                .name(event.getType().name())
+                .data(event);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final List<KitchenQueueEvent> backlog = new ArrayList<>();
+        // Order versions shown by the snapshot, for orders no newer delta has reached yet; guarded by the lock
+        private final Map<String, Long> snapshotVersions = new HashMap<>();
+        private final Queue<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger outboxSize = new AtomicInteger();
+        // Set while a send task owns the emitter, so events are written one at a time and in order
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean live;
+        private long baseline;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Deltas come from the relay in each order's own order, so once one is newer than the snapshot
+        // every later delta of that order is too
+        private boolean covers(KitchenQueueEvent event) {
+            Long shown = snapshotVersions.get(event.getOrderCode());
+            if (shown == null) {
+                return false;
+            }
+            if (event.getType() == KitchenQueueEvent.Type.ORDER_ADDED || event.getStatus().orderVersion() <= shown) {
+                return true;
+            }
+            snapshotVersions.remove(event.getOrderCode());
+            return false;
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            outbox.add(event);
+            outboxSize.incrementAndGet();
+        }
+
+        private int queued() {
+            return outboxSize.get();
+        }
+
+        private boolean idle() {
+            return outboxSize.get() == 0 && !sending.get();
+        }
+
+        private void flush() {
+            if (!outbox.isEmpty() && sending.compareAndSet(false, true)) {
+                sendExecutor.execute(this::drain);
+            }
+        }
+
+        // Until the emitter is returned to the handler its sends are only buffered, never written to the
+        // client, so the subscribing thread can drain the first events itself and they are in the response
+        // from the start
+        private void flushBeforeReturn() {
+            if (!outbox.isEmpty() && sending.compareAndSet(false, true)) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = outbox.poll()) != null) {
+                    outboxSize.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // An event queued after the last poll but before the flag was cleared found the task still running
+            flush();
+        }
+
+        private void drop(Exception cause) {
+            log.debug("Dropping kitchen queue subscriber: {}", cause.getMessage());
+            subscribers.remove(this);
+            outbox.clear();
+            emitter.completeWithError(cause);
+        }
+    }
+}
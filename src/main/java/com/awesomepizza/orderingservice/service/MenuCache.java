@@ -0,0 +1,58 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuCache {
+
+    private final PizzaRepository pizzaRepository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile MenuSnapshot snapshot;
+
+    public MenuSnapshot getSnapshot() {
+        long currentGeneration = generation.get();
+        MenuSnapshot cached = snapshot;
+        if (cached != null && cached.generation() == currentGeneration) {
+            return cached;
+        }
+
+        // A snapshot loaded while a pizza change commits carries the old generation,
+        // so the next request reloads instead of serving it.
+        MenuSnapshot loaded = load(currentGeneration);
+        snapshot = loaded;
+        return loaded;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private MenuSnapshot load(long snapshotGeneration) {
+        List<Pizza> pizzas = pizzaRepository.findByAvailableTrue();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(pizzas);
+            String version = DigestUtils.md5DigestAsHex(json);
+            log.debug("Menu snapshot {} built with {} pizzas", version, pizzas.size());
+            return new MenuSnapshot(json, version, snapshotGeneration);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize menu", e);
+        }
+    }
+
+    public record MenuSnapshot(byte[] json, String version, long generation) {
+    }
+}
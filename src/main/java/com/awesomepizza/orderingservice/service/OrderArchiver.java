@@ -0,0 +1,133 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.model.entity.ArchivedOrder;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.entity.OrderView;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.ArchivedOrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves completed orders older than max-age out of orders, order_items and order_view into
+ * archived_orders, so the hot tables and their indexes only hold the orders still being worked on
+ * and the most recent history. Each batch is copied and deleted in one transaction, so an order is
+ * always in exactly one place; lookups by code or id fall through to the archive when the hot
+ * tables miss.
+ */
+@Component
+@Slf4j
+public class OrderArchiver {
+
+    static final String ARCHIVED_METRIC = "orders.archived";
+
+    private final OrderRepository orderRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionOperations transactionOperations;
+    private final OrderMetrics orderMetrics;
+    private final Counter archived;
+    private final Duration maxAge;
+    private final int batchSize;
+
+    // Overlapping runs on one instance would only skip each other's locked rows; one at a time is simpler
+    private final ReentrantLock archiveLock = new ReentrantLock();
+
+    public OrderArchiver(
+            OrderRepository orderRepository,
+            OrderViewRepository orderViewRepository,
+            ArchivedOrderRepository archivedOrderRepository,
+            TransactionOperations transactionOperations,
+            OrderMetrics orderMetrics,
+            MeterRegistry meterRegistry,
+            @Value("${pizzeria.archive.max-age:12h}") Duration maxAge,
+            @Value("${pizzeria.archive.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Archive batch size must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.orderViewRepository = orderViewRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.transactionOperations = transactionOperations;
+        this.orderMetrics = orderMetrics;
+        this.archived = Counter.builder(ARCHIVED_METRIC)
+                .description("Completed orders moved to the archive")
+                .register(meterRegistry);
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+            initialDelayString = "${pizzeria.archive.interval-ms:900000}",
+            fixedDelayString = "${pizzeria.archive.interval-ms:900000}"
+    )
+    public void archiveOnSchedule() {
+        archiveCompletedOrders();
+    }
+
+    /**
+     * Archives every completed order created before now minus max-age, one batch per transaction,
+     * and returns how many were moved.
+     */
+    public int archiveCompletedOrders() {
+        archiveLock.lock();
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+            int total = 0;
+            while (true) {
+                Integer moved = transactionOperations.execute(status -> archiveBatch(cutoff));
+                if (moved == null || moved == 0) {
+                    break;
+                }
+                // Counted once the batch has committed, so a rolled-back batch leaves the meters alone
+                archived.increment(moved);
+                orderMetrics.recordArchived(moved);
+                total += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Archived {} completed orders created before {}", total, cutoff);
+            }
+            return total;
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Order> orders = orderRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAtAscIdAsc(
+                OrderStatus.COMPLETED, cutoff, Limit.of(batchSize));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        // Initialises the items of the already-locked batch in a single query
+        orderRepository.findWithItemsByIdIn(ids);
+
+        // Copied from the normalized tables rather than the view, so an order without a view loses nothing
+        LocalDateTime archivedAt = LocalDateTime.now();
+        archivedOrderRepository.saveAll(orders.stream()
+                .map(order -> ArchivedOrder.from(OrderView.from(order), archivedAt))
+                .toList());
+        orderViewRepository.deleteAllByIdInBatch(ids);
+        orderRepository.deleteItemsByOrderIdIn(ids);
+        orderRepository.deleteAllByIdInBatch(ids);
+
+        return orders.size();
+    }
+}
@@ -0,0 +1,9 @@
+package com.awesomepizza.orderingservice.service;
+
+public interface OrderCodeBlockAllocator {
+    /**
+     * Reserves the next block of counter values for a node. Blocks are never handed out twice,
+     * even across restarts or instances misconfigured with the same node id.
+     */
+    long reserveBlock(int nodeId);
+}
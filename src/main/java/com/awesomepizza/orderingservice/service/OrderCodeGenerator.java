@@ -0,0 +1,5 @@
+package com.awesomepizza.orderingservice.service;
+
+public interface OrderCodeGenerator {
+    String nextCode();
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.exception.InvalidPageRequestException;
+import com.awesomepizza.orderingservice.model.entity.OrderView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last order on a page, encoded as an opaque token so clients do not
+ * depend on its layout.
+ */
+record OrderCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    static OrderCursor of(OrderView order) {
+        return new OrderCursor(order.getCreatedAt(), order.getOrderId());
+    }
+
+    static OrderCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidPageRequestException("Invalid cursor: " + token);
+            }
+            return new OrderCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageRequestException("Invalid cursor: " + token);
+        }
+    }
+
+    String encode() {
+        String value = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
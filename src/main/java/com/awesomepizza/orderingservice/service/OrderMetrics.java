@@ -0,0 +1,164 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.entity.OrderView;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusCount;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order lifecycle metrics. Stage timers are read off the order's own timestamps and recorded once
+ * the transition commits, so rolled-back or retried attempts are not counted. Orders per status are
+ * set from one grouped count of the hot orders table at startup and again every
+ * {@code pizzeria.metrics.status-refresh-ms}, and follow this instance's committed creation and status
+ * change events in between. The events only cover this instance, so with several instances the
+ * gauges drift until the next recount. Archived orders leave the COMPLETED count, which therefore only
+ * covers completed orders still in the hot tables.
+ */
+@Component
+@Slf4j
+public class OrderMetrics {
+
+    static final String STAGE_METRIC = "orders.lifecycle.stage";
+    static final String STATUS_METRIC = "orders.status";
+    static final String CONFLICTS_METRIC = "orders.transition.conflicts";
+
+    private final OrderRepository orderRepository;
+    private final MeterRegistry meterRegistry;
+    private final Timer createdToStarted;
+    private final Timer startedToReady;
+    private final Timer readyToCompleted;
+    private final Map<OrderStatus, AtomicLong> ordersByStatus = new EnumMap<>(OrderStatus.class);
+
+    public OrderMetrics(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.meterRegistry = meterRegistry;
+        this.createdToStarted = stageTimer(meterRegistry, "created_to_started");
+        this.startedToReady = stageTimer(meterRegistry, "started_to_ready");
+        this.readyToCompleted = stageTimer(meterRegistry, "ready_to_completed");
+
+        for (OrderStatus status : OrderStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            ordersByStatus.put(status, count);
+            Gauge.builder(STATUS_METRIC, count, AtomicLong::get)
+                    .description("Orders currently in each status; completed orders until they are archived")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public void recordStarted(OrderView order) {
+        recordAfterCommit(createdToStarted, order.getCreatedAt(), order.getStartedAt());
+    }
+
+    public void recordReady(OrderView order) {
+        recordAfterCommit(startedToReady, order.getStartedAt(), order.getReadyAt());
+    }
+
+    public void recordCompleted(OrderView order) {
+        recordAfterCommit(readyToCompleted, order.getReadyAt(), order.getCompletedAt());
+    }
+
+    /**
+     * Counted when a transition's conditional update matched no row although the order exists, tagged
+     * with the status it was moving to and the one it was found in. Recorded straight away, since the
+     * failed transition rolls back.
+     */
+    public void recordConflict(OrderStatus targetStatus, OrderStatus foundStatus) {
+        meterRegistry.counter(CONFLICTS_METRIC, "status", targetStatus.name(), "found", foundStatus.name())
+                .increment();
+    }
+
+    public long ordersIn(OrderStatus status) {
+        return ordersByStatus.get(status).get();
+    }
+
+    /**
+     * Called once a batch of completed orders has been committed to the archive.
+     */
+    public void recordArchived(int count) {
+        ordersByStatus.get(OrderStatus.COMPLETED).addAndGet(-count);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedStatusCounts() {
+        recountStatuses();
+        log.info("Order status gauges seeded: {}", ordersByStatus);
+    }
+
+    // Events that commit while the count runs can be overwritten by it; the next recount restores them
+    @Scheduled(
+            initialDelayString = "${pizzeria.metrics.status-refresh-ms:60000}",
+            fixedDelayString = "${pizzeria.metrics.status-refresh-ms:60000}"
+    )
+    public void refreshStatusCounts() {
+        recountStatuses();
+        log.debug("Order status gauges recounted: {}", ordersByStatus);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        ordersByStatus.get(OrderStatus.PENDING).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        ordersByStatus.get(event.previousStatus()).decrementAndGet();
+        ordersByStatus.get(event.newStatus()).incrementAndGet();
+    }
+
+    private void recountStatuses() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatusCount statusCount : orderRepository.countByStatus()) {
+            counts.put(statusCount.status(), statusCount.count());
+        }
+        ordersByStatus.forEach((status, count) -> count.set(counts.getOrDefault(status, 0L)));
+    }
+
+    private void recordAfterCommit(Timer timer, LocalDateTime from, LocalDateTime to) {
+        // Orders created before a stage's timestamp existed have nothing to measure
+        if (from == null || to == null) {
+            return;
+        }
+        Duration duration = Duration.between(from, to);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            timer.record(duration);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                timer.record(duration);
+            }
+        });
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder(STAGE_METRIC)
+                .description("Time an order spends between two lifecycle steps")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(Duration.ofSeconds(1))
+                .maximumExpectedValue(Duration.ofHours(2))
+                .register(meterRegistry);
+    }
+}
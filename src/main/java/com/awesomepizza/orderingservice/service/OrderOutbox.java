@@ -0,0 +1,50 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.entity.OutboxEvent;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.enums.OutboxEventType;
+import com.awesomepizza.orderingservice.repository.OutboxEventRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes every order event to the outbox as it is published. A plain listener runs inside the
+ * publisher's transaction, so the row commits or rolls back together with the change itself; the
+ * insert is queued with the transaction's other writes and goes out at flush.
+ */
+@Component
+public class OrderOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public OrderOutbox(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(OutboxEventType.ORDER_CREATED)
+                .orderId(event.orderId())
+                .orderCode(event.orderCode())
+                .orderVersion(OrderStatus.PENDING.orderVersion())
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(OutboxEventType.STATUS_CHANGED)
+                .orderCode(event.orderCode())
+                .orderVersion(event.newStatus().orderVersion())
+                .previousStatus(event.previousStatus())
+                .newStatus(event.newStatus())
+                .occurredAt(event.occurredAt())
+                .build());
+    }
+}
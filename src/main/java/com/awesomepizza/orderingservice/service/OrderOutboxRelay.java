@@ -0,0 +1,301 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderEventSubscriber;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.entity.OutboxEvent;
+import com.awesomepizza.orderingservice.model.projection.OutboxHead;
+import com.awesomepizza.orderingservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains outbox rows to every {@link OrderEventSubscriber} on one background thread. Each commit that
+ * wrote an event wakes the relay; the poll interval only matters for rows left over from a failed
+ * delivery, another instance or a previous run.
+ * <p>
+ * Each batch is claimed with SKIP LOCKED and stays locked until its rows are deleted, so relays on
+ * several instances deliver disjoint batches, and the rows of an instance that stopped are taken over
+ * by whichever relay reaches them. Subscribers run with the claim's transaction suspended, so one that
+ * fails in its own transaction cannot roll back the batch.
+ * <p>
+ * Batches are claimed in id order, but ids come from pooled blocks and say nothing about which of two
+ * instances wrote first, so each order's rows are delivered in order of the order version they carry.
+ * Rows are deleted once every subscriber has taken them. When a subscriber throws, the row stays for
+ * the next pass and later rows of the same order are held back behind it, so each order's events stay
+ * in order while other orders carry on; the same applies to an order whose earlier row is outside the
+ * batch, because another relay holds it or its id sorts after the batch. A row that keeps failing is dropped after max-attempts, so
+ * one broken subscriber cannot stall an order's events indefinitely.
+ */
+@Component
+@Slf4j
+public class OrderOutboxRelay implements SmartLifecycle {
+
+    static final String RELAYED_METRIC = "orders.outbox.relayed";
+    static final String FAILURES_METRIC = "orders.outbox.failures";
+    static final String DROPPED_METRIC = "orders.outbox.dropped";
+    static final String LAG_METRIC = "orders.outbox.lag";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionOperations claimTransaction;
+    private final TransactionOperations outsideTransaction;
+    private final List<OrderEventSubscriber> subscribers;
+    private final MeterRegistry meterRegistry;
+    private final Timer lag;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public OrderOutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            PlatformTransactionManager transactionManager,
+            List<OrderEventSubscriber> subscribers,
+            MeterRegistry meterRegistry,
+            @Value("${pizzeria.outbox.relay-enabled:true}") boolean enabled,
+            @Value("${pizzeria.outbox.batch-size:100}") int batchSize,
+            @Value("${pizzeria.outbox.poll-interval-ms:5000}") long pollIntervalMs,
+            @Value("${pizzeria.outbox.max-attempts:5}") int maxAttempts) {
+        this(outboxEventRepository, new TransactionTemplate(transactionManager),
+                outsideTransaction(transactionManager), subscribers, meterRegistry, enabled, batchSize,
+                pollIntervalMs, maxAttempts);
+    }
+
+    OrderOutboxRelay(OutboxEventRepository outboxEventRepository,
+                     TransactionOperations claimTransaction,
+                     TransactionOperations outsideTransaction,
+                     List<OrderEventSubscriber> subscribers,
+                     MeterRegistry meterRegistry,
+                     boolean enabled,
+                     int batchSize,
+                     long pollIntervalMs,
+                     int maxAttempts) {
+        if (batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Outbox batch size and max attempts must be positive");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.claimTransaction = claimTransaction;
+        this.outsideTransaction = outsideTransaction;
+        this.subscribers = List.copyOf(subscribers);
+        this.meterRegistry = meterRegistry;
+        this.lag = Timer.builder(LAG_METRIC)
+                .description("Time from an order event to its delivery to subscribers")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        wakeUp();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        wakeUp();
+    }
+
+    public void wakeUp() {
+        wakeups.release();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Order outbox relay is disabled");
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("order-outbox-relay").daemon().start(this::relayUntilStopped);
+        log.info("Order outbox relay started with {} subscribers", subscribers.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Delivers batches until the outbox is empty or a batch had rows it could not deliver yet, which
+     * are left for the next pass. Returns the number of rows removed from the outbox.
+     */
+    int relayPending() {
+        int relayed = 0;
+        while (true) {
+            BatchOutcome outcome = claimTransaction.execute(status -> relayBatch());
+            if (outcome == null || outcome.claimed() == 0) {
+                return relayed;
+            }
+            relayed += outcome.removed();
+            if (outcome.leftBehind() > 0 || outcome.claimed() < batchSize) {
+                return relayed;
+            }
+        }
+    }
+
+    private void relayUntilStopped() {
+        while (running) {
+            try {
+                relayPending();
+            } catch (RuntimeException e) {
+                log.warn("Order outbox relay pass failed, retrying in {} ms", pollIntervalMs, e);
+            }
+            try {
+                wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                // One pass covers every commit that arrived meanwhile
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private BatchOutcome relayBatch() {
+        List<OutboxEvent> claimed = outboxEventRepository.findByOrderByIdAsc(Limit.of(batchSize));
+        if (claimed.isEmpty()) {
+            return new BatchOutcome(0, 0, 0);
+        }
+        Map<String, Long> heldElsewhere = heldElsewhere(claimed);
+        List<OutboxEvent> batch = byOrderVersion(claimed);
+
+        Set<String> heldBack = new HashSet<>();
+        List<Long> removed = new ArrayList<>();
+        List<Long> retried = new ArrayList<>();
+        int waiting = 0;
+
+        for (OutboxEvent row : batch) {
+            Long earlier = heldElsewhere.get(row.getOrderCode());
+            if (heldBack.contains(row.getOrderCode()) || (earlier != null && earlier < row.getOrderVersion())) {
+                waiting++;
+                continue;
+            }
+            if (Boolean.TRUE.equals(outsideTransaction.execute(status -> dispatch(row)))) {
+                removed.add(row.getId());
+                meterRegistry.counter(RELAYED_METRIC, "type", row.getType().name()).increment();
+                lag.record(Duration.between(row.getOccurredAt(), LocalDateTime.now()));
+            } else if (row.getAttempts() + 1 >= maxAttempts) {
+                log.error("Dropping outbox event {} for order {} after {} failed deliveries",
+                        row.getType(), row.getOrderCode(), maxAttempts);
+                meterRegistry.counter(DROPPED_METRIC, "type", row.getType().name()).increment();
+                removed.add(row.getId());
+            } else {
+                heldBack.add(row.getOrderCode());
+                retried.add(row.getId());
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(removed);
+        }
+        if (!retried.isEmpty()) {
+            outboxEventRepository.incrementAttempts(retried);
+        }
+        return new BatchOutcome(batch.size(), removed.size(), retried.size() + waiting);
+    }
+
+    // Each order's rows trade places among the positions they hold, so other orders keep their id order
+    private static List<OutboxEvent> byOrderVersion(List<OutboxEvent> claimed) {
+        Map<String, Queue<OutboxEvent>> rowsByOrder = new HashMap<>();
+        for (OutboxEvent row : claimed) {
+            rowsByOrder.computeIfAbsent(row.getOrderCode(),
+                    code -> new PriorityQueue<>(Comparator.comparing(OutboxEvent::getOrderVersion))).add(row);
+        }
+        List<OutboxEvent> batch = new ArrayList<>(claimed.size());
+        for (OutboxEvent row : claimed) {
+            batch.add(rowsByOrder.get(row.getOrderCode()).poll());
+        }
+        return batch;
+    }
+
+    private Map<String, Long> heldElsewhere(List<OutboxEvent> batch) {
+        Set<String> orderCodes = new HashSet<>();
+        List<Long> claimedIds = new ArrayList<>();
+        for (OutboxEvent row : batch) {
+            orderCodes.add(row.getOrderCode());
+            claimedIds.add(row.getId());
+        }
+        Map<String, Long> heads = new HashMap<>();
+        for (OutboxHead head : outboxEventRepository.findHeadsOutside(orderCodes, claimedIds)) {
+            heads.put(head.orderCode(), head.orderVersion());
+        }
+        return heads;
+    }
+
+    // Every subscriber gets the event even when an earlier one fails; the row is retried if any did
+    private boolean dispatch(OutboxEvent row) {
+        boolean delivered = true;
+        for (OrderEventSubscriber subscriber : subscribers) {
+            try {
+                switch (row.getType()) {
+                    case ORDER_CREATED -> subscriber.onOrderCreated(
+                            new OrderCreatedEvent(row.getOrderId(), row.getOrderCode()));
+                    case STATUS_CHANGED -> subscriber.onOrderStatusChanged(new OrderStatusChangedEvent(
+                            row.getOrderCode(), row.getPreviousStatus(), row.getNewStatus(), row.getOccurredAt()));
+                }
+            } catch (RuntimeException e) {
+                delivered = false;
+                meterRegistry.counter(FAILURES_METRIC, "subscriber", subscriber.getClass().getSimpleName()).increment();
+                log.warn("{} failed on {} for order {} (attempt {})", subscriber.getClass().getSimpleName(),
+                        row.getType(), row.getOrderCode(), row.getAttempts() + 1, e);
+            }
+        }
+        return delivered;
+    }
+
+    private static TransactionOperations outsideTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        return template;
+    }
+
+    private record BatchOutcome(int claimed, int removed, int leftBehind) {
+    }
+}
@@ -1,10 +1,14 @@
 package com.awesomepizza.orderingservice.service;
 
+import com.awesomepizza.orderingservice.model.dto.BulkOrderResponse;
 import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
 import com.awesomepizza.orderingservice.model.dto.OrderResponse;
 import com.awesomepizza.orderingservice.model.dto.OrderStatusResponse;
 
+import java.util.List;
+
 public interface OrderService {
     OrderResponse createOrder(CreateOrderRequest request);
+    BulkOrderResponse createOrders(List<CreateOrderRequest> requests);
     OrderStatusResponse getOrderStatus(String orderCode);
 }
@@ -1,16 +1,37 @@
 package com.awesomepizza.orderingservice.service;
 
+import com.awesomepizza.orderingservice.diagnostics.OrderCreationEvent;
+import com.awesomepizza.orderingservice.diagnostics.OrderMappingEvent;
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
 import com.awesomepizza.orderingservice.model.dto.*;
+import com.awesomepizza.orderingservice.model.dto.BulkOrderResponse.BulkOrderResult;
 import com.awesomepizza.orderingservice.model.entity.*;
 import com.awesomepizza.orderingservice.model.enums.*;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusView;
+import com.awesomepizza.orderingservice.exception.InvalidOrderItemsException;
 import com.awesomepizza.orderingservice.exception.OrderNotFoundException;
+import com.awesomepizza.orderingservice.repository.ArchivedOrderRepository;
 import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
 import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,54 +39,232 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    // One chunk commits as one transaction; matches hibernate.jdbc.batch_size
+    static final int BULK_CHUNK_SIZE = 50;
+
     private final OrderRepository orderRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final PizzaRepository pizzaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderCodeGenerator orderCodeGenerator;
+    private final OrderStatusIndex orderStatusIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
 
     @Override
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
+        OrderCreationEvent creation = OrderCreationEvent.start();
         log.info("Creating new order with {} items", request.getItems().size());
 
+        Map<Long, Pizza> pizzas = resolvePizzas(request.getItems());
+
+        // Inserts are deferred to the flush, where they go out in batches; flushing here also fills in createdAt
+        Order savedOrder = orderRepository.saveAndFlush(buildOrder(request, pizzas));
+        // The pizzas are already loaded, so the view's item summary costs no extra read
+        orderViewRepository.save(OrderView.from(savedOrder));
+        log.info("Order created with code: {}", savedOrder.getOrderCode());
+        eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder.getId(), savedOrder.getOrderCode()));
+
+        OrderResponse response = mapToOrderResponse(savedOrder);
+        creation.finish(savedOrder.getOrderCode(), request.getItems().size());
+        return response;
+    }
+
+    @Override
+    public BulkOrderResponse createOrders(List<CreateOrderRequest> requests) {
+        log.info("Ingesting bulk of {} orders", requests.size());
+
+        // One menu lookup covers every entry, valid or not
+        Map<Long, Pizza> pizzas = loadPizzas(requests.stream()
+                .filter(request -> request != null && request.getItems() != null)
+                .flatMap(request -> request.getItems().stream())
+                .filter(Objects::nonNull)
+                .map(PizzaItemDto::getPizzaId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        BulkOrderResult[] results = new BulkOrderResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, String> errors = validate(requests.get(i), pizzas);
+            if (errors.isEmpty()) {
+                accepted.add(i);
+            } else {
+                results[i] = rejected(i, "Order is invalid", errors);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + BULK_CHUNK_SIZE, accepted.size()));
+            if (persist(chunk, requests, pizzas, results)) {
+                continue;
+            }
+            // Only this chunk rolled back, and one entry is enough for that; saving its entries one at a
+            // time leaves the error with the entry that caused it
+            for (Integer index : chunk) {
+                if (chunk.size() == 1 || !persist(List.of(index), requests, pizzas, results)) {
+                    results[index] = rejected(index, "Order could not be saved", null);
+                }
+            }
+        }
+
+        List<BulkOrderResult> resultList = Arrays.asList(results);
+        int acceptedCount = (int) resultList.stream().filter(result -> result.getOrderCode() != null).count();
+        log.info("Bulk ingestion accepted {} of {} orders", acceptedCount, requests.size());
+        return BulkOrderResponse.builder()
+                .accepted(acceptedCount)
+                .rejected(requests.size() - acceptedCount)
+                .results(resultList)
+                .build();
+    }
+
+    @Override
+    public OrderStatusResponse getOrderStatus(String orderCode) {
+        // The index only learns of transitions after they commit, so inside a transaction it could
+        // miss the caller's own changes, and a status read here could be overtaken before it commits
+        boolean useIndex = !TransactionSynchronizationManager.isActualTransactionActive();
+        if (useIndex) {
+            OrderStatus cached = orderStatusIndex.get(orderCode);
+            if (cached != null) {
+                return toStatusResponse(orderCode, cached);
+            }
+        }
+
+        // Completed orders leave the hot table after a while; only codes missing there reach the archive
+        OrderStatusView order = orderRepository.findStatusByOrderCode(orderCode)
+                .or(() -> archivedOrderRepository.findStatusByOrderCode(orderCode))
+                .orElseThrow(() -> new OrderNotFoundException("Order not found: " + orderCode));
+        if (useIndex) {
+            orderStatusIndex.put(order.orderCode(), order.status());
+        }
+
+        return toStatusResponse(order.orderCode(), order.status());
+    }
+
+    private OrderStatusResponse toStatusResponse(String orderCode, OrderStatus status) {
+        return OrderStatusResponse.builder()
+                .orderCode(orderCode)
+                .status(status)
+                .statusDescription(status.getDescription())
+                .message(status.getCustomerMessage())
+                .build();
+    }
+
+    // Saves the entries in one transaction and records their codes; false if the transaction rolled back.
+    // Any failure counts, not only the database's: earlier chunks have already committed, so a code
+    // generator or mapping error must end up on its entry rather than fail the whole request
+    private boolean persist(List<Integer> entries, List<CreateOrderRequest> requests, Map<Long, Pizza> pizzas,
+                            BulkOrderResult[] results) {
+        List<Order> saved;
+        try {
+            saved = transactionTemplate.execute(status -> persistChunk(entries, requests, pizzas));
+        } catch (RuntimeException e) {
+            log.warn("Bulk chunk of {} orders failed: {}", entries.size(), e.getMessage());
+            return false;
+        }
+        for (int j = 0; j < entries.size(); j++) {
+            results[entries.get(j)] = BulkOrderResult.builder()
+                    .index(entries.get(j))
+                    .orderCode(saved.get(j).getOrderCode())
+                    .build();
+        }
+        return true;
+    }
+
+    private List<Order> persistChunk(List<Integer> chunk, List<CreateOrderRequest> requests, Map<Long, Pizza> pizzas) {
+        List<Order> orders = chunk.stream()
+                .map(index -> buildOrder(requests.get(index), pizzas))
+                .toList();
+        // Flushed so createdAt is set before the views copy it
+        List<Order> saved = orderRepository.saveAllAndFlush(orders);
+        orderViewRepository.saveAll(saved.stream().map(OrderView::from).toList());
+        // Published inside the chunk's transaction, so listeners only see orders that committed
+        for (Order order : saved) {
+            eventPublisher.publishEvent(new OrderCreatedEvent(order.getId(), order.getOrderCode()));
+        }
+        return saved;
+    }
+
+    private Order buildOrder(CreateOrderRequest request, Map<Long, Pizza> pizzas) {
         Order order = Order.builder()
+                .orderCode(orderCodeGenerator.nextCode())
                 .status(OrderStatus.PENDING)
                 .build();
 
         for (PizzaItemDto itemDto : request.getItems()) {
-            Pizza pizza = pizzaRepository.findById(itemDto.getPizzaId())
-                    .orElseThrow(() -> new IllegalArgumentException("Pizza not found: " + itemDto.getPizzaId()));
-
             OrderItem orderItem = OrderItem.builder()
-                    .pizza(pizza)
+                    .pizza(pizzas.get(itemDto.getPizzaId()))
                     .quantity(itemDto.getQuantity())
                     .notes(itemDto.getNotes())
                     .build();
 
             order.addItem(orderItem);
         }
+        return order;
+    }
 
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created with code: {}", savedOrder.getOrderCode());
+    private Map<String, String> validate(CreateOrderRequest request, Map<Long, Pizza> pizzas) {
+        if (request == null) {
+            return Map.of("order", "Order is required");
+        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<CreateOrderRequest> violation : validator.validate(request)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (errors.isEmpty()) {
+            errors.putAll(findItemErrors(request.getItems(), pizzas));
+        }
+        return errors;
+    }
 
-        return mapToOrderResponse(savedOrder);
+    private BulkOrderResult rejected(int index, String error, Map<String, String> validationErrors) {
+        return BulkOrderResult.builder()
+                .index(index)
+                .error(error)
+                .validationErrors(validationErrors)
+                .build();
     }
 
-    @Override
-    public OrderStatusResponse getOrderStatus(String orderCode) {
-        Order order = orderRepository.findByOrderCode(orderCode)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found: " + orderCode));
+    private Map<Long, Pizza> resolvePizzas(List<PizzaItemDto> items) {
+        Map<Long, Pizza> pizzas = loadPizzas(items.stream()
+                .map(PizzaItemDto::getPizzaId)
+                .collect(Collectors.toSet()));
 
-        String message = generateStatusMessage(order.getStatus());
+        Map<String, String> itemErrors = findItemErrors(items, pizzas);
+        if (!itemErrors.isEmpty()) {
+            throw new InvalidOrderItemsException(itemErrors);
+        }
+        return pizzas;
+    }
 
-        return OrderStatusResponse.builder()
-                .orderCode(order.getOrderCode())
-                .status(order.getStatus())
-                .statusDescription(order.getStatus().getDescription())
-                .message(message)
-                .build();
+    private Map<Long, Pizza> loadPizzas(Set<Long> pizzaIds) {
+        return pizzaRepository.findAllById(pizzaIds).stream()
+                .collect(Collectors.toMap(Pizza::getId, Function.identity()));
     }
 
-    private OrderResponse mapToOrderResponse(Order order) {
-        return OrderResponse.builder()
+    private Map<String, String> findItemErrors(List<PizzaItemDto> items, Map<Long, Pizza> pizzas) {
+        Map<String, String> itemErrors = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == null) {
+                itemErrors.put("items[" + i + "]", "Item is required");
+                continue;
+            }
+            Long pizzaId = items.get(i).getPizzaId();
+            Pizza pizza = pizzas.get(pizzaId);
+            if (pizza == null) {
+                itemErrors.put("items[" + i + "].pizzaId", "Pizza not found: " + pizzaId);
+            } else if (!Boolean.TRUE.equals(pizza.getAvailable())) {
+                itemErrors.put("items[" + i + "].pizzaId", "Pizza not available: " + pizzaId);
+            }
+        }
+        return itemErrors;
+    }
+
+    OrderResponse mapToOrderResponse(Order order) {
+        OrderMappingEvent mapping = OrderMappingEvent.start();
+        OrderResponse response = OrderResponse.builder()
                 .id(order.getId())
                 .orderCode(order.getOrderCode())
                 .status(order.getStatus())
@@ -79,16 +278,10 @@ public class OrderServiceImpl implements OrderService {
                         .collect(Collectors.toList()))
                 .createdAt(order.getCreatedAt())
                 .startedAt(order.getStartedAt())
+                .readyAt(order.getReadyAt())
                 .completedAt(order.getCompletedAt())
                 .build();
+        mapping.finish(order.getOrderCode(), response.getItems().size());
+        return response;
     }
-
-    private String generateStatusMessage(OrderStatus status) {
-        return switch (status) {
-            case PENDING -> "Il tuo ordine è in coda e verrà preso in carico a breve";
-            case IN_PREPARATION -> "Il pizzaiolo sta preparando il tuo ordine";
-            case READY -> "Il tuo ordine è pronto!";
-            case COMPLETED -> "Ordine completato. Grazie!";
-        };
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderEventSubscriber;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.dto.OrderStatusResponse;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pushes order status changes to Server-Sent Events subscribers. Emitters are parked on async
+ * servlet requests, so an idle subscription holds no thread. Heartbeats are written from virtual
+ * threads rather than the shared scheduler thread, so a stalled socket only parks its own thread and
+ * cannot hold up the other scheduled jobs.
+ */
+@Component
+@Slf4j
+public class OrderStatusBroadcaster implements OrderEventSubscriber {
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final long emitterTimeoutMs;
+    private final ExecutorService heartbeatExecutor;
+
+    @Autowired
+    public OrderStatusBroadcaster(@Value("${pizzeria.sse.timeout-ms:1800000}") long emitterTimeoutMs) {
+        this(emitterTimeoutMs, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    OrderStatusBroadcaster(long emitterTimeoutMs, ExecutorService heartbeatExecutor) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.heartbeatExecutor = heartbeatExecutor;
+    }
+
+    public SseEmitter subscribe(String orderCode, Supplier<OrderStatusResponse> currentStatus) {
+        Subscription subscription = new Subscription(orderCode, new SseEmitter(emitterTimeoutMs));
+        SseEmitter emitter = subscription.emitter;
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(error -> unregister(subscription));
+
+        // Register before reading the current status so a change committed in between is not lost
+        register(subscription);
+        OrderStatusResponse current;
+        try {
+            current = currentStatus.get();
+        } catch (RuntimeException e) {
+            unregister(subscription);
+            throw e;
+        }
+
+        deliver(subscription, current);
+        return emitter;
+    }
+
+    @Override
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Set<Subscription> orderSubscriptions = subscriptions.get(event.orderCode());
+        if (orderSubscriptions == null) {
+            return;
+        }
+
+        OrderStatusResponse update = OrderStatusResponse.builder()
+                .orderCode(event.orderCode())
+                .status(event.newStatus())
+                .statusDescription(event.newStatus().getDescription())
+                .message(event.newStatus().getCustomerMessage())
+                .build();
+
+        for (Subscription subscription : orderSubscriptions) {
+            deliver(subscription, update);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${pizzeria.sse.heartbeat-interval-ms:15000}",
+            fixedRateString = "${pizzeria.sse.heartbeat-interval-ms:15000}"
+    )
+    public void sendHeartbeats() {
+        for (Set<Subscription> orderSubscriptions : subscriptions.values()) {
+            for (Subscription subscription : orderSubscriptions) {
+                heartbeatExecutor.execute(() -> sendHeartbeat(subscription));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void sendHeartbeat(Subscription subscription) {
+        try {
+            // A send already holding the lock keeps the connection alive, or is itself stuck on the socket
+            if (!subscription.trySend(SseEmitter.event().comment("heartbeat"))) {
+                log.debug("Skipping heartbeat for order {}, a send is in progress", subscription.orderCode);
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscription, e);
+        }
+    }
+
+    private void deliver(Subscription subscription, OrderStatusResponse status) {
+        try {
+            if (subscription.sendIfNewer(status) && status.getStatus() == OrderStatus.COMPLETED) {
+                unregister(subscription);
+                subscription.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscription, e);
+        }
+    }
+
+    private void drop(Subscription subscription, Exception cause) {
+        log.debug("Dropping status subscriber for order {}: {}", subscription.orderCode, cause.getMessage());
+        unregister(subscription);
+        subscription.emitter.completeWithError(cause);
+    }
+
+    private void register(Subscription subscription) {
+        subscriptions.compute(subscription.orderCode, (code, existing) -> {
+            Set<Subscription> orderSubscriptions = existing != null ? existing : new CopyOnWriteArraySet<>();
+            orderSubscriptions.add(subscription);
+            return orderSubscriptions;
+        });
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.orderCode, (code, existing) -> {
+            existing.remove(subscription);
+            return existing.isEmpty() ? null : existing;
+        });
+    }
+
+    private static final class Subscription {
+        private final String orderCode;
+        private final SseEmitter emitter;
+        // Sends write to the response, so a monitor here would pin virtual threads during socket IO
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private OrderStatus lastSent;
+
+        private Subscription(String orderCode, SseEmitter emitter) {
+            this.orderCode = orderCode;
+            this.emitter = emitter;
+        }
+
+        // Statuses only move forward, so an older status racing a newer one is dropped
+        private boolean sendIfNewer(OrderStatusResponse status) throws IOException {
+            sendLock.lock();
+            try {
+                if (lastSent != null && status.getStatus().ordinal() <= lastSent.ordinal()) {
+                    return false;
+                }
+                emitter.send(SseEmitter.event().name("status").data(status));
+                lastSent = status.getStatus();
+                return true;
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        private boolean trySend(SseEmitter.SseEventBuilder event) throws IOException {
+            if (!sendLock.tryLock()) {
+                return false;
+            }
+            try {
+                emitter.send(event);
+                return true;
+            } finally {
+                sendLock.unlock();
+            }
+        }
+    }
+}
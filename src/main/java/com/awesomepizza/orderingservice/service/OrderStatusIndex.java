@@ -0,0 +1,212 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntSupplier;
+
+/**
+ * In-memory order status by order code, held in a linear-probing table of primitive longs (the
+ * 40-bit value of the code) and status bytes, so a lookup allocates nothing. Entries are written
+ * after each creation or transition commits; statuses only move forward, so a stale value read
+ * from the database can never overwrite a newer one. When the table is full, COMPLETED orders are
+ * evicted first, and a code that does not fit is simply left to the database.
+ * <p>
+ * Only this instance's commits reach the index. When several instances serve the same orders, a
+ * max age makes entries fall back to the database once they may have been overtaken elsewhere.
+ */
+@Component
+@Slf4j
+public class OrderStatusIndex {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final byte FREE = 0;
+    private static final byte COMPLETED = (byte) (OrderStatus.COMPLETED.ordinal() + 1);
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    private final int capacity;
+    private final int maxAgeSeconds;
+    private final IntSupplier clock;
+    private final int mask;
+    private final long[] keys;
+    // Status ordinal plus one; FREE marks an empty slot
+    private final byte[] states;
+    // Clock second of the last write or confirmation from the database
+    private final int[] writtenAt;
+    private final StampedLock lock = new StampedLock();
+    private int size;
+
+    @Autowired
+    public OrderStatusIndex(
+            @Value("${pizzeria.status-index.capacity:65536}") int capacity,
+            @Value("${pizzeria.status-index.max-age-seconds:0}") int maxAgeSeconds) {
+        this(capacity, maxAgeSeconds, secondsSince(System.nanoTime()));
+    }
+
+    OrderStatusIndex(int capacity, int maxAgeSeconds, IntSupplier clock) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(
+                    String.format("Status index capacity must be between 1 and %d", MAX_CAPACITY));
+        }
+        // At most half full, so probe sequences stay short and always reach a free slot
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.capacity = capacity;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.clock = clock;
+        this.mask = tableSize - 1;
+        this.keys = new long[tableSize];
+        this.states = new byte[tableSize];
+        this.writtenAt = new int[tableSize];
+    }
+
+    /**
+     * Returns the cached status of an order, or null when the code is not cached.
+     */
+    public OrderStatus get(String orderCode) {
+        long key = ScrambledCounterOrderCodeGenerator.decode(orderCode);
+        if (key < 0) {
+            return null;
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        int slot = find(key);
+        int state = slot < 0 ? FREE : states[slot];
+        int age = slot < 0 ? 0 : clock.getAsInt() - writtenAt[slot];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                slot = find(key);
+                state = slot < 0 ? FREE : states[slot];
+                age = slot < 0 ? 0 : clock.getAsInt() - writtenAt[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (state == FREE || (maxAgeSeconds > 0 && age >= maxAgeSeconds)) {
+            return null;
+        }
+        return STATUSES[state - 1];
+    }
+
+    public void put(String orderCode, OrderStatus status) {
+        long key = ScrambledCounterOrderCodeGenerator.decode(orderCode);
+        if (key < 0) {
+            return;
+        }
+        byte state = (byte) (status.ordinal() + 1);
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotFor(key);
+            if (states[slot] != FREE) {
+                if (state >= states[slot]) {
+                    states[slot] = state;
+                    writtenAt[slot] = clock.getAsInt();
+                }
+                return;
+            }
+            if (size == capacity) {
+                if (evictCompleted() == 0) {
+                    log.debug("Status index full of active orders, not caching {}", orderCode);
+                    return;
+                }
+                slot = slotFor(key);
+            }
+            keys[slot] = key;
+            states[slot] = state;
+            writtenAt[slot] = clock.getAsInt();
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        put(event.orderCode(), OrderStatus.PENDING);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        put(event.orderCode(), event.newStatus());
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Slot holding the key, or -1. Bounded so a read racing a writer cannot spin; the stamp check
+    // discards its result anyway
+    private int find(long key) {
+        int slot = indexOf(key);
+        for (int probes = 0; probes < states.length; probes++) {
+            if (states[slot] == FREE) {
+                return -1;
+            }
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Slot holding the key, or the free slot where it belongs
+    private int slotFor(long key) {
+        int slot = indexOf(key);
+        while (states[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int evictCompleted() {
+        long[] liveKeys = new long[size];
+        byte[] liveStates = new byte[size];
+        int[] liveWrittenAt = new int[size];
+        int live = 0;
+        for (int slot = 0; slot < states.length; slot++) {
+            if (states[slot] != FREE && states[slot] != COMPLETED) {
+                liveKeys[live] = keys[slot];
+                liveStates[live] = states[slot];
+                liveWrittenAt[live] = writtenAt[slot];
+                live++;
+            }
+        }
+
+        int evicted = size - live;
+        if (evicted > 0) {
+            Arrays.fill(states, FREE);
+            for (int i = 0; i < live; i++) {
+                int slot = slotFor(liveKeys[i]);
+                keys[slot] = liveKeys[i];
+                states[slot] = liveStates[i];
+                writtenAt[slot] = liveWrittenAt[i];
+            }
+            size = live;
+            log.debug("Evicted {} completed orders from the status index", evicted);
+        }
+        return evicted;
+    }
+
+    private int indexOf(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private static IntSupplier secondsSince(long originNanos) {
+        return () -> (int) ((System.nanoTime() - originNanos) / 1_000_000_000L);
+    }
+}
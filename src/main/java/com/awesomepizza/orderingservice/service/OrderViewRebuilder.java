@@ -0,0 +1,92 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.entity.OrderView;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Regenerates order_view from orders, order_items and pizzas, for instance after the view's shape
+ * changed or rows were written around the services. Orders are rewritten in id-ordered chunks, each
+ * in its own transaction, so the view stays readable throughout and a rebuild can run while the
+ * service takes orders. Views whose order no longer exists are removed at the end.
+ */
+@Component
+@Slf4j
+public class OrderViewRebuilder {
+
+    private final OrderRepository orderRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final TransactionOperations transactionOperations;
+    private final int chunkSize;
+
+    // One rebuild at a time; a second caller waits rather than interleaving chunks with the first
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public OrderViewRebuilder(
+            OrderRepository orderRepository,
+            OrderViewRepository orderViewRepository,
+            TransactionOperations transactionOperations,
+            @Value("${pizzeria.order-view.rebuild-chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Order view rebuild chunk size must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.orderViewRepository = orderViewRepository;
+        this.transactionOperations = transactionOperations;
+        this.chunkSize = chunkSize;
+    }
+
+    public Result rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            int rebuilt = 0;
+            long afterId = 0;
+            while (true) {
+                long from = afterId;
+                List<Long> chunk = transactionOperations.execute(status -> rebuildChunk(from));
+                if (chunk == null || chunk.isEmpty()) {
+                    break;
+                }
+                rebuilt += chunk.size();
+                afterId = chunk.get(chunk.size() - 1);
+            }
+            Integer removed = transactionOperations.execute(status -> orderViewRepository.deleteWithoutOrder());
+
+            Result result = new Result(rebuilt, removed == null ? 0 : removed, (System.nanoTime() - started) / 1_000_000);
+            log.info("Order view rebuilt: {} orders written, {} orphaned views removed in {} ms",
+                    result.rebuilt(), result.removed(), result.elapsedMs());
+            return result;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private List<Long> rebuildChunk(long afterId) {
+        List<Order> orders = orderRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(chunkSize));
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        // Initialises the items of the already-locked chunk in a single query
+        orderRepository.findWithItemsByIdIn(ids);
+        orderViewRepository.deleteAllByIdInBatch(ids);
+        orderViewRepository.saveAll(orders.stream().map(OrderView::from).toList());
+        return ids;
+    }
+
+    /**
+     * Orders written to the view, views removed because their order is gone, and the time taken.
+     */
+    public record Result(int rebuilt, int removed, long elapsedMs) {
+    }
+}
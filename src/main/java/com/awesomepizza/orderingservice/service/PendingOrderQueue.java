@@ -0,0 +1,134 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * In-process FIFO of pending order ids. Ids are hints only: every claim is confirmed against the
+ * database, and {@link #reconcile()} re-queues pending orders the queue has lost track of. An id
+ * polled inside a transaction goes back to the head of the queue if that transaction rolls back, so
+ * a failed claim neither loses the order nor lets newer orders overtake it. An id found stale is
+ * {@link #discard(Long) discarded} instead, since the rollback would only bring it back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PendingOrderQueue {
+
+    private final OrderRepository orderRepository;
+
+    private final Deque<Long> pendingOrderIds = new ConcurrentLinkedDeque<>();
+    private final Set<Long> queuedOrderIds = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        offer(event.orderId());
+    }
+
+    public void offer(Long orderId) {
+        if (queuedOrderIds.add(orderId)) {
+            pendingOrderIds.offer(orderId);
+        }
+    }
+
+    public Optional<Long> poll() {
+        Long orderId = pendingOrderIds.poll();
+        if (orderId != null) {
+            queuedOrderIds.remove(orderId);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new RequeueOnRollback(orderId));
+            }
+        }
+        return Optional.ofNullable(orderId);
+    }
+
+    // The claim found the order no longer pending; without this, a transaction that goes on to roll back,
+    // as one that finds the queue empty does, would return the id and every later poll would meet it again
+    public void discard(Long orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof RequeueOnRollback requeue && requeue.orderId.equals(orderId)) {
+                requeue.discarded = true;
+            }
+        }
+    }
+
+    // Back at the head, where it was taken from; a stale id is harmless since claims are confirmed
+    void requeue(Long orderId) {
+        if (queuedOrderIds.add(orderId)) {
+            pendingOrderIds.offerFirst(orderId);
+        }
+    }
+
+    public int size() {
+        return queuedOrderIds.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int restored = reconcile();
+        log.info("Pending order queue rebuilt with {} orders", restored);
+    }
+
+    @Scheduled(
+            initialDelayString = "${pizzeria.dispatch.reconcile-interval-ms:30000}",
+            fixedDelayString = "${pizzeria.dispatch.reconcile-interval-ms:30000}"
+    )
+    public void reconcilePeriodically() {
+        reconcile();
+    }
+
+    public int reconcile() {
+        List<Long> pendingIds = orderRepository.findIdsByStatusOrderByCreatedAtAsc(OrderStatus.PENDING);
+
+        int restored = 0;
+        for (Long orderId : pendingIds) {
+            if (queuedOrderIds.add(orderId)) {
+                pendingOrderIds.offer(orderId);
+                restored++;
+            }
+        }
+
+        if (restored > 0) {
+            log.debug("Reconciliation re-queued {} pending orders", restored);
+        }
+        return restored;
+    }
+
+    private final class RequeueOnRollback implements TransactionSynchronization {
+
+        private final Long orderId;
+        private boolean discarded;
+
+        private RequeueOnRollback(Long orderId) {
+            this.orderId = orderId;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK && !discarded) {
+                log.debug("Claim of order {} rolled back, returning it to the head of the queue", orderId);
+                requeue(orderId);
+            }
+        }
+    }
+}
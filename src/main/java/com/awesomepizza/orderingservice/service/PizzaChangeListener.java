@@ -0,0 +1,40 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Instantiated by Hibernate through Spring's bean container; the cache is looked up lazily
+// because this listener is created while the EntityManagerFactory is still being built.
+public class PizzaChangeListener {
+
+    private final ObjectProvider<MenuCache> menuCache;
+
+    public PizzaChangeListener(ObjectProvider<MenuCache> menuCache) {
+        this.menuCache = menuCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onPizzaChanged(Pizza pizza) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateMenu();
+                }
+            });
+        } else {
+            invalidateMenu();
+        }
+    }
+
+    private void invalidateMenu() {
+        menuCache.ifAvailable(MenuCache::invalidate);
+    }
+}
@@ -1,11 +1,17 @@
 package com.awesomepizza.orderingservice.service;
 
+import com.awesomepizza.orderingservice.model.dto.OrderPage;
 import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
 import java.util.List;
 
 public interface PizzeriaService {
     List<OrderResponse> getOrderQueue();
+    OrderPage getOrderQueue(List<OrderStatus> statuses, String cursor, int limit);
+    OrderPage getOrderHistory(List<OrderStatus> statuses, String cursor, int limit);
+    OrderResponse getOrder(Long orderId);
     OrderResponse takeNextOrder();
     OrderResponse markOrderAsReady(String orderCode);
     OrderResponse completeOrder(String orderCode);
+    void transitionOrder(String orderCode, OrderStatus newStatus);
 }
\ No newline at end of file
@@ -1,116 +1,312 @@
 package com.awesomepizza.orderingservice.service;
+import com.awesomepizza.orderingservice.diagnostics.OrderMappingEvent;
+import com.awesomepizza.orderingservice.diagnostics.OrderTransitionEvent;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.dto.OrderPage;
 import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.entity.ArchivedOrder;
 import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.entity.OrderView;
 import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusView;
 import com.awesomepizza.orderingservice.exception.InvalidOrderStateException;
+import com.awesomepizza.orderingservice.exception.InvalidPageRequestException;
 import com.awesomepizza.orderingservice.exception.OrderNotFoundException;
+import com.awesomepizza.orderingservice.repository.ArchivedOrderRepository;
 import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PizzeriaServiceImpl implements PizzeriaService {
 
+    static final int MAX_PAGE_SIZE = 200;
+
+    private static final Comparator<OrderView> NEWEST_FIRST = Comparator
+            .comparing(OrderView::getCreatedAt)
+            .thenComparing(OrderView::getOrderId)
+            .reversed();
+
+    private static final List<OrderStatus> ACTIVE_STATUSES = List.of(
+            OrderStatus.PENDING,
+            OrderStatus.IN_PREPARATION,
+            OrderStatus.READY
+    );
+
     private final OrderRepository orderRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final PendingOrderQueue pendingOrderQueue;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderMetrics orderMetrics;
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderResponse> getOrderQueue() {
-        List<OrderStatus> activeStatuses = Arrays.asList(
-                OrderStatus.PENDING,
-                OrderStatus.IN_PREPARATION,
-                OrderStatus.READY
-        );
-
-        List<Order> orders = orderRepository.findByStatusInOrderByCreatedAtAsc(activeStatuses);
+        List<OrderView> orders = orderViewRepository.findByStatusInOrderByCreatedAtAscOrderIdAsc(ACTIVE_STATUSES);
         return orders.stream()
                 .map(this::mapToOrderResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional
-    public OrderResponse takeNextOrder() {
-        List<Order> pendingOrders = orderRepository.findByStatusOrderByCreatedAtAsc(OrderStatus.PENDING);
+    @Transactional(readOnly = true)
+    public OrderPage getOrderQueue(List<OrderStatus> statuses, String cursor, int limit) {
+        List<OrderStatus> filter = resolveStatusFilter(statuses, ACTIVE_STATUSES);
+        Limit pageLimit = resolvePageLimit(limit);
 
-        if (pendingOrders.isEmpty()) {
-            throw new OrderNotFoundException("No pending orders in queue");
+        List<OrderView> orders;
+        if (cursor == null) {
+            orders = orderViewRepository.findByStatusInOrderByCreatedAtAscOrderIdAsc(filter, pageLimit);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            orders = orderViewRepository.findByStatusInAfter(filter, after.createdAt(), after.id(), pageLimit);
         }
+        return toPage(orders, limit);
+    }
 
-        Order order = pendingOrders.get(0);
-        updateOrderStatus(order, OrderStatus.IN_PREPARATION);
-        order.setStartedAt(LocalDateTime.now());
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPage getOrderHistory(List<OrderStatus> statuses, String cursor, int limit) {
+        List<OrderStatus> filter = resolveStatusFilter(statuses, Arrays.asList(OrderStatus.values()));
+        Limit pageLimit = resolvePageLimit(limit);
 
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order {} taken for preparation", savedOrder.getOrderCode());
+        OrderCursor before = cursor == null ? null : OrderCursor.decode(cursor);
+        List<OrderView> orders = before == null
+                ? orderViewRepository.findByStatusInOrderByCreatedAtDescOrderIdDesc(filter, pageLimit)
+                : orderViewRepository.findByStatusInBefore(filter, before.createdAt(), before.id(), pageLimit);
+        if (filter.contains(OrderStatus.COMPLETED)) {
+            // Archived orders are older than the archival age but may still be newer than an order left
+            // active for longer, so both tables are read past the cursor and merged rather than walked in turn
+            List<ArchivedOrder> archived = before == null
+                    ? archivedOrderRepository.findByOrderByCreatedAtDescOrderIdDesc(pageLimit)
+                    : archivedOrderRepository.findBefore(before.createdAt(), before.id(), pageLimit);
+            orders = Stream.concat(orders.stream(), archived.stream().map(ArchivedOrder::toView))
+                    .sorted(NEWEST_FIRST)
+                    .limit(pageLimit.max())
+                    .toList();
+        }
+        return toPage(orders, limit);
+    }
 
-        return mapToOrderResponse(savedOrder);
+    @Override
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(Long orderId) {
+        return orderViewRepository.findById(orderId)
+                .or(() -> archivedOrderRepository.findById(orderId).map(ArchivedOrder::toView))
+                .map(this::mapToOrderResponse)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found: " + orderId));
     }
 
     @Override
     @Transactional
     public OrderResponse markOrderAsReady(String orderCode) {
-        Order order = findOrderByCode(orderCode);
-        updateOrderStatus(order, OrderStatus.READY);
+        applyTransition(orderCode, OrderStatus.READY);
+        OrderView order = findViewByCode(orderCode);
+        orderMetrics.recordReady(order);
+        return mapToOrderResponse(order);
+    }
 
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order {} marked as ready", savedOrder.getOrderCode());
+    @Override
+    @Transactional
+    public OrderResponse completeOrder(String orderCode) {
+        applyTransition(orderCode, OrderStatus.COMPLETED);
+        OrderView order = findViewByCode(orderCode);
+        orderMetrics.recordCompleted(order);
+        return mapToOrderResponse(order);
+    }
 
-        return mapToOrderResponse(savedOrder);
+    @Override
+    @Transactional
+    public void transitionOrder(String orderCode, OrderStatus newStatus) {
+        // Without the read-back there are no timestamps, so stage timers only see full transitions
+        applyTransition(orderCode, newStatus);
     }
 
     @Override
     @Transactional
-    public OrderResponse completeOrder(String orderCode) {
-        Order order = findOrderByCode(orderCode);
-        updateOrderStatus(order, OrderStatus.COMPLETED);
-        order.setCompletedAt(LocalDateTime.now());
+    public OrderResponse takeNextOrder() {
+        OrderTransitionEvent transition = OrderTransitionEvent.start(OrderStatus.IN_PREPARATION);
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        Optional<OrderView> dispatched = claimFromDispatchQueue(startedAt);
+        if (dispatched.isPresent()) {
+            log.info("Order {} taken for preparation", dispatched.get().getOrderCode());
+            orderMetrics.recordStarted(dispatched.get());
+            transition.finish(dispatched.get().getOrderCode(), OrderStatus.PENDING, true);
+            publishStatusChange(dispatched.get().getOrderCode(), OrderStatus.PENDING, OrderStatus.IN_PREPARATION);
+            return mapToOrderResponse(dispatched.get());
+        }
+
+        // Queue is empty or has drifted from the database: claim straight from the orders table.
+        // The row stays locked until commit, so no other writer can change it under this claim
+        Order order = orderRepository.findFirstByStatusOrderByCreatedAtAscIdAsc(OrderStatus.PENDING)
+                .orElseThrow(() -> new OrderNotFoundException("No pending orders in queue"));
+
+        updateOrderStatus(order, OrderStatus.IN_PREPARATION);
+        order.setStartedAt(startedAt);
 
         Order savedOrder = orderRepository.save(order);
-        log.info("Order {} completed", savedOrder.getOrderCode());
+        // Flushes the order's write before the view is updated
+        orderViewRepository.markInPreparation(savedOrder.getId(), startedAt);
+        OrderView view = findView(savedOrder.getId());
+        log.info("Order {} taken for preparation", view.getOrderCode());
+        orderMetrics.recordStarted(view);
+        transition.finish(view.getOrderCode(), OrderStatus.PENDING, true);
+        publishStatusChange(view.getOrderCode(), OrderStatus.PENDING, OrderStatus.IN_PREPARATION);
+
+        return mapToOrderResponse(view);
+    }
+
+    private void applyTransition(String orderCode, OrderStatus newStatus) {
+        OrderTransitionEvent transition = OrderTransitionEvent.start(newStatus);
+        LocalDateTime transitionedAt = LocalDateTime.now();
+        int updated = switch (newStatus) {
+            case READY -> orderRepository.markOrderReady(orderCode, transitionedAt);
+            case COMPLETED -> orderRepository.completeReadyOrder(orderCode, transitionedAt);
+            default -> throw new InvalidOrderStateException(
+                    String.format("Orders cannot be moved to %s by code", newStatus));
+        };
+
+        if (updated == 0) {
+            // Only the failure path pays for a second read, to tell a missing order from a wrong state
+            // An archived order is COMPLETED, which reports as a wrong state rather than a missing order
+            OrderStatus currentStatus = orderRepository.findStatusByOrderCode(orderCode)
+                    .or(() -> archivedOrderRepository.findStatusByOrderCode(orderCode))
+                    .map(OrderStatusView::status)
+                    .orElse(null);
+            transition.finish(orderCode, currentStatus, false);
+            if (currentStatus == null) {
+                throw new OrderNotFoundException("Order not found: " + orderCode);
+            }
+            orderMetrics.recordConflict(newStatus, currentStatus);
+            throw invalidTransition(currentStatus, newStatus);
+        }
+
+        if (newStatus == OrderStatus.READY) {
+            orderViewRepository.markReady(orderCode, transitionedAt);
+        } else {
+            orderViewRepository.markCompleted(orderCode, transitionedAt);
+        }
+
+        log.info("Order {} moved to {}", orderCode, newStatus);
+        transition.finish(orderCode, previousStatusOf(newStatus), true);
+        publishStatusChange(orderCode, previousStatusOf(newStatus), newStatus);
+    }
+
+    private Optional<OrderView> claimFromDispatchQueue(LocalDateTime startedAt) {
+        Optional<Long> orderId;
+        while ((orderId = pendingOrderQueue.poll()).isPresent()) {
+            if (orderRepository.claimPendingOrder(orderId.get(), startedAt) == 1) {
+                orderViewRepository.markInPreparation(orderId.get(), startedAt);
+                return Optional.of(findView(orderId.get()));
+            }
+            log.debug("Skipping stale queue entry for order {}", orderId.get());
+            pendingOrderQueue.discard(orderId.get());
+            orderRepository.findStatusById(orderId.get())
+                    .ifPresent(found -> orderMetrics.recordConflict(OrderStatus.IN_PREPARATION, found));
+        }
+        return Optional.empty();
+    }
+
+    private List<OrderStatus> resolveStatusFilter(List<OrderStatus> requested, List<OrderStatus> allowed) {
+        if (requested == null || requested.isEmpty()) {
+            return allowed;
+        }
+        for (OrderStatus status : requested) {
+            if (!allowed.contains(status)) {
+                throw new InvalidPageRequestException("Status filter not allowed here: " + status);
+            }
+        }
+        return requested;
+    }
 
-        return mapToOrderResponse(savedOrder);
+    // One extra row tells whether a next page exists without a separate count query
+    private Limit resolvePageLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException(
+                    String.format("Page size must be between 1 and %d", MAX_PAGE_SIZE));
+        }
+        return Limit.of(limit + 1);
+    }
+
+    // The view rows carry their items, so a page is the one keyset query and nothing more
+    private OrderPage toPage(List<OrderView> orders, int limit) {
+        boolean hasMore = orders.size() > limit;
+        List<OrderView> page = hasMore ? orders.subList(0, limit) : orders;
+        return OrderPage.builder()
+                .orders(page.stream()
+                        .map(this::mapToOrderResponse)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasMore ? OrderCursor.of(page.get(page.size() - 1)).encode() : null)
+                .build();
+    }
+
+    private OrderView findView(Long orderId) {
+        return orderViewRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found: " + orderId));
     }
 
-    private Order findOrderByCode(String orderCode) {
-        return orderRepository.findByOrderCode(orderCode)
+    private OrderView findViewByCode(String orderCode) {
+        return orderViewRepository.findByOrderCode(orderCode)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found: " + orderCode));
     }
 
     private void updateOrderStatus(Order order, OrderStatus newStatus) {
         if (!order.getStatus().canTransitionTo(newStatus)) {
-            throw new InvalidOrderStateException(
-                    String.format("Cannot transition from %s to %s",
-                            order.getStatus(), newStatus)
-            );
+            throw invalidTransition(order.getStatus(), newStatus);
         }
         order.setStatus(newStatus);
     }
 
-    private OrderResponse mapToOrderResponse(Order order) {
-        return OrderResponse.builder()
-                .id(order.getId())
+    private InvalidOrderStateException invalidTransition(OrderStatus currentStatus, OrderStatus newStatus) {
+        return new InvalidOrderStateException(
+                String.format("Cannot transition from %s to %s", currentStatus, newStatus));
+    }
+
+    private static OrderStatus previousStatusOf(OrderStatus newStatus) {
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.canTransitionTo(newStatus)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("No status transitions to " + newStatus);
+    }
+
+    private void publishStatusChange(String orderCode, OrderStatus previousStatus, OrderStatus newStatus) {
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                orderCode, previousStatus, newStatus, LocalDateTime.now()));
+    }
+
+    OrderResponse mapToOrderResponse(OrderView order) {
+        OrderMappingEvent mapping = OrderMappingEvent.start();
+        OrderResponse response = OrderResponse.builder()
+                .id(order.getOrderId())
                 .orderCode(order.getOrderCode())
                 .status(order.getStatus())
                 .statusDescription(order.getStatus().getDescription())
-                .items(order.getItems().stream()
-                        .map(item -> OrderResponse.OrderItemResponse.builder()
-                                .pizzaName(item.getPizza().getName())
-                                .quantity(item.getQuantity())
-                                .notes(item.getNotes())
-                                .build())
-                        .collect(Collectors.toList()))
+                .items(order.getItems())
                 .createdAt(order.getCreatedAt())
                 .startedAt(order.getStartedAt())
+                .readyAt(order.getReadyAt())
                 .completedAt(order.getCompletedAt())
                 .build();
+        mapping.finish(order.getOrderCode(), response.getItems().size());
+        return response;
     }
 }
\ No newline at end of file
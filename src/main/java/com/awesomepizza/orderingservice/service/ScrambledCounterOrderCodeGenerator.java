@@ -0,0 +1,182 @@
+package com.awesomepizza.orderingservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generates 8-character order codes from a 40-bit value made of a node id and a per-node
+ * counter. The value is scrambled by a keyed Feistel network, which is a bijection on 40 bits,
+ * so distinct (node, counter) pairs always give distinct codes and no uniqueness check against
+ * the database is needed. Counter values are reserved in blocks, one database round trip per
+ * block rather than per code.
+ */
+@Component
+public class ScrambledCounterOrderCodeGenerator implements OrderCodeGenerator {
+
+    static final int NODE_BITS = 6;
+    static final int COUNTER_BITS = 34;
+    static final int CODE_LENGTH = 8;
+    static final int MIN_SECRET_LENGTH = 16;
+
+    private static final int HALF_BITS = (NODE_BITS + COUNTER_BITS) / 2;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final long MAX_COUNTER = (1L << COUNTER_BITS) - 1;
+    private static final int ROUNDS = 4;
+    // Crockford base32: no I, L, O or U, so codes read back unambiguously
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] ALPHABET_INDEX = new byte[128];
+
+    static {
+        Arrays.fill(ALPHABET_INDEX, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            ALPHABET_INDEX[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private final OrderCodeBlockAllocator blockAllocator;
+    private final int nodeId;
+    private final long blockSize;
+    private final long[] roundKeys;
+    // Not a monitor: the block is reserved over JDBC, which would pin a virtual thread's carrier
+    private final ReentrantLock reserveLock = new ReentrantLock();
+
+    private volatile CounterBlock currentBlock = CounterBlock.EXHAUSTED;
+
+    public ScrambledCounterOrderCodeGenerator(
+            OrderCodeBlockAllocator blockAllocator,
+            @Value("${pizzeria.order-code.node-id:0}") int nodeId,
+            @Value("${pizzeria.order-code.block-size:1000}") long blockSize,
+            @Value("${pizzeria.order-code.secret:}") String secret) {
+        if (nodeId < 0 || nodeId >= (1 << NODE_BITS)) {
+            throw new IllegalArgumentException(
+                    String.format("Order code node id must be between 0 and %d", (1 << NODE_BITS) - 1));
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Order code block size must be positive");
+        }
+        // Anyone who knows the key can decode codes and enumerate the next ones, so there is no default
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalArgumentException(String.format(
+                    "Order code secret (ORDER_CODE_SECRET) must be set to at least %d characters", MIN_SECRET_LENGTH));
+        }
+        this.blockAllocator = blockAllocator;
+        this.nodeId = nodeId;
+        this.blockSize = blockSize;
+        this.roundKeys = deriveRoundKeys(secret);
+    }
+
+    @Override
+    public String nextCode() {
+        return encode(scramble(((long) nodeId << COUNTER_BITS) | nextCounter()));
+    }
+
+    long scramble(long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long mixed = left ^ roundFunction(right, roundKeys[round]);
+            left = right;
+            right = mixed;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    static String encode(long value) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(code);
+    }
+
+    /**
+     * Inverse of {@link #encode(long)}: the 40-bit value of a code, or -1 when the string is not
+     * exactly 8 alphabet characters. Only the canonical spelling is accepted, so distinct strings
+     * never decode to the same value.
+     */
+    static long decode(String code) {
+        if (code == null || code.length() != CODE_LENGTH) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            char c = code.charAt(i);
+            int digit = c < ALPHABET_INDEX.length ? ALPHABET_INDEX[c] : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+
+    private long nextCounter() {
+        while (true) {
+            CounterBlock block = currentBlock;
+            long counter = block.next.getAndIncrement();
+            if (counter < block.end) {
+                return counter;
+            }
+            reserveLock.lock();
+            try {
+                if (currentBlock == block) {
+                    currentBlock = reserveBlock();
+                }
+            } finally {
+                reserveLock.unlock();
+            }
+        }
+    }
+
+    private CounterBlock reserveBlock() {
+        long start = Math.multiplyExact(blockAllocator.reserveBlock(nodeId), blockSize);
+        if (start + blockSize - 1 > MAX_COUNTER) {
+            throw new IllegalStateException("Order code counter space exhausted for node " + nodeId);
+        }
+        return new CounterBlock(start, start + blockSize);
+    }
+
+    private static long roundFunction(long half, long key) {
+        // SplitMix64 finaliser over the keyed half, truncated back to half width
+        long z = (half ^ key) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return z & HALF_MASK;
+    }
+
+    private static long[] deriveRoundKeys(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            long[] keys = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                keys[i] = buffer.getLong();
+            }
+            return keys;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CounterBlock {
+        private static final CounterBlock EXHAUSTED = new CounterBlock(0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+
+        private CounterBlock(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
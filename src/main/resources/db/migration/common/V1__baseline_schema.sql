@@ -0,0 +1,105 @@
+-- Schema as the entity mappings defined it before migrations took over from ddl-auto
+
+CREATE TABLE pizzas (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255)   NOT NULL,
+    description VARCHAR(255),
+    price       NUMERIC(38, 2) NOT NULL,
+    available   BOOLEAN        NOT NULL
+);
+
+-- Pooled ids: Hibernate hands out 50 ids per sequence call, so the increment must match allocationSize
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE orders (
+    id           BIGINT       PRIMARY KEY,
+    order_code   VARCHAR(255) NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    created_at   TIMESTAMP(6),
+    started_at   TIMESTAMP(6),
+    ready_at     TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    version      BIGINT,
+    CONSTRAINT uk_orders_order_code UNIQUE (order_code),
+    CONSTRAINT ck_orders_status CHECK (status IN ('PENDING', 'IN_PREPARATION', 'READY', 'COMPLETED'))
+);
+
+-- Queue, claim and archival: equality on status, then ordered by (created_at, id)
+CREATE INDEX idx_orders_status_created_at_id ON orders (status, created_at, id);
+-- History across every status
+CREATE INDEX idx_orders_created_at_id ON orders (created_at, id);
+
+CREATE TABLE order_items (
+    id       BIGINT  PRIMARY KEY,
+    order_id BIGINT  NOT NULL,
+    pizza_id BIGINT  NOT NULL,
+    quantity INTEGER NOT NULL,
+    notes    VARCHAR(255),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_pizza FOREIGN KEY (pizza_id) REFERENCES pizzas (id)
+);
+
+CREATE TABLE order_view (
+    order_id     BIGINT          PRIMARY KEY,
+    order_code   VARCHAR(255)    NOT NULL,
+    status       VARCHAR(20)     NOT NULL,
+    items        VARCHAR(1000000) NOT NULL,
+    created_at   TIMESTAMP(6)    NOT NULL,
+    started_at   TIMESTAMP(6),
+    ready_at     TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    version      BIGINT,
+    CONSTRAINT uk_order_view_order_code UNIQUE (order_code),
+    CONSTRAINT ck_order_view_status CHECK (status IN ('PENDING', 'IN_PREPARATION', 'READY', 'COMPLETED'))
+);
+
+CREATE INDEX idx_order_view_status_created_at_order_id ON order_view (status, created_at, order_id);
+CREATE INDEX idx_order_view_created_at_order_id ON order_view (created_at, order_id);
+
+CREATE TABLE archived_orders (
+    order_id     BIGINT          PRIMARY KEY,
+    order_code   VARCHAR(255)    NOT NULL,
+    status       VARCHAR(20)     NOT NULL,
+    items        VARCHAR(1000000) NOT NULL,
+    created_at   TIMESTAMP(6)    NOT NULL,
+    started_at   TIMESTAMP(6),
+    ready_at     TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    archived_at  TIMESTAMP(6)    NOT NULL,
+    version      BIGINT,
+    CONSTRAINT uk_archived_orders_order_code UNIQUE (order_code)
+);
+
+CREATE TABLE order_code_blocks (
+    node_id    INTEGER PRIMARY KEY,
+    next_block BIGINT  NOT NULL,
+    version    BIGINT
+);
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(64)  PRIMARY KEY,
+    request_hash    BYTEA        NOT NULL,
+    order_id        BIGINT       NOT NULL,
+    response        VARCHAR(1000000) NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    version         BIGINT
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+CREATE TABLE order_outbox (
+    id              BIGINT       PRIMARY KEY,
+    type            VARCHAR(16)  NOT NULL,
+    order_id        BIGINT,
+    order_code      VARCHAR(8)   NOT NULL,
+    order_version   BIGINT       NOT NULL,
+    previous_status VARCHAR(20),
+    new_status      VARCHAR(20),
+    occurred_at     TIMESTAMP(6) NOT NULL,
+    attempts        INTEGER      NOT NULL
+);
+
+-- Relays claim rows in id order through the primary key, then look up earlier versions of the claimed orders
+CREATE INDEX idx_order_outbox_order_code_order_version ON order_outbox (order_code, order_version);
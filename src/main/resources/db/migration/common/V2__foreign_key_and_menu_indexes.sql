@@ -0,0 +1,7 @@
+-- PostgreSQL does not index foreign keys by itself. Items are fetched by order, and deleting a pizza
+-- checks order_items for references to it
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
+CREATE INDEX idx_order_items_pizza_id ON order_items (pizza_id);
+
+-- The public menu lists available pizzas only
+CREATE INDEX idx_pizzas_available ON pizzas (available);
@@ -0,0 +1,2 @@
+-- History pages continue into the archive, newest first, by the same (created_at, order_id) keyset
+CREATE INDEX idx_archived_orders_created_at_order_id ON archived_orders (created_at, order_id);
@@ -0,0 +1,2 @@
+-- H2 has no partial indexes. Active-status queries use the (status, created_at, id) indexes from V1,
+-- so this version is intentionally empty and only keeps the version history aligned with PostgreSQL
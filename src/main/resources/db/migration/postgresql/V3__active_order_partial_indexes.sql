@@ -0,0 +1,7 @@
+-- Only active orders are indexed, so these stay the size of the open queue however much completed
+-- history the tables hold. The claim's status = 'PENDING' implies the predicate, so it can use them too
+CREATE INDEX idx_orders_active_created_at_id ON orders (created_at, id)
+    WHERE status IN ('PENDING', 'IN_PREPARATION', 'READY');
+
+CREATE INDEX idx_order_view_active_created_at_order_id ON order_view (created_at, order_id)
+    WHERE status IN ('PENDING', 'IN_PREPARATION', 'READY');
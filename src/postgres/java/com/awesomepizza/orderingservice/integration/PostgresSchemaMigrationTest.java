@@ -0,0 +1,190 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.config.StatementCountingInspector;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import com.awesomepizza.orderingservice.service.OrderViewRebuilder;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The PostgreSQL side of {@link SchemaMigrationIntegrationTest}: the schema including the V3 partial
+ * indexes, and the plans of the SQL Hibernate generates for PostgreSQL. Needs Docker.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+@DisplayName("PostgreSQL Schema Migration Integration Tests")
+class PostgresSchemaMigrationTest {
+
+    private static final int COMPLETED_COUNT = 300;
+    private static final int PENDING_COUNT = 10;
+    private static final List<OrderStatus> ACTIVE_STATUSES =
+            List.of(OrderStatus.PENDING, OrderStatus.IN_PREPARATION, OrderStatus.READY);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderViewRebuilder orderViewRebuilder;
+
+    @Autowired
+    private StatementCountingInspector statementInspector;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < COMPLETED_COUNT + PENDING_COUNT; i++) {
+            orders.add(Order.builder()
+                    .status(i < COMPLETED_COUNT ? OrderStatus.COMPLETED : OrderStatus.PENDING)
+                    .build());
+        }
+        orderRepository.saveAll(orders);
+        orderViewRebuilder.rebuild();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderViewRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should build the schema, including the partial indexes, from the migrations")
+    void migrate_ShouldApplyEveryVersion() {
+        // Act
+        List<String> partialIndexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE indexdef LIKE '% WHERE %' ORDER BY indexname", String.class);
+
+        // Assert
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals("4", flyway.info().current().getVersion().getVersion());
+        assertEquals(List.of("idx_order_view_active_created_at_order_id", "idx_orders_active_created_at_id"),
+                partialIndexes);
+    }
+
+    @Test
+    @DisplayName("Claim should skip locked rows and scan an orders index")
+    void claimQuery_ShouldSkipLockedRowsThroughIndex() {
+        // Act
+        String sql = generatedSql(() -> orderRepository.findFirstByStatusOrderByCreatedAtAscIdAsc(OrderStatus.PENDING));
+        String plan = explain(sql, OrderStatus.PENDING.name(), 1);
+
+        // Assert
+        assertTrue(sql.contains("for update skip locked"), "Expected SKIP LOCKED but got:\n" + sql);
+        assertIndexScan(plan, "idx_orders_");
+    }
+
+    @Test
+    @DisplayName("Kitchen queue pages should scan the order_view partial index")
+    void queuePageQueries_ShouldUsePartialIndex() {
+        // Act
+        String firstPage = generatedSql(() ->
+                orderViewRepository.findByStatusInOrderByCreatedAtAscOrderIdAsc(ACTIVE_STATUSES, Limit.of(51)));
+        String nextPage = generatedSql(() ->
+                orderViewRepository.findByStatusInAfter(ACTIVE_STATUSES, LocalDateTime.now(), 1L, Limit.of(51)));
+        Timestamp after = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+
+        // Assert
+        assertIndexScan(explain(firstPage, "PENDING", "IN_PREPARATION", "READY", 51),
+                "idx_order_view_active_created_at_order_id");
+        assertIndexScan(explain(nextPage, "PENDING", "IN_PREPARATION", "READY", after, after, 1L, 51),
+                "idx_order_view_active_created_at_order_id");
+    }
+
+    private String generatedSql(Runnable query) {
+        statementInspector.startRecording();
+        List<String> statements;
+        try {
+            transactionTemplate.executeWithoutResult(status -> query.run());
+        } finally {
+            statements = statementInspector.stopRecording();
+        }
+        assertEquals(1, statements.size(), "Expected one statement but got " + statements);
+        return statements.get(0);
+    }
+
+    // The values are bound, as the application binds them, since a partial index only applies once the
+    // planner can see that the statuses imply its predicate. The tables are far too small for an index to
+    // beat a sequential scan, so that is ruled out for the session to see which index the planner would use
+    private String explain(String sql, Object... parameters) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement settings = connection.createStatement()) {
+                settings.execute("SET enable_seqscan = off");
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } finally {
+                try (Statement settings = connection.createStatement()) {
+                    settings.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+
+    private static void assertIndexScan(String plan, String index) {
+        assertTrue(plan.contains(" using " + index), "Expected a scan of " + index + " but got:\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), "Expected no sequential scan but got:\n" + plan);
+    }
+}
@@ -3,7 +3,7 @@ package com.awesomepizza.orderingservice;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "pizzeria.order-code.secret=test-only-order-code-secret")
 class OrderingserviceApplicationTests {
 
 	@Test
@@ -0,0 +1,31 @@
+package com.awesomepizza.orderingservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdmissionControlConfig Unit Tests")
+class AdmissionControlConfigTest {
+
+    @Test
+    @DisplayName("Should default the creation limit to half the connection pool")
+    void creationLimit_Unset_ShouldUseHalfThePool() {
+        assertEquals(5, AdmissionControlConfig.creationLimit(0, 10));
+        assertEquals(1, AdmissionControlConfig.creationLimit(0, 1));
+    }
+
+    @Test
+    @DisplayName("Should keep a configured creation limit within the pool")
+    void creationLimit_WithinPool_ShouldBeKept() {
+        assertEquals(10, AdmissionControlConfig.creationLimit(10, 10));
+    }
+
+    @Test
+    @DisplayName("Should refuse a creation limit larger than the connection pool")
+    void creationLimit_AbovePool_ShouldThrow() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> AdmissionControlConfig.creationLimit(16, 10));
+        assertTrue(exception.getMessage().contains("max-concurrent-creations"));
+    }
+}
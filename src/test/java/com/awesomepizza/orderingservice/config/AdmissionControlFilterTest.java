@@ -0,0 +1,291 @@
+package com.awesomepizza.orderingservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdmissionControlFilter Unit Tests")
+class AdmissionControlFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+    }
+
+    @Test
+    @DisplayName("Should reject order creation over the client's rate with 429 and Retry-After")
+    void doFilter_CreationOverRate_ShouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(new ClientRateLimiter(1, 0.5, 100), 8, 4);
+        filter.doFilter(post("/api/v1/orders", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(post("/api/v1/orders", "10.0.0.1"), response, chain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"status\":429"));
+        assertNull(chain.getRequest(), "Rejected request must not reach the controller");
+        assertEquals(1.0, meterRegistry.counter(AdmissionControlFilter.REJECTED_METRIC, "reason", "rate_limited").count());
+    }
+
+    @Test
+    @DisplayName("Should charge the bulk endpoint against its own bucket")
+    void doFilter_BulkCreation_ShouldUseSeparateBucket() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(new ClientRateLimiter(1, 1, 100), new ClientRateLimiter(1, 0.01, 100), 8, 4);
+        filter.doFilter(post("/api/v1/orders/bulk", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse secondBulk = new MockHttpServletResponse();
+        MockHttpServletResponse single = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(post("/api/v1/orders/bulk", "10.0.0.1"), secondBulk, new MockFilterChain());
+        filter.doFilter(post("/api/v1/orders", "10.0.0.1"), single, new MockFilterChain());
+
+        // Assert
+        assertEquals(429, secondBulk.getStatus());
+        assertEquals("100", secondBulk.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, single.getStatus(), "A bulk request must not spend the single order allowance");
+    }
+
+    @Test
+    @DisplayName("Should not take a token from a creation rejected as overloaded")
+    void doFilter_CreationOverloaded_ShouldNotConsumeToken() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(new ClientRateLimiter(1, 0.01, 100), 1, 1);
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        FilterChain blockingChain = (request, response) -> {
+            MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+            filter.doFilter(post("/api/v1/orders", "10.0.0.2"), nestedResponse, new MockFilterChain());
+            nested.set(nestedResponse);
+        };
+        filter.doFilter(get("/api/v1/pizzeria/queue", "10.0.0.1"), new MockHttpServletResponse(), blockingChain);
+        MockHttpServletResponse retried = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(post("/api/v1/orders", "10.0.0.2"), retried, new MockFilterChain());
+
+        // Assert
+        assertEquals(429, nested.get().getStatus());
+        assertEquals(200, retried.getStatus());
+        assertEquals(0.0, meterRegistry.counter(AdmissionControlFilter.REJECTED_METRIC, "reason", "rate_limited").count());
+    }
+
+    @Test
+    @DisplayName("Should not rate limit status polls")
+    void doFilter_StatusPoll_ShouldNotBeRateLimited() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(new ClientRateLimiter(1, 1, 100), 8, 4);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(get("/api/v1/orders/ABC12345/status", "10.0.0.1"), response, chain);
+            assertEquals(200, response.getStatus());
+            assertNotNull(chain.getRequest());
+        }
+    }
+
+    @Test
+    @DisplayName("Should give callers behind one address their own buckets by client id header")
+    void doFilter_WithClientIdHeader_ShouldRateLimitEachClient() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ClientRateLimiter(1, 0.5, 100),
+                new ClientRateLimiter(1, 1, 100), "X-Client-Id", 8, 4, 8, 1, objectMapper, meterRegistry);
+        MockHttpServletResponse kioskA = new MockHttpServletResponse();
+        MockHttpServletResponse kioskB = new MockHttpServletResponse();
+        MockHttpServletResponse kioskAAgain = new MockHttpServletResponse();
+        MockHttpServletResponse anonymous = new MockHttpServletResponse();
+        MockHttpServletResponse anonymousAgain = new MockHttpServletResponse();
+
+        // Act: every caller comes through the same load balancer address
+        filter.doFilter(withClientId(post("/api/v1/orders", "10.0.0.1"), "kiosk-a"), kioskA, new MockFilterChain());
+        filter.doFilter(withClientId(post("/api/v1/orders", "10.0.0.1"), "kiosk-b"), kioskB, new MockFilterChain());
+        filter.doFilter(withClientId(post("/api/v1/orders", "10.0.0.1"), "kiosk-a"), kioskAAgain, new MockFilterChain());
+        filter.doFilter(post("/api/v1/orders", "10.0.0.1"), anonymous, new MockFilterChain());
+        filter.doFilter(post("/api/v1/orders", "10.0.0.1"), anonymousAgain, new MockFilterChain());
+
+        // Assert
+        assertEquals(200, kioskA.getStatus());
+        assertEquals(200, kioskB.getStatus());
+        assertEquals(429, kioskAAgain.getStatus());
+        // Without the header a caller falls back to its address, which has a bucket of its own
+        assertEquals(200, anonymous.getStatus());
+        assertEquals(429, anonymousAgain.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should admit status polls while other requests fill the concurrency limit")
+    void doFilter_WithRequestLimitReached_ShouldStillAdmitStatusPolls() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(new ClientRateLimiter(10, 1, 100), 1, 1);
+        AtomicReference<MockHttpServletResponse> nestedPoll = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> nestedQueue = new AtomicReference<>();
+        FilterChain blockingChain = (request, response) -> {
+            MockHttpServletResponse pollResponse = new MockHttpServletResponse();
+            filter.doFilter(get("/api/v1/orders/ABC12345/status", "10.0.0.2"), pollResponse, new MockFilterChain());
+            nestedPoll.set(pollResponse);
+            MockHttpServletResponse queueResponse = new MockHttpServletResponse();
+            filter.doFilter(get("/api/v1/pizzeria/queue", "10.0.0.3"), queueResponse, new MockFilterChain());
+            nestedQueue.set(queueResponse);
+        };
+
+        // Act
+        filter.doFilter(post("/api/v1/orders", "10.0.0.1"), new MockHttpServletResponse(), blockingChain);
+
+        // Assert
+        assertEquals(200, nestedPoll.get().getStatus());
+        assertEquals(429, nestedQueue.get().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should turn polls away at their own cap without touching creation capacity")
+    void doFilter_OverPollLimit_ShouldRejectPollsOnly() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ClientRateLimiter(10, 1, 100),
+                new ClientRateLimiter(1, 1, 100), null, 4, 2, 1, 1, objectMapper, meterRegistry);
+        AtomicReference<MockHttpServletResponse> nestedPoll = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> nestedCreation = new AtomicReference<>();
+        AtomicInteger pollsInFlight = new AtomicInteger();
+        FilterChain blockingPoll = (request, response) -> {
+            pollsInFlight.set((int) inFlight("poll"));
+            MockHttpServletResponse pollResponse = new MockHttpServletResponse();
+            filter.doFilter(get("/api/v1/orders/ABC12345/status", "10.0.0.2"), pollResponse, new MockFilterChain());
+            nestedPoll.set(pollResponse);
+            MockHttpServletResponse creationResponse = new MockHttpServletResponse();
+            filter.doFilter(post("/api/v1/orders", "10.0.0.3"), creationResponse, new MockFilterChain());
+            nestedCreation.set(creationResponse);
+        };
+
+        // Act
+        filter.doFilter(get("/api/v1/orders/ABC12345/status", "10.0.0.1"), new MockHttpServletResponse(), blockingPoll);
+
+        // Assert
+        assertEquals(1, pollsInFlight.get());
+        assertEquals(429, nestedPoll.get().getStatus());
+        assertEquals(200, nestedCreation.get().getStatus());
+        assertEquals(0.0, inFlight("poll"));
+    }
+
+    @Test
+    @DisplayName("Should reject with 429 once the concurrency limit is reached")
+    void doFilter_OverConcurrencyLimit_ShouldReturnOverloaded() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(new ClientRateLimiter(10, 1, 100), 1, 1);
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        // The outer request is still running when the nested one arrives, so it holds the only permit
+        FilterChain blockingChain = (request, response) -> {
+            MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+            filter.doFilter(get("/api/v1/pizzeria/queue", "10.0.0.2"), nestedResponse, new MockFilterChain());
+            nested.set(nestedResponse);
+        };
+
+        // Act
+        filter.doFilter(get("/api/v1/pizzeria/queue", "10.0.0.1"), new MockHttpServletResponse(), blockingChain);
+
+        // Assert
+        assertEquals(429, nested.get().getStatus());
+        assertEquals("1", nested.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.counter(AdmissionControlFilter.REJECTED_METRIC, "reason", "overloaded").count());
+    }
+
+    @Test
+    @DisplayName("Should keep capacity for polls while creations hold their own limit")
+    void doFilter_CreationLimitReached_ShouldStillAdmitPolls() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(new ClientRateLimiter(10, 1, 100), 4, 1);
+        AtomicReference<MockHttpServletResponse> nestedCreation = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> nestedPoll = new AtomicReference<>();
+        FilterChain creationChain = (request, response) -> {
+            MockHttpServletResponse creationResponse = new MockHttpServletResponse();
+            filter.doFilter(post("/api/v1/orders", "10.0.0.2"), creationResponse, new MockFilterChain());
+            nestedCreation.set(creationResponse);
+            MockHttpServletResponse pollResponse = new MockHttpServletResponse();
+            filter.doFilter(get("/api/v1/orders/ABC12345/status", "10.0.0.3"), pollResponse, new MockFilterChain());
+            nestedPoll.set(pollResponse);
+        };
+
+        // Act
+        filter.doFilter(post("/api/v1/orders", "10.0.0.1"), new MockHttpServletResponse(), creationChain);
+
+        // Assert
+        assertEquals(429, nestedCreation.get().getStatus());
+        assertEquals(200, nestedPoll.get().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should release permits when the request completes, even if it fails")
+    void doFilter_AfterCompletion_ShouldReleasePermits() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(new ClientRateLimiter(10, 1, 100), 1, 1);
+        AtomicInteger inFlightDuringRequest = new AtomicInteger();
+        FilterChain failingChain = (request, response) -> {
+            inFlightDuringRequest.set((int) inFlight("all"));
+            throw new IllegalStateException("boom");
+        };
+
+        // Act
+        assertThrows(IllegalStateException.class, () ->
+                filter.doFilter(post("/api/v1/orders", "10.0.0.1"), new MockHttpServletResponse(), failingChain));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("/api/v1/orders", "10.0.0.1"), response, new MockFilterChain());
+
+        // Assert
+        assertEquals(1, inFlightDuringRequest.get());
+        assertEquals(200, response.getStatus());
+        assertEquals(0.0, inFlight("all"));
+        assertEquals(0.0, inFlight("creation"));
+    }
+
+    private AdmissionControlFilter filter(ClientRateLimiter limiter, int maxConcurrentRequests, int maxConcurrentCreations) {
+        return filter(limiter, new ClientRateLimiter(1, 1, 100), maxConcurrentRequests, maxConcurrentCreations);
+    }
+
+    private AdmissionControlFilter filter(ClientRateLimiter limiter, ClientRateLimiter bulkLimiter,
+                                          int maxConcurrentRequests, int maxConcurrentCreations) {
+        return new AdmissionControlFilter(limiter, bulkLimiter, null, maxConcurrentRequests, maxConcurrentCreations,
+                8, 1, objectMapper, meterRegistry);
+    }
+
+    private double inFlight(String scope) {
+        return meterRegistry.get(AdmissionControlFilter.IN_FLIGHT_METRIC).tag("scope", scope).gauge().value();
+    }
+
+    private static MockHttpServletRequest post(String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static MockHttpServletRequest withClientId(MockHttpServletRequest request, String clientId) {
+        request.addHeader("X-Client-Id", clientId);
+        return request;
+    }
+
+    private static MockHttpServletRequest get(String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,81 @@
+package com.awesomepizza.orderingservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ClientRateLimiter Unit Tests")
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should allow a burst up to capacity and then report the wait for the next token")
+    void tryAcquire_BeyondCapacity_ShouldReturnWait() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(3, 2, 100, now::get);
+
+        // Act
+        long first = limiter.tryAcquire("10.0.0.1");
+        long second = limiter.tryAcquire("10.0.0.1");
+        long third = limiter.tryAcquire("10.0.0.1");
+        long fourth = limiter.tryAcquire("10.0.0.1");
+
+        // Assert
+        assertEquals(0, first + second + third);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), fourth, TimeUnit.MICROSECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("Should refill tokens over time without exceeding capacity")
+    void tryAcquire_AfterIdle_ShouldRefillUpToCapacity() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(2, 1, 100, now::get);
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.1");
+
+        // Act
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        // Assert
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep one bucket per client")
+    void tryAcquire_WithOtherClient_ShouldNotShareBucket() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 100, now::get);
+        limiter.tryAcquire("10.0.0.1");
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+        assertEquals(2, limiter.trackedClients());
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently seen client once max-clients is reached")
+    void tryAcquire_BeyondMaxClients_ShouldEvictEldestClient() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 2, now::get);
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.2");
+        limiter.tryAcquire("10.0.0.1");
+
+        // Act
+        limiter.tryAcquire("10.0.0.3");
+
+        // Assert
+        assertEquals(2, limiter.trackedClients());
+        // 10.0.0.2 was evicted, so it starts again with a full bucket
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+        assertTrue(limiter.tryAcquire("10.0.0.3") > 0);
+    }
+}
@@ -2,24 +2,33 @@ package com.awesomepizza.orderingservice.controller;
 
 import com.awesomepizza.orderingservice.model.entity.Pizza;
 import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.MenuCache;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;  // NEW IMPORT
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
 @WebMvcTest(MenuController.class)
+@Import(MenuCache.class)
 @DisplayName("MenuController Integration Tests")
 class MenuControllerTest {
 
@@ -29,6 +38,14 @@ class MenuControllerTest {
     @MockitoBean  // CHANGED FROM @MockBean
     private PizzaRepository pizzaRepository;
 
+    @Autowired
+    private MenuCache menuCache;
+
+    @BeforeEach
+    void setUp() {
+        menuCache.invalidate();
+    }
+
     @Test
     @DisplayName("GET /api/v1/menu/pizzas - Should return available pizzas")
     void getAvailablePizzas_ShouldReturnList() throws Exception {
@@ -76,4 +93,49 @@ class MenuControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/v1/menu/pizzas - Should return 304 when If-None-Match matches the menu version")
+    void getAvailablePizzas_WithMatchingETag_ShouldReturn304WithoutReloading() throws Exception {
+        // Arrange
+        when(pizzaRepository.findByAvailableTrue())
+                .thenReturn(Arrays.asList(Pizza.builder().id(1L).name("Margherita").available(true).build()));
+
+        MvcResult first = mockMvc.perform(get("/api/v1/menu/pizzas"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/menu/pizzas")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(pizzaRepository, times(1)).findByAvailableTrue();
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/menu/pizzas - Should serve a new version after the menu is invalidated")
+    void getAvailablePizzas_AfterInvalidation_ShouldReturnNewETag() throws Exception {
+        // Arrange
+        when(pizzaRepository.findByAvailableTrue())
+                .thenReturn(Arrays.asList(Pizza.builder().id(1L).name("Margherita").available(true).build()))
+                .thenReturn(Collections.emptyList());
+
+        String etag = mockMvc.perform(get("/api/v1/menu/pizzas"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        menuCache.invalidate();
+
+        // Assert
+        MvcResult reloaded = mockMvc.perform(get("/api/v1/menu/pizzas")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andReturn();
+        assertNotEquals(etag, reloaded.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+}
@@ -1,32 +1,48 @@
 package com.awesomepizza.orderingservice.controller;
 
+import com.awesomepizza.orderingservice.model.dto.BulkCreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.BulkOrderResponse;
 import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
 import com.awesomepizza.orderingservice.model.dto.OrderResponse;
 import com.awesomepizza.orderingservice.model.dto.OrderStatusResponse;
 import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
 import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.exception.IdempotencyKeyReuseException;
+import com.awesomepizza.orderingservice.exception.InvalidOrderItemsException;
 import com.awesomepizza.orderingservice.exception.OrderNotFoundException;
+import com.awesomepizza.orderingservice.service.IdempotentOrderCreator;
 import com.awesomepizza.orderingservice.service.OrderService;
+import com.awesomepizza.orderingservice.service.OrderStatusBroadcaster;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;  // NEW IMPORT
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @WebMvcTest(OrderController.class)
+@Import(OrderStatusBroadcaster.class)
 @DisplayName("OrderController Integration Tests")
 class OrderControllerTest {
 
@@ -36,9 +52,15 @@ class OrderControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private OrderStatusBroadcaster orderStatusBroadcaster;
+
     @MockitoBean  // CHANGED FROM @MockBean
     private OrderService orderService;
 
+    @MockitoBean
+    private IdempotentOrderCreator idempotentOrderCreator;
+
     private CreateOrderRequest validRequest;
     private OrderResponse orderResponse;
 
@@ -80,6 +102,41 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.statusDescription").value("In attesa"));
     }
 
+    @Test
+    @DisplayName("POST /api/v1/orders - Should return the original order for a repeated Idempotency-Key")
+    void createOrder_WithRepeatedIdempotencyKey_ShouldReplayOrder() throws Exception {
+        // Arrange
+        when(idempotentOrderCreator.createOrder(eq("retry-1"), any(CreateOrderRequest.class)))
+                .thenReturn(new IdempotentOrderCreator.Outcome(orderResponse, true));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/orders")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.orderCode").value("ABC12345"));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/orders - Should return 422 when an Idempotency-Key is reused for another order")
+    void createOrder_WithReusedIdempotencyKey_ShouldReturn422() throws Exception {
+        // Arrange
+        when(idempotentOrderCreator.createOrder(eq("retry-1"), any(CreateOrderRequest.class)))
+                .thenThrow(new IdempotencyKeyReuseException(
+                        "Idempotency-Key retry-1 was already used for a different order"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/orders")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key retry-1 was already used for a different order"));
+    }
+
     @Test
     @DisplayName("POST /api/v1/orders - Should return 400 for empty items")
     void createOrder_WithEmptyItems_ShouldReturn400() throws Exception {
@@ -115,6 +172,75 @@ class OrderControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("POST /api/v1/orders - Should return 400 listing every unknown or unavailable pizza")
+    void createOrder_WithInvalidPizzas_ShouldReturn400WithItemErrors() throws Exception {
+        // Arrange
+        Map<String, String> itemErrors = new LinkedHashMap<>();
+        itemErrors.put("items[0].pizzaId", "Pizza not found: 7");
+        itemErrors.put("items[1].pizzaId", "Pizza not available: 3");
+        when(orderService.createOrder(any(CreateOrderRequest.class)))
+                .thenThrow(new InvalidOrderItemsException(itemErrors));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors['items[0].pizzaId']").value("Pizza not found: 7"))
+                .andExpect(jsonPath("$.validationErrors['items[1].pizzaId']").value("Pizza not available: 3"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/orders/bulk - Should return a result per entry")
+    void createOrders_WithMixedEntries_ShouldReturnPerEntryResults() throws Exception {
+        // Arrange
+        BulkOrderResponse bulkResponse = BulkOrderResponse.builder()
+                .accepted(1)
+                .rejected(1)
+                .results(List.of(
+                        BulkOrderResponse.BulkOrderResult.builder().index(0).orderCode("ABC12345").build(),
+                        BulkOrderResponse.BulkOrderResult.builder()
+                                .index(1)
+                                .error("Order is invalid")
+                                .validationErrors(Map.of("items[0].pizzaId", "Pizza not found: 7"))
+                                .build()))
+                .build();
+        when(orderService.createOrders(anyList())).thenReturn(bulkResponse);
+
+        // An entry with an invalid quantity is passed through to the service, not rejected as a whole batch
+        CreateOrderRequest invalidEntry = CreateOrderRequest.builder()
+                .items(List.of(PizzaItemDto.builder().pizzaId(7L).quantity(0).build()))
+                .build();
+        BulkCreateOrderRequest request = BulkCreateOrderRequest.builder()
+                .orders(List.of(validRequest, invalidEntry))
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].orderCode").value("ABC12345"))
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].validationErrors['items[0].pizzaId']").value("Pizza not found: 7"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/orders/bulk - Should return 400 for an empty batch")
+    void createOrders_WithEmptyBatch_ShouldReturn400() throws Exception {
+        BulkCreateOrderRequest request = BulkCreateOrderRequest.builder()
+                .orders(Collections.emptyList())
+                .build();
+
+        mockMvc.perform(post("/api/v1/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /api/v1/orders/{orderCode}/status - Should return order status")
     void getOrderStatus_WithValidCode_ShouldReturn200() throws Exception {
@@ -152,6 +278,47 @@ class OrderControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/v1/orders/{orderCode}/status/stream - Should push current status on subscribe")
+    void streamOrderStatus_WithValidCode_ShouldSendCurrentStatus() throws Exception {
+        // Arrange
+        OrderStatusResponse statusResponse = OrderStatusResponse.builder()
+                .orderCode("ABC12345")
+                .status(OrderStatus.PENDING)
+                .statusDescription("In attesa")
+                .message("Il tuo ordine è in coda")
+                .build();
+
+        when(orderService.getOrderStatus("ABC12345"))
+                .thenReturn(statusResponse);
+        int subscribersBefore = orderStatusBroadcaster.getSubscriberCount();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/orders/ABC12345/status/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(containsString("event:status")))
+                .andExpect(content().string(containsString("\"status\":\"PENDING\"")));
+
+        assertEquals(subscribersBefore + 1, orderStatusBroadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders/{orderCode}/status/stream - Should return 404 for invalid code")
+    void streamOrderStatus_WithInvalidCode_ShouldReturn404() throws Exception {
+        // Arrange
+        when(orderService.getOrderStatus("INVALID"))
+                .thenThrow(new OrderNotFoundException("Order not found: INVALID"));
+        int subscribersBefore = orderStatusBroadcaster.getSubscriberCount();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/orders/INVALID/status/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+
+        assertEquals(subscribersBefore, orderStatusBroadcaster.getSubscriberCount());
+    }
+
     @Test
     @DisplayName("POST /api/v1/orders - Should handle multiple items")
     void createOrder_WithMultipleItems_ShouldReturn201() throws Exception {
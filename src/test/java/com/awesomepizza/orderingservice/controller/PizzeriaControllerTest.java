@@ -1,15 +1,20 @@
 package com.awesomepizza.orderingservice.controller;
 
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.dto.OrderPage;
 import com.awesomepizza.orderingservice.model.dto.OrderResponse;
 import com.awesomepizza.orderingservice.model.enums.OrderStatus;
 import com.awesomepizza.orderingservice.exception.InvalidOrderStateException;
+import com.awesomepizza.orderingservice.exception.InvalidPageRequestException;
 import com.awesomepizza.orderingservice.exception.OrderNotFoundException;
+import com.awesomepizza.orderingservice.service.KitchenQueueStream;
 import com.awesomepizza.orderingservice.service.PizzeriaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;  // NEW IMPORT
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,13 +22,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
 @WebMvcTest(PizzeriaController.class)
+@Import(KitchenQueueStream.class)
 @DisplayName("PizzeriaController Integration Tests")
 class PizzeriaControllerTest {
 
@@ -33,6 +41,9 @@ class PizzeriaControllerTest {
     @MockitoBean  // CHANGED FROM @MockBean
     private PizzeriaService pizzeriaService;
 
+    @Autowired
+    private KitchenQueueStream kitchenQueueStream;
+
     private OrderResponse pendingOrder;
     private OrderResponse inPreparationOrder;
 
@@ -60,13 +71,16 @@ class PizzeriaControllerTest {
     @DisplayName("GET /api/v1/pizzeria/queue - Should return order queue")
     void getOrderQueue_ShouldReturnAllActiveOrders() throws Exception {
         // Arrange
-        when(pizzeriaService.getOrderQueue())
-                .thenReturn(Arrays.asList(pendingOrder, inPreparationOrder));
+        when(pizzeriaService.getOrderQueue(null, null, 50))
+                .thenReturn(OrderPage.builder()
+                        .orders(Arrays.asList(pendingOrder, inPreparationOrder))
+                        .build());
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/pizzeria/queue")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].orderCode").value("ORDER001"))
                 .andExpect(jsonPath("$[0].status").value("PENDING"))
@@ -78,8 +92,10 @@ class PizzeriaControllerTest {
     @DisplayName("GET /api/v1/pizzeria/queue - Should return empty list when no orders")
     void getOrderQueue_WhenEmpty_ShouldReturnEmptyList() throws Exception {
         // Arrange
-        when(pizzeriaService.getOrderQueue())
-                .thenReturn(Collections.emptyList());
+        when(pizzeriaService.getOrderQueue(null, null, 50))
+                .thenReturn(OrderPage.builder()
+                        .orders(Collections.emptyList())
+                        .build());
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/pizzeria/queue")
@@ -88,6 +104,130 @@ class PizzeriaControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    @DisplayName("GET /api/v1/pizzeria/queue - Should pass filters and return next cursor header")
+    void getOrderQueue_WithFiltersAndCursor_ShouldReturnNextCursor() throws Exception {
+        // Arrange
+        when(pizzeriaService.getOrderQueue(List.of(OrderStatus.PENDING), "CURSOR1", 1))
+                .thenReturn(OrderPage.builder()
+                        .orders(Collections.singletonList(pendingOrder))
+                        .nextCursor("CURSOR2")
+                        .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pizzeria/queue")
+                        .param("status", "PENDING")
+                        .param("cursor", "CURSOR1")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "CURSOR2"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].orderCode").value("ORDER001"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pizzeria/queue - Should return 400 for an invalid cursor")
+    void getOrderQueue_WithInvalidCursor_ShouldReturn400() throws Exception {
+        // Arrange
+        when(pizzeriaService.getOrderQueue(null, "garbage", 50))
+                .thenThrow(new InvalidPageRequestException("Invalid cursor: garbage"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pizzeria/queue")
+                        .param("cursor", "garbage")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor: garbage"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pizzeria/queue - Should return 400 for an unknown status")
+    void getOrderQueue_WithUnknownStatus_ShouldReturn400() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pizzeria/queue")
+                        .param("status", "BURNT")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pizzeria/orders/history - Should return order history page")
+    void getOrderHistory_ShouldReturnPage() throws Exception {
+        // Arrange
+        OrderResponse completedOrder = OrderResponse.builder()
+                .id(3L)
+                .orderCode("ORDER003")
+                .status(OrderStatus.COMPLETED)
+                .statusDescription("Completato")
+                .build();
+
+        when(pizzeriaService.getOrderHistory(null, null, 50))
+                .thenReturn(OrderPage.builder()
+                        .orders(Arrays.asList(completedOrder, pendingOrder))
+                        .nextCursor("CURSOR2")
+                        .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pizzeria/orders/history")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "CURSOR2"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("COMPLETED"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pizzeria/queue/stream - Should start with a queue snapshot")
+    void streamOrderQueue_WithoutLastEventId_ShouldSendSnapshot() throws Exception {
+        // Arrange
+        when(pizzeriaService.getOrderQueue())
+                .thenReturn(Arrays.asList(pendingOrder, inPreparationOrder));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pizzeria/queue/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(containsString("event:SNAPSHOT")))
+                .andExpect(content().string(containsString("ORDER001")))
+                .andExpect(content().string(containsString("ORDER002")));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pizzeria/queue/stream - Should replay only missed deltas on reconnect")
+    void streamOrderQueue_WithLastEventId_ShouldReplayMissedDeltas() throws Exception {
+        // Arrange
+        long lastSeen = kitchenQueueStream.getSequence();
+        kitchenQueueStream.onOrderStatusChanged(new OrderStatusChangedEvent(
+                "ORDER001", OrderStatus.PENDING, OrderStatus.IN_PREPARATION, LocalDateTime.now()));
+        kitchenQueueStream.onOrderStatusChanged(new OrderStatusChangedEvent(
+                "ORDER002", OrderStatus.READY, OrderStatus.COMPLETED, LocalDateTime.now()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pizzeria/queue/stream")
+                        .header("Last-Event-ID", kitchenQueueStream.eventId(lastSeen))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(not(containsString("event:SNAPSHOT"))))
+                .andExpect(content().string(containsString("id:" + kitchenQueueStream.eventId(lastSeen + 1) + "\nevent:STATUS_CHANGED")))
+                .andExpect(content().string(containsString("id:" + kitchenQueueStream.eventId(lastSeen + 2) + "\nevent:ORDER_REMOVED")));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pizzeria/queue/stream - Should fall back to a snapshot for an unknown sequence")
+    void streamOrderQueue_WithUnknownLastEventId_ShouldSendSnapshot() throws Exception {
+        // Arrange
+        when(pizzeriaService.getOrderQueue())
+                .thenReturn(Collections.singletonList(pendingOrder));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pizzeria/queue/stream")
+                        .param("lastEventId", kitchenQueueStream.eventId(kitchenQueueStream.getSequence() + 100))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(containsString("event:SNAPSHOT")));
+    }
+
     @Test
     @DisplayName("POST /api/v1/pizzeria/orders/next - Should take next order")
     void takeNextOrder_ShouldReturnOrder() throws Exception {
@@ -173,4 +313,31 @@ class PizzeriaControllerTest {
                 .andExpect(jsonPath("$.orderCode").value("ORDER003"))
                 .andExpect(jsonPath("$.status").value("COMPLETED"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("PUT /api/v1/pizzeria/orders/{orderCode}/ready - Should return 204 without the order for Prefer: return=minimal")
+    void markOrderAsReady_WithReturnMinimal_ShouldReturnNoContent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/pizzeria/orders/ORDER002/ready")
+                        .header("Prefer", "respond-async, return=minimal"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Preference-Applied", "return=minimal"))
+                .andExpect(content().string(""));
+
+        verify(pizzeriaService).transitionOrder("ORDER002", OrderStatus.READY);
+        verify(pizzeriaService, never()).markOrderAsReady(any());
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/pizzeria/orders/{orderCode}/complete - Should return 404 for Prefer: return=minimal on unknown order")
+    void completeOrder_WithReturnMinimalAndUnknownOrder_ShouldReturn404() throws Exception {
+        // Arrange
+        doThrow(new OrderNotFoundException("Order not found: INVALID"))
+                .when(pizzeriaService).transitionOrder("INVALID", OrderStatus.COMPLETED);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/pizzeria/orders/INVALID/complete")
+                        .header("Prefer", "return=minimal"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,113 @@
+package com.awesomepizza.orderingservice.diagnostics;
+
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FlightRecordingEndpoint Unit Tests")
+class FlightRecordingEndpointTest {
+
+    private FlightRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new FlightRecordingEndpoint(false, Duration.ofMinutes(5), 16);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        endpoint.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should start a bounded recording and report its limits")
+    void start_ShouldStartBoundedRecording() {
+        // Act
+        Map<String, Object> status = endpoint.start(60L, null);
+
+        // Assert
+        assertEquals("RUNNING", status.get("state"));
+        assertEquals(60L, status.get("maxAgeSeconds"));
+        assertEquals(16L, status.get("maxSizeMb"));
+    }
+
+    @Test
+    @DisplayName("Should download the order events recorded so far")
+    void download_ShouldContainOrderEvents() throws Exception {
+        // Arrange
+        endpoint.start(null, null);
+        OrderTransitionEvent.start(OrderStatus.READY).finish("ABC12345", OrderStatus.IN_PREPARATION, true);
+
+        // Act
+        Resource resource = endpoint.download(FlightRecordingEndpoint.DOWNLOAD);
+
+        // Assert
+        List<RecordedEvent> transitions = RecordingFile.readAllEvents(resource.getFile().toPath()).stream()
+                .filter(event -> event.getEventType().getName().equals("com.awesomepizza.OrderTransition"))
+                .toList();
+        assertEquals(1, transitions.size());
+        assertEquals("ABC12345", transitions.get(0).getString("orderCode"));
+        assertEquals("READY", transitions.get(0).getString("toStatus"));
+        assertTrue(transitions.get(0).getBoolean("applied"));
+    }
+
+    @Test
+    @DisplayName("Should give each download its own file and delete it once streamed")
+    void download_Concurrently_ShouldUseSeparateFiles() throws Exception {
+        // Arrange
+        endpoint.start(null, null);
+        Resource first = endpoint.download(FlightRecordingEndpoint.DOWNLOAD);
+        Resource second = endpoint.download(FlightRecordingEndpoint.DOWNLOAD);
+        Path firstFile = first.getFile().toPath();
+        Path secondFile = second.getFile().toPath();
+
+        // Act
+        try (InputStream stream = first.getInputStream()) {
+            stream.readAllBytes();
+        }
+
+        // Assert
+        assertNotEquals(firstFile, secondFile);
+        assertFalse(Files.exists(firstFile), "A streamed dump should be deleted");
+        assertFalse(RecordingFile.readAllEvents(secondFile).isEmpty(), "Another request's dump must stay readable");
+        endpoint.shutdown();
+        assertFalse(Files.exists(secondFile), "Shutdown should delete dumps never streamed");
+    }
+
+    @Test
+    @DisplayName("Should keep a stopped recording available for download")
+    void stop_ShouldKeepRecordingDownloadable() {
+        // Arrange
+        endpoint.start(null, null);
+
+        // Act
+        Map<String, Object> status = endpoint.stop();
+
+        // Assert
+        assertEquals("STOPPED", status.get("state"));
+        assertNotNull(endpoint.download(FlightRecordingEndpoint.DOWNLOAD));
+    }
+
+    @Test
+    @DisplayName("Should return nothing for unknown selectors or before any recording")
+    void download_WithoutRecordingOrUnknownSelector_ShouldReturnNull() {
+        // Act & Assert
+        assertNull(endpoint.download(FlightRecordingEndpoint.DOWNLOAD));
+        endpoint.start(null, null);
+        assertNull(endpoint.download("heap"));
+    }
+}
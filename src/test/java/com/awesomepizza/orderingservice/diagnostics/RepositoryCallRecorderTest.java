@@ -0,0 +1,85 @@
+package com.awesomepizza.orderingservice.diagnostics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.domain.PageImpl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RepositoryCallRecorder Unit Tests")
+class RepositoryCallRecorderTest {
+
+    interface SampleRepository {
+        List<String> findAll();
+
+        int markAll();
+    }
+
+    @Test
+    @DisplayName("Should count rows for each kind of repository result")
+    void rowsOf_ShouldCountRowsByResultType() {
+        assertEquals(0, RepositoryCallRecorder.rowsOf(null));
+        assertEquals(3, RepositoryCallRecorder.rowsOf(List.of("a", "b", "c")));
+        assertEquals(2, RepositoryCallRecorder.rowsOf(new PageImpl<>(List.of("a", "b"))));
+        assertEquals(1, RepositoryCallRecorder.rowsOf(Optional.of("a")));
+        assertEquals(0, RepositoryCallRecorder.rowsOf(Optional.empty()));
+        assertEquals(7, RepositoryCallRecorder.rowsOf(7));
+        assertEquals(1, RepositoryCallRecorder.rowsOf(true));
+        assertEquals(1, RepositoryCallRecorder.rowsOf(new Object()));
+    }
+
+    @Test
+    @DisplayName("Should record a repository call event with method and row count")
+    void invoke_WhileRecording_ShouldRecordEvent() throws Exception {
+        // Arrange
+        SampleRepository target = new SampleRepository() {
+            @Override
+            public List<String> findAll() {
+                return List.of("a", "b");
+            }
+
+            @Override
+            public int markAll() {
+                return 5;
+            }
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(SampleRepository.class);
+        proxyFactory.addAdvice(new RepositoryCallRecorder(SampleRepository.class));
+        SampleRepository repository = (SampleRepository) proxyFactory.getProxy();
+        Path dump = Files.createTempFile("repository-calls-", ".jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryCallEvent.class);
+            recording.start();
+            repository.findAll();
+            repository.markAll();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Assert
+        // The recording sees every thread in the JVM, including scheduled calls from cached test contexts
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("com.awesomepizza.RepositoryCall"))
+                .filter(event -> "SampleRepository".equals(event.getString("repository")))
+                .toList();
+        Files.deleteIfExists(dump);
+        assertEquals(2, events.size());
+        assertEquals("SampleRepository", events.get(0).getString("repository"));
+        assertEquals("findAll", events.get(0).getString("method"));
+        assertEquals(2, events.get(0).getLong("rows"));
+        assertEquals("markAll", events.get(1).getString("method"));
+        assertEquals(5, events.get(1).getLong("rows"));
+    }
+}
@@ -0,0 +1,197 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.model.dto.BulkOrderResponse;
+import com.awesomepizza.orderingservice.model.dto.BulkOrderResponse.BulkOrderResult;
+import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderCodeGenerator;
+import com.awesomepizza.orderingservice.service.OrderService;
+import com.awesomepizza.orderingservice.service.PendingOrderQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkingestiondb"
+})
+@DisplayName("Bulk Order Ingestion Tests")
+class BulkOrderIngestionIntegrationTest {
+
+    // More than two chunks, so committed chunks and the trailing partial chunk are both exercised
+    private static final int VALID_ORDERS = 120;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private PendingOrderQueue pendingOrderQueue;
+
+    @MockitoSpyBean
+    private OrderCodeGenerator orderCodeGenerator;
+
+    private Pizza margherita;
+    private Pizza soldOut;
+
+    @BeforeEach
+    void setUp() {
+        margherita = pizzaRepository.save(Pizza.builder()
+                .name("Margherita")
+                .price(new BigDecimal("8.00"))
+                .available(true)
+                .build());
+        soldOut = pizzaRepository.save(Pizza.builder()
+                .name("Sold Out")
+                .price(new BigDecimal("9.00"))
+                .available(false)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        while (pendingOrderQueue.poll().isPresent()) {
+            // discard ids of orders about to be deleted
+        }
+        orderRepository.deleteAll();
+        pizzaRepository.deleteAll(List.of(margherita, soldOut));
+    }
+
+    @Test
+    @DisplayName("Should persist valid entries and report invalid ones without failing the batch")
+    void createOrders_WithMixedEntries_ShouldReportEachEntry() {
+        // Arrange
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < VALID_ORDERS; i++) {
+            requests.add(orderOf(margherita.getId(), 1));
+        }
+        requests.add(40, orderOf(soldOut.getId(), 1));
+        requests.add(80, orderOf(margherita.getId(), 0));
+        requests.add(100, orderOf(999_999L, 1));
+
+        // Act
+        BulkOrderResponse response = orderService.createOrders(requests);
+
+        // Assert
+        assertEquals(VALID_ORDERS, response.getAccepted());
+        assertEquals(3, response.getRejected());
+        assertEquals(requests.size(), response.getResults().size());
+
+        BulkOrderResult unavailable = response.getResults().get(40);
+        assertNull(unavailable.getOrderCode());
+        assertEquals("Pizza not available: " + soldOut.getId(),
+                unavailable.getValidationErrors().get("items[0].pizzaId"));
+        assertTrue(response.getResults().get(80).getValidationErrors().containsKey("items[0].quantity"));
+        assertEquals("Pizza not found: 999999",
+                response.getResults().get(100).getValidationErrors().get("items[0].pizzaId"));
+
+        for (int i = 0; i < response.getResults().size(); i++) {
+            assertEquals(i, response.getResults().get(i).getIndex());
+        }
+        assertEquals(VALID_ORDERS, orderRepository.findIdsByStatusOrderByCreatedAtAsc(OrderStatus.PENDING).size());
+        assertNotNull(orderService.getOrderStatus(response.getResults().get(0).getOrderCode()));
+    }
+
+    @Test
+    @DisplayName("Should reject only the entry the database refused, not the rest of its chunk")
+    void createOrders_WithEntryFailingToSave_ShouldRejectOnlyThatEntry() {
+        // Arrange
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(orderOf(margherita.getId(), 1));
+        }
+        // Passes validation but is longer than the notes column, so only the insert fails
+        requests.set(2, CreateOrderRequest.builder()
+                .items(List.of(PizzaItemDto.builder()
+                        .pizzaId(margherita.getId())
+                        .quantity(1)
+                        .notes("x".repeat(300))
+                        .build()))
+                .build());
+
+        // Act
+        BulkOrderResponse response = orderService.createOrders(requests);
+
+        // Assert
+        assertEquals(4, response.getAccepted());
+        assertEquals(1, response.getRejected());
+        assertNull(response.getResults().get(2).getOrderCode());
+        assertEquals("Order could not be saved", response.getResults().get(2).getError());
+        for (int i : List.of(0, 1, 3, 4)) {
+            assertNotNull(response.getResults().get(i).getOrderCode());
+        }
+        assertEquals(4, orderRepository.findIdsByStatusOrderByCreatedAtAsc(OrderStatus.PENDING).size());
+    }
+
+    @Test
+    @DisplayName("Should reject only the entry whose code could not be generated, after earlier chunks committed")
+    void createOrders_WhenGeneratorFailsPartway_ShouldRejectOnlyThatEntry() {
+        // Arrange
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            requests.add(orderOf(margherita.getId(), 1));
+        }
+        // Call 60 is entry 59 in the second chunk; call 70 is the same entry retried on its own
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (Set.of(60, 70).contains(calls.incrementAndGet())) {
+                throw new IllegalStateException("code block unavailable");
+            }
+            return invocation.callRealMethod();
+        }).when(orderCodeGenerator).nextCode();
+
+        // Act
+        BulkOrderResponse response = orderService.createOrders(requests);
+
+        // Assert
+        assertEquals(59, response.getAccepted());
+        assertEquals(1, response.getRejected());
+        assertNull(response.getResults().get(59).getOrderCode());
+        assertEquals("Order could not be saved", response.getResults().get(59).getError());
+        assertEquals(59, orderRepository.findIdsByStatusOrderByCreatedAtAsc(OrderStatus.PENDING).size());
+    }
+
+    @Test
+    @DisplayName("Should queue every ingested order for the kitchen")
+    void createOrders_ShouldQueueIngestedOrders() {
+        // Act
+        BulkOrderResponse response = orderService.createOrders(List.of(
+                orderOf(margherita.getId(), 2),
+                orderOf(margherita.getId(), 1)));
+
+        // Assert
+        assertEquals(2, response.getAccepted());
+        assertEquals(2, pendingOrderQueue.size());
+    }
+
+    private CreateOrderRequest orderOf(Long pizzaId, int quantity) {
+        return CreateOrderRequest.builder()
+                .items(List.of(PizzaItemDto.builder().pizzaId(pizzaId).quantity(quantity).build()))
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.exception.InvalidOrderStateException;
+import com.awesomepizza.orderingservice.exception.OrderNotFoundException;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import com.awesomepizza.orderingservice.service.OrderViewRebuilder;
+import com.awesomepizza.orderingservice.service.PendingOrderQueue;
+import com.awesomepizza.orderingservice.service.PizzeriaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:claimdb"
+})
+@DisplayName("Concurrent Order Claim Stress Tests")
+@Slf4j
+class ConcurrentOrderClaimIntegrationTest {
+
+    private static final int ORDER_COUNT = 400;
+    private static final int STATIONS = 8;
+
+    @Autowired
+    private PizzeriaService pizzeriaService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderViewRebuilder orderViewRebuilder;
+
+    @Autowired
+    private PendingOrderQueue pendingOrderQueue;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders.add(Order.builder()
+                    .status(OrderStatus.PENDING)
+                    .build());
+        }
+        orderRepository.saveAll(orders);
+        // Seeded around the services, so the read model is regenerated from the rows
+        orderViewRebuilder.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        while (pendingOrderQueue.poll().isPresent()) {
+            // discard ids left over from a failed run
+        }
+        orderViewRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Parallel kitchen stations should never claim the same order twice")
+    void takeNextOrder_FromParallelStations_ShouldClaimEachOrderExactlyOnce() throws Exception {
+        drainWithParallelStations("database claim");
+    }
+
+    @Test
+    @DisplayName("Parallel kitchen stations should claim each queued order exactly once")
+    void takeNextOrder_FromDispatchQueue_ShouldClaimEachOrderExactlyOnce() throws Exception {
+        assertEquals(ORDER_COUNT, pendingOrderQueue.reconcile());
+
+        drainWithParallelStations("dispatch queue");
+
+        assertEquals(0, pendingOrderQueue.size());
+    }
+
+    @Test
+    @DisplayName("Racing completions of one order should let exactly one through and reject the rest")
+    void completeOrder_FromParallelStations_ShouldCompleteOnce() throws Exception {
+        // Arrange
+        String orderCode = pizzeriaService.takeNextOrder().getOrderCode();
+        pizzeriaService.markOrderAsReady(orderCode);
+        double conflictsBefore = completionConflicts();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        ExecutorService stations = Executors.newFixedThreadPool(STATIONS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < STATIONS; i++) {
+            results.add(stations.submit(() -> {
+                start.await();
+                try {
+                    pizzeriaService.completeOrder(orderCode);
+                    completed.incrementAndGet();
+                } catch (InvalidOrderStateException alreadyCompleted) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        stations.shutdown();
+
+        // Assert: the status check in the UPDATE decides the race, so no writer sees a version conflict
+        assertEquals(1, completed.get());
+        assertEquals(STATIONS - 1, rejected.get());
+        assertEquals(OrderStatus.COMPLETED, orderRepository.findStatusByOrderCode(orderCode).orElseThrow().status());
+        // Every station that lost the race shows up as contention on the order
+        assertEquals(STATIONS - 1, completionConflicts() - conflictsBefore);
+    }
+
+    private double completionConflicts() {
+        return meterRegistry.counter("orders.transition.conflicts", "status", "COMPLETED", "found", "COMPLETED").count();
+    }
+
+    private void drainWithParallelStations(String claimPath) throws Exception {
+        Set<String> claimedCodes = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicateClaims = new AtomicInteger();
+        AtomicInteger totalClaims = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService stations = Executors.newFixedThreadPool(STATIONS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < STATIONS; i++) {
+            results.add(stations.submit(() -> {
+                start.await();
+                while (true) {
+                    OrderResponse claimed;
+                    try {
+                        claimed = pizzeriaService.takeNextOrder();
+                    } catch (OrderNotFoundException queueDrained) {
+                        return null;
+                    }
+                    totalClaims.incrementAndGet();
+                    if (!claimedCodes.add(claimed.getOrderCode())) {
+                        duplicateClaims.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        stations.shutdown();
+
+        double claimsPerSecond = totalClaims.get() / (elapsedNanos / 1_000_000_000.0);
+        log.info("[{}] {} stations claimed {} orders in {} ms ({} claims/s)",
+                claimPath, STATIONS, totalClaims.get(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%.0f", claimsPerSecond));
+
+        assertEquals(0, duplicateClaims.get());
+        assertEquals(ORDER_COUNT, totalClaims.get());
+        assertEquals(ORDER_COUNT, claimedCodes.size());
+        assertTrue(orderRepository.findByStatusOrderByCreatedAtAsc(OrderStatus.PENDING).isEmpty());
+    }
+}
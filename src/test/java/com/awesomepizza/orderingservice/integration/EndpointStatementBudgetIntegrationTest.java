@@ -0,0 +1,253 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.entity.OrderItem;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderCodeGenerator;
+import com.awesomepizza.orderingservice.service.OrderViewRebuilder;
+import com.awesomepizza.orderingservice.service.PendingOrderQueue;
+import com.awesomepizza.orderingservice.support.StatementBudget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementbudgetdb",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("Endpoint Statement Budget Tests")
+class EndpointStatementBudgetIntegrationTest {
+
+    private static final int ORDERS_PER_STATUS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private OrderCodeGenerator orderCodeGenerator;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderViewRebuilder orderViewRebuilder;
+
+    @Autowired
+    private PendingOrderQueue pendingOrderQueue;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private StatementBudget statementBudget;
+    private final List<Pizza> pizzas = new ArrayList<>();
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statementBudget = StatementBudget.of(entityManagerFactory);
+
+        for (int i = 0; i < 3; i++) {
+            pizzas.add(pizzaRepository.save(Pizza.builder()
+                    .name("Budget Pizza " + i)
+                    .price(new BigDecimal("9.00"))
+                    .available(true)
+                    .build()));
+        }
+
+        for (OrderStatus status : OrderStatus.values()) {
+            for (int i = 0; i < ORDERS_PER_STATUS; i++) {
+                Order order = Order.builder().status(status).build();
+                for (Pizza pizza : pizzas) {
+                    order.addItem(OrderItem.builder().pizza(pizza).quantity(1).build());
+                }
+                orders.add(order);
+            }
+        }
+        orderRepository.saveAll(orders);
+        // Seeded around the services, so the read model is regenerated from the rows
+        orderViewRebuilder.rebuild();
+        pendingOrderQueue.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        while (pendingOrderQueue.poll().isPresent()) {
+            // discard ids of orders about to be deleted
+        }
+        orderViewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        pizzaRepository.deleteAll(pizzas);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pizzeria/queue - Page of orders with items in 1 statement")
+    void getOrderQueue_ShouldStayWithinBudget() {
+        statementBudget.expectAtMost(1, "GET /api/v1/pizzeria/queue", () ->
+                mockMvc.perform(get("/api/v1/pizzeria/queue").param("limit", "25"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$", hasSize(25)))
+                        .andExpect(jsonPath("$[24].items", hasSize(3))));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pizzeria/orders/history - Page of orders with items in 2 statements, view and archive")
+    void getOrderHistory_ShouldStayWithinBudget() {
+        statementBudget.expectAtMost(2, "GET /api/v1/pizzeria/orders/history", () ->
+                mockMvc.perform(get("/api/v1/pizzeria/orders/history").param("limit", "40"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$", hasSize(40)))
+                        .andExpect(jsonPath("$[39].items", hasSize(3))));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders/{orderCode}/status - Status lookup in 1 statement")
+    void getOrderStatus_ShouldStayWithinBudget() {
+        String orderCode = orders.get(0).getOrderCode();
+
+        statementBudget.expectAtMost(1, "GET /api/v1/orders/{orderCode}/status", () ->
+                mockMvc.perform(get("/api/v1/orders/{orderCode}/status", orderCode))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/orders - Order creation within 8 statements")
+    void createOrder_ShouldStayWithinBudget() throws Exception {
+        List<PizzaItemDto> items = pizzas.stream()
+                .map(pizza -> PizzaItemDto.builder().pizzaId(pizza.getId()).quantity(1).build())
+                .toList();
+        String body = objectMapper.writeValueAsString(CreateOrderRequest.builder().items(items).build());
+
+        // Codes come from a block reserved once per thousand orders; take that reservation out of the count
+        orderCodeGenerator.nextCode();
+        // pizzas lookup, a pooled id sequence call and an insert batch each for the order, its items and its
+        // outbox row, and the insert of its order_view row, which reuses the order's id
+        statementBudget.expectAtMost(8, "POST /api/v1/orders", () ->
+                mockMvc.perform(post("/api/v1/orders")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andExpect(status().isCreated()));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/pizzeria/orders/next - Claim in 5 statements")
+    void takeNextOrder_ShouldStayWithinBudget() {
+        // The claim, its order_view update and single-row read-back, plus the outbox row and,
+        // once per pool, its id sequence call
+        statementBudget.expectAtMost(5, "POST /api/v1/pizzeria/orders/next", () ->
+                mockMvc.perform(post("/api/v1/pizzeria/orders/next"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.items", hasSize(3))));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/pizzeria/orders/{orderCode}/ready - Transition in 5 statements")
+    void markOrderAsReady_ShouldStayWithinBudget() {
+        String orderCode = firstOrderCodeIn(OrderStatus.IN_PREPARATION);
+
+        statementBudget.expectAtMost(5, "PUT /api/v1/pizzeria/orders/{orderCode}/ready", () ->
+                mockMvc.perform(put("/api/v1/pizzeria/orders/{orderCode}/ready", orderCode))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.items", hasSize(3))));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/pizzeria/orders/{orderCode}/complete - Transition in 5 statements")
+    void completeOrder_ShouldStayWithinBudget() {
+        String orderCode = firstOrderCodeIn(OrderStatus.READY);
+
+        statementBudget.expectAtMost(5, "PUT /api/v1/pizzeria/orders/{orderCode}/complete", () ->
+                mockMvc.perform(put("/api/v1/pizzeria/orders/{orderCode}/complete", orderCode))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.items", hasSize(3))));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/pizzeria/orders/{orderCode}/complete - Minimal transition in 4 statements")
+    void completeOrder_WithReturnMinimal_ShouldStayWithinBudget() {
+        String orderCode = firstOrderCodeIn(OrderStatus.READY);
+
+        // The conditional update, its order_view update and the outbox row; the order is never loaded
+        statementBudget.expectAtMost(4, "PUT /api/v1/pizzeria/orders/{orderCode}/complete (minimal)", () ->
+                mockMvc.perform(put("/api/v1/pizzeria/orders/{orderCode}/complete", orderCode)
+                                .header("Prefer", "return=minimal"))
+                        .andExpect(status().isNoContent()));
+    }
+
+    @Test
+    @DisplayName("Should publish the statements each endpoint issued as a metric")
+    void statementCounts_ShouldBeRecordedPerEndpoint() throws Exception {
+        String orderCode = firstOrderCodeIn(OrderStatus.IN_PREPARATION);
+        DistributionSummary before = readyStatements();
+        long countBefore = before == null ? 0 : before.count();
+        double totalBefore = before == null ? 0 : before.totalAmount();
+
+        mockMvc.perform(put("/api/v1/pizzeria/orders/{orderCode}/ready", orderCode)
+                        .header("Prefer", "return=minimal"))
+                .andExpect(status().isNoContent());
+
+        // Other tests in this class share the registry, so compare against what was there before
+        DistributionSummary after = readyStatements();
+        assertEquals(countBefore + 1, after.count());
+        // Both updates and the outbox insert, plus a sequence call when the outbox id pool runs out
+        double statements = after.totalAmount() - totalBefore;
+        assertTrue(statements >= 3 && statements <= 4, "Expected 3 or 4 statements but was " + statements);
+    }
+
+    private DistributionSummary readyStatements() {
+        return meterRegistry.find("http.server.requests.db.statements")
+                .tag("method", "PUT")
+                .tag("uri", "/api/v1/pizzeria/orders/{orderCode}/ready")
+                .summary();
+    }
+
+    private String firstOrderCodeIn(OrderStatus status) {
+        return orders.stream()
+                .filter(order -> order.getStatus() == status)
+                .findFirst()
+                .orElseThrow()
+                .getOrderCode();
+    }
+}
@@ -0,0 +1,204 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.model.dto.OrderPage;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.entity.OrderItem;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.ArchivedOrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderArchiver;
+import com.awesomepizza.orderingservice.service.OrderMetrics;
+import com.awesomepizza.orderingservice.service.OrderViewRebuilder;
+import com.awesomepizza.orderingservice.service.PizzeriaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archivedb",
+        // Every completed order is old enough, and small batches make the archiver loop
+        "pizzeria.archive.max-age=0s",
+        "pizzeria.archive.batch-size=2"
+})
+@DisplayName("Order Archival Integration Tests")
+class OrderArchivalIntegrationTest {
+
+    private static final int COMPLETED_COUNT = 5;
+    private static final int PENDING_COUNT = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private PizzeriaService pizzeriaService;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private OrderViewRebuilder orderViewRebuilder;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Pizza pizza;
+    private final List<Order> completed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        pizza = pizzaRepository.save(Pizza.builder()
+                .name("Quattro Stagioni")
+                .price(new BigDecimal("11.00"))
+                .available(true)
+                .build());
+        // Written around the services, so no status is cached and lookups have to reach a table
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < COMPLETED_COUNT + PENDING_COUNT; i++) {
+            boolean done = i < COMPLETED_COUNT;
+            Order order = Order.builder()
+                    .status(done ? OrderStatus.COMPLETED : OrderStatus.PENDING)
+                    .completedAt(done ? LocalDateTime.now() : null)
+                    .build();
+            order.addItem(OrderItem.builder().pizza(pizza).quantity(i + 1).notes("note " + i).build());
+            orders.add(order);
+            if (done) {
+                completed.add(order);
+            }
+        }
+        orderRepository.saveAll(orders);
+        orderViewRebuilder.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        archivedOrderRepository.deleteAllInBatch();
+        orderViewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        pizzaRepository.delete(pizza);
+    }
+
+    @Test
+    @DisplayName("Should move completed orders out of the hot tables and leave active ones")
+    void archiveCompletedOrders_ShouldMoveOnlyCompletedOrders() {
+        // Arrange: the orders were seeded around the services, so the gauges have to be counted again
+        orderMetrics.seedStatusCounts();
+        assertEquals(COMPLETED_COUNT, orderMetrics.ordersIn(OrderStatus.COMPLETED));
+
+        // Act
+        int archived = orderArchiver.archiveCompletedOrders();
+
+        // Assert
+        assertEquals(COMPLETED_COUNT, archived);
+        assertEquals(COMPLETED_COUNT, archivedOrderRepository.count());
+        assertEquals(PENDING_COUNT, orderRepository.count());
+        assertEquals(PENDING_COUNT, orderViewRepository.count());
+        assertTrue(orderRepository.findAll().stream().allMatch(order -> order.getStatus() == OrderStatus.PENDING));
+        assertEquals(0, orderMetrics.ordersIn(OrderStatus.COMPLETED));
+        assertEquals(PENDING_COUNT, orderMetrics.ordersIn(OrderStatus.PENDING));
+        assertEquals(0, orderArchiver.archiveCompletedOrders());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders/{code}/status - Should answer an archived order from the archive")
+    void getOrderStatus_AfterArchival_ShouldFallThroughToArchive() throws Exception {
+        // Arrange
+        orderArchiver.archiveCompletedOrders();
+        String orderCode = completed.get(0).getOrderCode();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/orders/{orderCode}/status", orderCode))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCode").value(orderCode))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+        mockMvc.perform(get("/api/v1/orders/{orderCode}/status", "NOTFOUND"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should keep an archived order's items readable by id")
+    void getOrder_AfterArchival_ShouldReturnArchivedItems() {
+        // Arrange
+        orderArchiver.archiveCompletedOrders();
+        Order order = completed.get(1);
+
+        // Act
+        OrderResponse response = pizzeriaService.getOrder(order.getId());
+
+        // Assert
+        assertEquals(order.getOrderCode(), response.getOrderCode());
+        assertEquals(OrderStatus.COMPLETED, response.getStatus());
+        assertEquals(List.of(OrderResponse.OrderItemResponse.builder()
+                .pizzaName("Quattro Stagioni").quantity(2).notes("note 1").build()), response.getItems());
+    }
+
+    @Test
+    @DisplayName("Walking history pages should merge archived orders in by the same cursor")
+    void getOrderHistory_AfterArchival_ShouldIncludeArchivedOrders() {
+        // Arrange: one active order older than every archived one must still come out last
+        orderArchiver.archiveCompletedOrders();
+        Order lingering = orderRepository.findByStatusOrderByCreatedAtAsc(OrderStatus.PENDING).get(0);
+        jdbcTemplate.update("UPDATE order_view SET created_at = ? WHERE order_id = ?",
+                LocalDateTime.now().minusDays(1), lingering.getId());
+
+        // Act
+        List<OrderResponse> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderPage page = pizzeriaService.getOrderHistory(null, cursor, 2);
+            visited.addAll(page.getOrders());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(COMPLETED_COUNT + PENDING_COUNT, visited.size());
+        assertEquals(COMPLETED_COUNT + PENDING_COUNT, visited.stream().map(OrderResponse::getId).distinct().count());
+        assertEquals(lingering.getId(), visited.get(visited.size() - 1).getId());
+        for (int i = 1; i < visited.size(); i++) {
+            OrderResponse previous = visited.get(i - 1);
+            OrderResponse current = visited.get(i);
+            int byCreatedAt = current.getCreatedAt().compareTo(previous.getCreatedAt());
+            assertTrue(byCreatedAt < 0 || (byCreatedAt == 0 && current.getId() < previous.getId()));
+        }
+        assertEquals(PENDING_COUNT,
+                pizzeriaService.getOrderHistory(List.of(OrderStatus.PENDING), null, 10).getOrders().size());
+    }
+}
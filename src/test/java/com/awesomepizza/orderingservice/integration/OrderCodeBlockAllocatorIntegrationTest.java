@@ -0,0 +1,78 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.service.OrderCodeBlockAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:codeblockdb"
+})
+@DisplayName("Order Code Block Allocator Integration Tests")
+class OrderCodeBlockAllocatorIntegrationTest {
+
+    @Autowired
+    private OrderCodeBlockAllocator allocator;
+
+    @Test
+    @DisplayName("Should reserve consecutive blocks per node")
+    void reserveBlock_ShouldAdvancePerNode() {
+        // Act
+        long first = allocator.reserveBlock(10);
+        long second = allocator.reserveBlock(10);
+        long otherNode = allocator.reserveBlock(11);
+
+        // Assert
+        assertEquals(first + 1, second);
+        assertEquals(0, otherNode);
+    }
+
+    @Test
+    @DisplayName("Should never hand the same block to concurrent callers")
+    void reserveBlock_FromConcurrentCallers_ShouldNotRepeat() throws Exception {
+        // Arrange
+        int callers = 8;
+        int reservationsPerCaller = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < callers; i++) {
+                Callable<List<Long>> task = () -> {
+                    List<Long> blocks = new ArrayList<>();
+                    for (int r = 0; r < reservationsPerCaller; r++) {
+                        blocks.add(allocator.reserveBlock(20));
+                    }
+                    return blocks;
+                };
+                futures.add(executor.submit(task));
+            }
+            Set<Long> blocks = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                blocks.addAll(future.get());
+            }
+
+            // Assert
+            assertEquals(callers * reservationsPerCaller, blocks.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderCodeGenerator;
+import com.awesomepizza.orderingservice.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycountdb",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional
+@DisplayName("Order Creation Query Count Tests")
+class OrderCreationQueryCountIntegrationTest {
+
+    private static final int DISTINCT_PIZZAS = 10;
+    private static final int ORDER_LINES = 50;
+    private static final int LARGE_ORDER_LINES = 120;
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private OrderCodeGenerator orderCodeGenerator;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<Pizza> pizzas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < DISTINCT_PIZZAS; i++) {
+            pizzas.add(pizzaRepository.save(Pizza.builder()
+                    .name("Pizza " + i)
+                    .price(new BigDecimal("9.00"))
+                    .available(true)
+                    .build()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should resolve all pizzas of a large order with a single query")
+    void createOrder_WithManyLines_ShouldLoadPizzasInOneQuery() {
+        // Arrange
+        CreateOrderRequest request = requestWithLines(ORDER_LINES);
+
+        // Codes come from a block reserved once per thousand orders; take that reservation out of the count
+        orderCodeGenerator.nextCode();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        OrderResponse response = orderService.createOrder(request);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(ORDER_LINES, response.getItems().size());
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+        // The order, its items, its outbox row and its order_view row
+        assertEquals(3 + ORDER_LINES, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    @DisplayName("Should write an order and its items in a bounded number of insert batches")
+    void createOrder_WithMoreLinesThanBatchSize_ShouldInsertInBatches() {
+        // Arrange
+        CreateOrderRequest request = requestWithLines(LARGE_ORDER_LINES);
+        orderCodeGenerator.nextCode();
+        // Prime the id pools so the count only covers the steady-state sequence calls
+        orderService.createOrder(requestWithLines(1));
+        entityManager.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        orderService.createOrder(request);
+        entityManager.flush();
+
+        // Assert
+        int itemBatches = (LARGE_ORDER_LINES + JDBC_BATCH_SIZE - 1) / JDBC_BATCH_SIZE;
+        int itemIdPools = itemBatches;
+        // pizzas lookup, item id pools, then the order, item, order_view and outbox insert batches
+        long expectedStatements = 1 + itemIdPools + 1 + itemBatches + 1 + 1;
+        assertEquals(3 + LARGE_ORDER_LINES, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= expectedStatements,
+                "Expected at most " + expectedStatements + " statements but was "
+                        + statistics.getPrepareStatementCount());
+    }
+
+    private CreateOrderRequest requestWithLines(int lines) {
+        List<PizzaItemDto> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(PizzaItemDto.builder()
+                    .pizzaId(pizzas.get(i % DISTINCT_PIZZAS).getId())
+                    .quantity(1)
+                    .build());
+        }
+        return CreateOrderRequest.builder().items(items).build();
+    }
+}
@@ -29,8 +29,7 @@ import static org.hamcrest.Matchers.*;
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 @TestPropertySource(properties = {
-        "spring.datasource.url=jdbc:h2:mem:testdb",
-        "spring.jpa.hibernate.ddl-auto=create-drop"
+        "spring.datasource.url=jdbc:h2:mem:testdb"
 })
 @Transactional
 @DisplayName("Order Flow Integration Tests")
@@ -66,6 +65,43 @@ class OrderFlowIntegrationTest {
                 .build());
     }
 
+    @Test
+    @DisplayName("Should create one order for requests retried with the same Idempotency-Key")
+    void testIdempotentOrderCreation() throws Exception {
+        // Arrange
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .items(Arrays.asList(PizzaItemDto.builder()
+                        .pizzaId(diavola.getId())
+                        .quantity(1)
+                        .build()))
+                .build();
+        String body = objectMapper.writeValueAsString(request);
+
+        // Act
+        MvcResult first = mockMvc.perform(post("/api/v1/orders")
+                        .header("Idempotency-Key", "flow-retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn();
+        String orderCode = objectMapper.readTree(first.getResponse().getContentAsString())
+                .get("orderCode").asText();
+
+        // Assert
+        mockMvc.perform(post("/api/v1/orders")
+                        .header("Idempotency-Key", "flow-retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.orderCode").value(orderCode));
+
+        mockMvc.perform(get("/api/v1/pizzeria/queue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.orderCode == '" + orderCode + "')]", hasSize(1)));
+    }
+
     @Test
     @DisplayName("Should complete full order flow from creation to completion")
     void testCompleteOrderFlow() throws Exception {
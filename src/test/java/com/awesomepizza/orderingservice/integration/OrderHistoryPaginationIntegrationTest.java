@@ -0,0 +1,130 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.model.dto.OrderPage;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import com.awesomepizza.orderingservice.service.OrderViewRebuilder;
+import com.awesomepizza.orderingservice.service.PizzeriaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:paginationdb"
+})
+@DisplayName("Keyset Pagination Integration Tests")
+class OrderHistoryPaginationIntegrationTest {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int ORDER_COUNT = 103;
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private PizzeriaService pizzeriaService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderViewRebuilder orderViewRebuilder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Batches of orders share a creation timestamp so pages have to break ties on id
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders.add(Order.builder()
+                    .status(STATUSES[i % STATUSES.length])
+                    .build());
+        }
+        orderRepository.saveAll(orders);
+        for (int i = 0; i < orders.size(); i++) {
+            jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+                    base.plusSeconds(i / 7), orders.get(i).getId());
+        }
+        // Seeded around the services, so the read model is regenerated from the rows
+        orderViewRebuilder.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderViewRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Walking history pages should visit every order once, newest first")
+    void getOrderHistory_WalkingAllPages_ShouldVisitEveryOrderOnce() {
+        // Act
+        List<OrderResponse> visited = walk(cursor -> pizzeriaService.getOrderHistory(null, cursor, PAGE_SIZE));
+
+        // Assert
+        assertTrue(visited.stream().map(OrderResponse::getCreatedAt).distinct().count() < ORDER_COUNT);
+        assertEquals(ORDER_COUNT, visited.size());
+        assertEquals(ORDER_COUNT, visited.stream().map(OrderResponse::getId).distinct().count());
+        for (int i = 1; i < visited.size(); i++) {
+            OrderResponse previous = visited.get(i - 1);
+            OrderResponse current = visited.get(i);
+            int byCreatedAt = current.getCreatedAt().compareTo(previous.getCreatedAt());
+            assertTrue(byCreatedAt < 0 || (byCreatedAt == 0 && current.getId() < previous.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Walking queue pages should only visit the filtered statuses, oldest first")
+    void getOrderQueue_WithStatusFilter_ShouldOnlyVisitFilteredOrders() {
+        // Arrange
+        long readyCount = orderRepository.findByStatusOrderByCreatedAtAsc(OrderStatus.READY).size();
+
+        // Act
+        List<OrderResponse> visited = walk(cursor ->
+                pizzeriaService.getOrderQueue(List.of(OrderStatus.READY), cursor, PAGE_SIZE));
+
+        // Assert
+        assertEquals(readyCount, visited.size());
+        assertTrue(visited.stream().allMatch(order -> order.getStatus() == OrderStatus.READY));
+        for (int i = 1; i < visited.size(); i++) {
+            OrderResponse previous = visited.get(i - 1);
+            OrderResponse current = visited.get(i);
+            int byCreatedAt = current.getCreatedAt().compareTo(previous.getCreatedAt());
+            assertTrue(byCreatedAt > 0 || (byCreatedAt == 0 && current.getId() > previous.getId()));
+        }
+    }
+
+    private List<OrderResponse> walk(Function<String, OrderPage> fetchPage) {
+        List<OrderResponse> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderPage page = fetchPage.apply(cursor);
+            assertTrue(page.getOrders().size() <= PAGE_SIZE);
+            visited.addAll(page.getOrders());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return visited;
+    }
+}
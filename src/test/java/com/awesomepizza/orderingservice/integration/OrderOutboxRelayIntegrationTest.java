@@ -0,0 +1,241 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderEventSubscriber;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
+import com.awesomepizza.orderingservice.model.entity.OutboxEvent;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.enums.OutboxEventType;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OutboxEventRepository;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderOutboxRelay;
+import com.awesomepizza.orderingservice.service.OrderService;
+import com.awesomepizza.orderingservice.service.PendingOrderQueue;
+import com.awesomepizza.orderingservice.service.PizzeriaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxdb",
+        "pizzeria.outbox.relay-enabled=true",
+        "pizzeria.outbox.poll-interval-ms=100"
+})
+@DisplayName("Order Outbox Relay Integration Tests")
+class OrderOutboxRelayIntegrationTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PizzeriaService pizzeriaService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PendingOrderQueue pendingOrderQueue;
+
+    @Autowired
+    private OrderOutboxRelay relay;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    private CreateOrderRequest request;
+
+    @BeforeEach
+    void setUp() {
+        Pizza pizza = pizzaRepository.save(Pizza.builder()
+                .name("Outbox Pizza")
+                .price(new BigDecimal("8.00"))
+                .available(true)
+                .build());
+        request = CreateOrderRequest.builder()
+                .items(List.of(PizzaItemDto.builder().pizzaId(pizza.getId()).quantity(1).build()))
+                .build();
+        subscriber.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        while (pendingOrderQueue.poll().isPresent()) {
+            // discard ids of orders about to be deleted
+        }
+        orderRepository.deleteAll();
+        pizzaRepository.deleteAll(pizzaRepository.findAll().stream()
+                .filter(pizza -> pizza.getName().equals("Outbox Pizza"))
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Should deliver an order's whole lifecycle in order and empty the outbox")
+    void orderLifecycle_ShouldReachSubscribersInOrder() {
+        // Act
+        OrderResponse created = orderService.createOrder(request);
+        String orderCode = created.getOrderCode();
+        pizzeriaService.takeNextOrder();
+        pizzeriaService.markOrderAsReady(orderCode);
+        pizzeriaService.completeOrder(orderCode);
+
+        // Assert
+        // The outbox rows carry the version each status implies, which has to be the one the order reached
+        assertEquals(OrderStatus.COMPLETED.orderVersion(),
+                orderRepository.findById(created.getId()).orElseThrow().getVersion());
+        List<String> lifecycle = List.of("created " + orderCode, "IN_PREPARATION " + orderCode,
+                "READY " + orderCode, "COMPLETED " + orderCode);
+        awaitTrue(() -> subscriber.received.size() >= lifecycle.size(), "lifecycle delivered");
+        assertEquals(lifecycle, subscriber.received);
+        awaitTrue(() -> outboxEventRepository.count() == 0, "outbox drained");
+    }
+
+    @Test
+    @DisplayName("Should write no event for an order whose transaction rolled back")
+    void createOrder_WhenRolledBack_ShouldLeaveNoEvent() {
+        // Act
+        OrderResponse rolledBack = transactionTemplate.execute(status -> {
+            OrderResponse order = orderService.createOrder(request);
+            status.setRollbackOnly();
+            return order;
+        });
+        String committed = orderService.createOrder(request).getOrderCode();
+
+        // Assert
+        awaitTrue(() -> subscriber.received.contains("created " + committed), "committed order delivered");
+        awaitTrue(() -> outboxEventRepository.count() == 0, "outbox drained");
+        assertFalse(subscriber.received.contains("created " + rolledBack.getOrderCode()));
+    }
+
+    @Test
+    @DisplayName("Should redeliver an event after a subscriber failed on it")
+    void subscriberFailure_ShouldBeRetried() {
+        // Arrange
+        String orderCode = orderService.createOrder(request).getOrderCode();
+        awaitTrue(() -> subscriber.received.contains("created " + orderCode), "order delivered");
+        subscriber.failOnce("READY " + orderCode);
+
+        // Act
+        pizzeriaService.takeNextOrder();
+        pizzeriaService.markOrderAsReady(orderCode);
+        pizzeriaService.completeOrder(orderCode);
+
+        // Assert
+        awaitTrue(() -> subscriber.received.contains("COMPLETED " + orderCode), "order completed");
+        assertEquals(List.of("created " + orderCode, "IN_PREPARATION " + orderCode,
+                "READY " + orderCode, "COMPLETED " + orderCode), subscriber.received);
+        awaitTrue(() -> outboxEventRepository.count() == 0, "outbox drained");
+    }
+
+    @Test
+    @DisplayName("Should take over events written by an instance that is no longer running")
+    void eventFromStoppedInstance_ShouldBeRelayed() {
+        // Arrange
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(OutboxEventType.STATUS_CHANGED)
+                .orderCode("GONE0042")
+                .orderVersion(OrderStatus.COMPLETED.orderVersion())
+                .previousStatus(OrderStatus.READY)
+                .newStatus(OrderStatus.COMPLETED)
+                .occurredAt(LocalDateTime.now())
+                .build());
+
+        // Act
+        relay.wakeUp();
+
+        // Assert
+        awaitTrue(() -> subscriber.received.contains("COMPLETED GONE0042"), "orphaned event delivered");
+        awaitTrue(() -> outboxEventRepository.count() == 0, "outbox drained");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String description) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for " + description);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted waiting for " + description);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class SubscriberConfig {
+
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements OrderEventSubscriber {
+
+        private final List<String> received = new CopyOnWriteArrayList<>();
+        private final Set<String> failures = ConcurrentHashMap.newKeySet();
+
+        void reset() {
+            received.clear();
+            failures.clear();
+        }
+
+        void failOnce(String event) {
+            failures.add(event);
+        }
+
+        @Override
+        public void onOrderCreated(OrderCreatedEvent event) {
+            receive("created " + event.orderCode());
+        }
+
+        @Override
+        public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+            receive(event.newStatus() + " " + event.orderCode());
+        }
+
+        private void receive(String event) {
+            if (failures.remove(event)) {
+                throw new IllegalStateException("Subscriber unavailable");
+            }
+            received.add(event);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.model.dto.OrderStatusResponse;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.entity.OrderItem;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusView;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statuslookupdb",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("Order Status Lookup Benchmark")
+@Slf4j
+class OrderStatusLookupBenchmarkIntegrationTest {
+
+    private static final int ORDER_COUNT = 200;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<String> orderCodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Pizza> pizzas = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            pizzas.add(pizzaRepository.save(Pizza.builder()
+                    .name("Benchmark Pizza " + i)
+                    .price(new BigDecimal("9.00"))
+                    .available(true)
+                    .build()));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = Order.builder()
+                    .status(OrderStatus.values()[i % OrderStatus.values().length])
+                    .build();
+            for (Pizza pizza : pizzas) {
+                order.addItem(OrderItem.builder().pizza(pizza).quantity(1).build());
+            }
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders).forEach(order -> orderCodes.add(order.getOrderCode()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        pizzaRepository.deleteAll(pizzaRepository.findAll().stream()
+                .filter(pizza -> pizza.getName().startsWith("Benchmark Pizza"))
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Projection lookup should issue one narrow query and load no entities")
+    void getOrderStatus_ComparedWithEntityLoad_ShouldUseSingleNarrowQuery() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Act
+        Measurement entityLoad = measure("entity load", statistics, code -> {
+            Order order = orderRepository.findByOrderCode(code).orElseThrow();
+            return toStatusResponse(order.getOrderCode(), order.getStatus());
+        });
+        Measurement projection = measure("projection", statistics, code -> {
+            OrderStatusView view = orderRepository.findStatusByOrderCode(code).orElseThrow();
+            return toStatusResponse(view.orderCode(), view.status());
+        });
+
+        // Assert
+        assertEquals(1.0, projection.statementsPerLookup());
+        assertEquals(0, projection.entitiesLoaded());
+        assertTrue(entityLoad.statementsPerLookup() >= projection.statementsPerLookup());
+        assertTrue(entityLoad.entitiesLoaded() > 0);
+    }
+
+    @Test
+    @DisplayName("Service lookup should be served from the status index once warm")
+    void getOrderStatus_AfterWarmup_ShouldIssueNoStatements() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Act
+        Measurement cached = measure("status index", statistics, orderService::getOrderStatus);
+
+        // Assert
+        assertEquals(0.0, cached.statementsPerLookup());
+        assertEquals(0, cached.entitiesLoaded());
+    }
+
+    private OrderStatusResponse toStatusResponse(String orderCode, OrderStatus status) {
+        return OrderStatusResponse.builder()
+                .orderCode(orderCode)
+                .status(status)
+                .statusDescription(status.getDescription())
+                .message(status.getCustomerMessage())
+                .build();
+    }
+
+    private Measurement measure(String path, Statistics statistics, Function<String, OrderStatusResponse> lookup) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            orderCodes.forEach(lookup::apply);
+        }
+
+        statistics.clear();
+        long startedAt = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (String code : orderCodes) {
+                assertEquals(code, lookup.apply(code).getOrderCode());
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        int lookups = MEASURED_ROUNDS * orderCodes.size();
+        Measurement measurement = new Measurement(
+                (double) statistics.getPrepareStatementCount() / lookups,
+                statistics.getEntityLoadCount());
+        log.info("[{}] {} lookups in {} ms ({} lookups/s, {} statements/lookup, {} entities loaded)",
+                path, lookups, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%.0f", lookups / (elapsedNanos / 1_000_000_000.0)),
+                String.format("%.1f", measurement.statementsPerLookup()), measurement.entitiesLoaded());
+        return measurement;
+    }
+
+    private record Measurement(double statementsPerLookup, long entitiesLoaded) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.entity.OrderItem;
+import com.awesomepizza.orderingservice.model.entity.Pizza;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import com.awesomepizza.orderingservice.repository.PizzaRepository;
+import com.awesomepizza.orderingservice.service.OrderViewRebuilder;
+import com.awesomepizza.orderingservice.service.PizzeriaService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orderviewdb",
+        "management.server.port=0",
+        // Small chunks so the rebuild has to page through the table
+        "pizzeria.order-view.rebuild-chunk-size=7"
+})
+@DisplayName("Order View Rebuild Integration Tests")
+class OrderViewRebuildIntegrationTest {
+
+    private static final int ORDER_COUNT = 30;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private final TestRestTemplate http = new TestRestTemplate();
+
+    @Autowired
+    private PizzeriaService pizzeriaService;
+
+    @Autowired
+    private OrderViewRebuilder orderViewRebuilder;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    private Pizza pizza;
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        pizza = pizzaRepository.save(Pizza.builder()
+                .name("Capricciosa")
+                .price(new BigDecimal("10.00"))
+                .available(true)
+                .build());
+        // Written straight to the normalized tables, so no view rows exist yet
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = Order.builder().status(OrderStatus.PENDING).build();
+            order.addItem(OrderItem.builder().pizza(pizza).quantity(i + 1).notes("note " + i).build());
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderViewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        pizzaRepository.delete(pizza);
+    }
+
+    @Test
+    @DisplayName("Should regenerate every order's view from the normalized tables")
+    void rebuild_WithMissingViews_ShouldServeEveryOrder() {
+        // Arrange
+        assertTrue(pizzeriaService.getOrderQueue().isEmpty());
+
+        // Act
+        OrderViewRebuilder.Result result = orderViewRebuilder.rebuild();
+
+        // Assert
+        assertEquals(ORDER_COUNT, result.rebuilt());
+        assertEquals(0, result.removed());
+        List<OrderResponse> queue = pizzeriaService.getOrderQueue();
+        assertEquals(ORDER_COUNT, queue.size());
+        OrderResponse first = queue.get(0);
+        assertEquals(orders.get(0).getOrderCode(), first.getOrderCode());
+        assertEquals(List.of(OrderResponse.OrderItemResponse.builder()
+                .pizzaName("Capricciosa").quantity(1).notes("note 0").build()), first.getItems());
+    }
+
+    @Test
+    @DisplayName("Should refresh renamed pizzas and drop views of deleted orders")
+    void rebuild_WithDriftedViews_ShouldMatchNormalizedTables() {
+        // Arrange
+        orderViewRebuilder.rebuild();
+        pizza.setName("Capricciosa Speciale");
+        pizzaRepository.save(pizza);
+        orderRepository.delete(orderRepository.findWithItemsById(orders.get(0).getId()).orElseThrow());
+
+        // Act
+        OrderViewRebuilder.Result result = orderViewRebuilder.rebuild();
+
+        // Assert
+        assertEquals(ORDER_COUNT - 1, result.rebuilt());
+        assertEquals(1, result.removed());
+        assertEquals(ORDER_COUNT - 1, orderViewRepository.count());
+        assertTrue(pizzeriaService.getOrderQueue().stream()
+                .allMatch(order -> order.getItems().get(0).getPizzaName().equals("Capricciosa Speciale")));
+    }
+
+    @Test
+    @DisplayName("POST /actuator/orderview - Should rebuild the view on demand")
+    void rebuildEndpoint_ShouldReportRebuiltOrders() {
+        // Act
+        ResponseEntity<JsonNode> rebuilt = http.postForEntity(actuator(managementPort), null, JsonNode.class);
+        ResponseEntity<JsonNode> counts = http.getForEntity(actuator(managementPort), JsonNode.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, rebuilt.getStatusCode());
+        assertEquals(ORDER_COUNT, rebuilt.getBody().get("rebuilt").asInt());
+        assertEquals(0, rebuilt.getBody().get("removed").asInt());
+        assertEquals(HttpStatus.OK, counts.getStatusCode());
+        assertEquals(ORDER_COUNT, counts.getBody().get("orders").asInt());
+        assertEquals(ORDER_COUNT, counts.getBody().get("views").asInt());
+    }
+
+    @Test
+    @DisplayName("POST /actuator/orderview - Should not be served on the API port")
+    void rebuildEndpoint_OnApiPort_ShouldNotBeFound() {
+        // Act
+        ResponseEntity<String> response = http.postForEntity(actuator(serverPort), null, String.class);
+
+        // Assert
+        assertFalse(response.getStatusCode().is2xxSuccessful());
+        assertEquals(0, orderViewRepository.count(), "The orders were seeded without views and must not be rebuilt");
+    }
+
+    private static String actuator(int port) {
+        return "http://localhost:" + port + "/actuator/orderview";
+    }
+}
@@ -0,0 +1,163 @@
+package com.awesomepizza.orderingservice.integration;
+
+import com.awesomepizza.orderingservice.config.StatementCountingInspector;
+import com.awesomepizza.orderingservice.model.entity.Order;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
+import com.awesomepizza.orderingservice.service.OrderViewRebuilder;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrationdb"
+})
+@DisplayName("Schema Migration Integration Tests")
+class SchemaMigrationIntegrationTest {
+
+    private static final int COMPLETED_COUNT = 300;
+    private static final int PENDING_COUNT = 10;
+    private static final List<OrderStatus> ACTIVE_STATUSES =
+            List.of(OrderStatus.PENDING, OrderStatus.IN_PREPARATION, OrderStatus.READY);
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderViewRebuilder orderViewRebuilder;
+
+    @Autowired
+    private StatementCountingInspector statementInspector;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Mostly history, as in production, so the planner has a reason to prefer the indexes
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < COMPLETED_COUNT + PENDING_COUNT; i++) {
+            orders.add(Order.builder()
+                    .status(i < COMPLETED_COUNT ? OrderStatus.COMPLETED : OrderStatus.PENDING)
+                    .build());
+        }
+        orderRepository.saveAll(orders);
+        orderViewRebuilder.rebuild();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderViewRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should build the schema from the migrations with nothing left pending")
+    void migrate_ShouldApplyEveryVersion() {
+        // Assert
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals("4", flyway.info().current().getVersion().getVersion());
+        assertEquals(COMPLETED_COUNT + PENDING_COUNT, orderRepository.count());
+    }
+
+    @Test
+    @DisplayName("Claim should range-scan the (status, created_at, id) index")
+    void claimQuery_ShouldUseStatusIndex() {
+        // Act
+        String sql = generatedSql(() -> orderRepository.findFirstByStatusOrderByCreatedAtAscIdAsc(OrderStatus.PENDING));
+        String plan = explain(sql);
+
+        // Assert
+        // H2 has no SKIP LOCKED, so Hibernate renders the claim's lock as a plain FOR UPDATE here
+        assertTrue(sql.contains(" for update"), "Expected the claim to lock its row but got:\n" + sql);
+        assertIndexRangeScan(plan, "IDX_ORDERS_STATUS_CREATED_AT_ID");
+    }
+
+    @Test
+    @DisplayName("Kitchen queue pages should range-scan the order_view status index")
+    void queuePageQueries_ShouldUseViewStatusIndex() {
+        // Act
+        String firstPage = generatedSql(() ->
+                orderViewRepository.findByStatusInOrderByCreatedAtAscOrderIdAsc(ACTIVE_STATUSES, Limit.of(51)));
+        String nextPage = generatedSql(() ->
+                orderViewRepository.findByStatusInAfter(ACTIVE_STATUSES, LocalDateTime.now(), 1L, Limit.of(51)));
+
+        // Assert
+        assertTrue(nextPage.contains(".order_id>?"), "Expected a keyset predicate but got:\n" + nextPage);
+        assertIndexRangeScan(explain(firstPage), "IDX_ORDER_VIEW_STATUS_CREATED_AT_ORDER_ID");
+        assertIndexRangeScan(explain(nextPage), "IDX_ORDER_VIEW_STATUS_CREATED_AT_ORDER_ID");
+    }
+
+    @Test
+    @DisplayName("Pending order ids should range-scan the orders status index")
+    void pendingIdsQuery_ShouldUseStatusIndex() {
+        // Act
+        String plan = explain(generatedSql(() -> orderRepository.findIdsByStatusOrderByCreatedAtAsc(OrderStatus.PENDING)));
+
+        // Assert
+        assertIndexRangeScan(plan, "IDX_ORDERS_STATUS_CREATED_AT_ID");
+    }
+
+    @Test
+    @DisplayName("Items of an order should be found through the order_id index")
+    void itemsByOrderQuery_ShouldUseForeignKeyIndex() {
+        // Act
+        String plan = explain(generatedSql(() -> orderRepository.findWithItemsByIdIn(List.of(1L, 2L, 3L))));
+
+        // Assert
+        assertFalse(plan.toUpperCase().contains("TABLESCAN"), "Expected index lookups but got:\n" + plan);
+    }
+
+    // The single statement Hibernate prepares for the query, with its parameters left as placeholders
+    private String generatedSql(Runnable query) {
+        statementInspector.startRecording();
+        List<String> statements;
+        try {
+            transactionTemplate.executeWithoutResult(status -> query.run());
+        } finally {
+            statements = statementInspector.stopRecording();
+        }
+        assertEquals(1, statements.size(), "Expected one statement but got " + statements);
+        return statements.get(0);
+    }
+
+    // H2 plans a statement without its parameter values, so the placeholders can stay
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    // H2 names the index and its condition in a comment after the table, or says tableScan when it uses none
+    private static void assertIndexRangeScan(String plan, String index) {
+        String normalized = plan.toUpperCase();
+        assertTrue(normalized.contains(index + ":"), "Expected a range scan of " + index + " but got:\n" + plan);
+        assertFalse(normalized.contains("TABLESCAN"), "Expected no table scan but got:\n" + plan);
+    }
+}
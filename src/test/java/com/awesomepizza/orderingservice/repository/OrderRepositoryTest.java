@@ -2,16 +2,17 @@ package com.awesomepizza.orderingservice.repository;
 
 import com.awesomepizza.orderingservice.model.entity.Order;
 import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,8 +21,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 @DisplayName("OrderRepository Integration Tests")
 @TestPropertySource(properties = {
-        "spring.datasource.url=jdbc:h2:mem:testdb",
-        "spring.jpa.hibernate.ddl-auto=create-drop"
+        "spring.datasource.url=jdbc:h2:mem:testdb"
 })
 class OrderRepositoryTest {
 
@@ -88,6 +88,18 @@ class OrderRepositoryTest {
         assertTrue(found.isEmpty());
     }
 
+    @Test
+    @DisplayName("Should project order status by order code")
+    void findStatusByOrderCode_ShouldReturnStatusView() {
+        // Act
+        Optional<OrderStatusView> found = orderRepository.findStatusByOrderCode(inPreparationOrder.getOrderCode());
+
+        // Assert
+        assertTrue(found.isPresent());
+        assertEquals(inPreparationOrder.getOrderCode(), found.get().orderCode());
+        assertEquals(OrderStatus.IN_PREPARATION, found.get().status());
+    }
+
     @Test
     @DisplayName("Should find orders by status ordered by creation time")
     void findByStatusOrderByCreatedAtAsc_ShouldReturnOrderedList() {
@@ -101,24 +113,6 @@ class OrderRepositoryTest {
         assertEquals(pendingOrder2.getId(), pendingOrders.get(1).getId());
     }
 
-    @Test
-    @DisplayName("Should find orders by multiple statuses")
-    void findByStatusInOrderByCreatedAtAsc_ShouldReturnFilteredOrders() {
-        // Act
-        List<OrderStatus> activeStatuses = Arrays.asList(
-                OrderStatus.PENDING,
-                OrderStatus.IN_PREPARATION
-        );
-        List<Order> activeOrders = orderRepository.findByStatusInOrderByCreatedAtAsc(activeStatuses);
-
-        // Assert
-        assertEquals(3, activeOrders.size());
-        // Should be ordered by creation time
-        assertEquals(inPreparationOrder.getId(), activeOrders.get(2).getId()); // oldest
-        assertEquals(pendingOrder1.getId(), activeOrders.get(0).getId());
-        assertEquals(pendingOrder2.getId(), activeOrders.get(1).getId()); // newest
-    }
-
     @Test
     @DisplayName("Should generate unique order code on persist")
     void save_ShouldGenerateUniqueOrderCode() {
@@ -135,4 +129,37 @@ class OrderRepositoryTest {
         assertEquals(8, savedOrder.getOrderCode().length());
         assertTrue(savedOrder.getOrderCode().matches("[A-Z0-9]+"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should bump the version on conditional transitions so stale copies cannot overwrite them")
+    void markOrderReady_ShouldRejectStaleEntityWrites() {
+        // Arrange
+        Long versionBefore = inPreparationOrder.getVersion();
+
+        // Act
+        int updated = orderRepository.markOrderReady(inPreparationOrder.getOrderCode(), LocalDateTime.now());
+
+        // Assert
+        assertEquals(1, updated);
+        Order current = orderRepository.findByOrderCode(inPreparationOrder.getOrderCode()).orElseThrow();
+        assertEquals(OrderStatus.READY, current.getStatus());
+        assertEquals(versionBefore + 1, current.getVersion());
+
+        // The copy loaded before the update still carries the old version
+        inPreparationOrder.setStatus(OrderStatus.COMPLETED);
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> orderRepository.saveAndFlush(inPreparationOrder));
+    }
+
+    @Test
+    @DisplayName("Should not transition orders that are not in the expected status")
+    void completeReadyOrder_WhenNotReady_ShouldUpdateNothing() {
+        // Act
+        int updated = orderRepository.completeReadyOrder(pendingOrder1.getOrderCode(), LocalDateTime.now());
+
+        // Assert
+        assertEquals(0, updated);
+        assertEquals(OrderStatus.PENDING,
+                orderRepository.findStatusByOrderCode(pendingOrder1.getOrderCode()).orElseThrow().status());
+    }
+}
@@ -0,0 +1,106 @@
+package com.awesomepizza.orderingservice.repository;
+
+import com.awesomepizza.orderingservice.model.entity.OrderView;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("OrderViewRepository Integration Tests")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orderviewtestdb"
+})
+class OrderViewRepositoryTest {
+
+    private static final List<OrderStatus> ACTIVE_STATUSES = Arrays.asList(
+            OrderStatus.PENDING,
+            OrderStatus.IN_PREPARATION
+    );
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @BeforeEach
+    void setUp() {
+        // Orders 2 and 3 share a creation time, so their order comes from the id alone
+        entityManager.persist(view(1L, OrderStatus.IN_PREPARATION, now.minusMinutes(40)));
+        entityManager.persist(view(2L, OrderStatus.PENDING, now.minusMinutes(30)));
+        entityManager.persist(view(3L, OrderStatus.PENDING, now.minusMinutes(30)));
+        entityManager.persist(view(4L, OrderStatus.COMPLETED, now.minusMinutes(60)));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should find orders by multiple statuses ordered by creation time")
+    void findByStatusInOrderByCreatedAtAscOrderIdAsc_ShouldReturnFilteredOrders() {
+        // Act
+        List<OrderView> activeOrders = orderViewRepository.findByStatusInOrderByCreatedAtAscOrderIdAsc(ACTIVE_STATUSES);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), activeOrders.stream().map(OrderView::getOrderId).toList());
+    }
+
+    @Test
+    @DisplayName("Should continue a page after the last row, breaking creation time ties by id")
+    void findByStatusInAfter_ShouldSeekPastLastRow() {
+        // Arrange
+        List<OrderView> firstPage =
+                orderViewRepository.findByStatusInOrderByCreatedAtAscOrderIdAsc(ACTIVE_STATUSES, Limit.of(2));
+        OrderView last = firstPage.get(firstPage.size() - 1);
+
+        // Act
+        List<OrderView> nextPage = orderViewRepository.findByStatusInAfter(
+                ACTIVE_STATUSES, last.getCreatedAt(), last.getOrderId(), Limit.of(2));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), firstPage.stream().map(OrderView::getOrderId).toList());
+        assertEquals(List.of(3L), nextPage.stream().map(OrderView::getOrderId).toList());
+    }
+
+    @Test
+    @DisplayName("Should page history newest first before the last row")
+    void findByStatusInBefore_ShouldSeekPastLastRowNewestFirst() {
+        // Arrange
+        List<OrderStatus> allStatuses = Arrays.asList(OrderStatus.values());
+        List<OrderView> firstPage =
+                orderViewRepository.findByStatusInOrderByCreatedAtDescOrderIdDesc(allStatuses, Limit.of(2));
+        OrderView last = firstPage.get(firstPage.size() - 1);
+
+        // Act
+        List<OrderView> nextPage = orderViewRepository.findByStatusInBefore(
+                allStatuses, last.getCreatedAt(), last.getOrderId(), Limit.of(2));
+
+        // Assert
+        assertEquals(List.of(3L, 2L), firstPage.stream().map(OrderView::getOrderId).toList());
+        assertEquals(List.of(1L, 4L), nextPage.stream().map(OrderView::getOrderId).toList());
+    }
+
+    private OrderView view(Long orderId, OrderStatus status, LocalDateTime createdAt) {
+        return OrderView.builder()
+                .orderId(orderId)
+                .orderCode("ORDER00" + orderId)
+                .status(status)
+                .items(Collections.emptyList())
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,317 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.exception.IdempotencyKeyReuseException;
+import com.awesomepizza.orderingservice.exception.InvalidIdempotencyKeyException;
+import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
+import com.awesomepizza.orderingservice.model.entity.IdempotencyKey;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotentOrderCreator Unit Tests")
+class IdempotentOrderCreatorTest {
+
+    private static final String KEY = "3f2b8c1e-6d4a-4c9e-9a57-0e1f2d3c4b5a";
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotentOrderCreator creator;
+    private CreateOrderRequest request;
+    private OrderResponse order;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        creator = new IdempotentOrderCreator(orderService, idempotencyKeyRepository,
+                TransactionOperations.withoutTransaction(), meterRegistry, 100, Duration.ofMinutes(10), clock::get);
+        request = CreateOrderRequest.builder()
+                .items(List.of(PizzaItemDto.builder().pizzaId(1L).quantity(2).build()))
+                .build();
+        order = OrderResponse.builder()
+                .id(7L)
+                .orderCode("ABC12345")
+                .status(OrderStatus.PENDING)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should create the order once and save its key in the same transaction")
+    void createOrder_WithNewKey_ShouldCreateAndStoreKey() {
+        // Arrange
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.empty());
+        when(orderService.createOrder(request)).thenReturn(order);
+
+        // Act
+        IdempotentOrderCreator.Outcome outcome = creator.createOrder(KEY, request);
+
+        // Assert
+        assertFalse(outcome.replayed());
+        assertEquals("ABC12345", outcome.order().getOrderCode());
+        ArgumentCaptor<IdempotencyKey> saved = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(saved.capture());
+        assertEquals(KEY, saved.getValue().getIdempotencyKey());
+        assertEquals(7L, saved.getValue().getOrderId());
+        assertSame(order, saved.getValue().getResponse());
+        assertEquals(32, saved.getValue().getRequestHash().length);
+    }
+
+    @Test
+    @DisplayName("Should replay a repeated key from memory without touching the database")
+    void createOrder_WithRepeatedKey_ShouldReplayFromMemory() {
+        // Arrange
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.empty());
+        when(orderService.createOrder(request)).thenReturn(order);
+        creator.createOrder(KEY, request);
+
+        // Act
+        IdempotentOrderCreator.Outcome outcome = creator.createOrder(KEY, copyOf(request));
+
+        // Assert
+        assertTrue(outcome.replayed());
+        assertSame(order, outcome.order());
+        verify(orderService, times(1)).createOrder(any());
+        verify(idempotencyKeyRepository, times(1)).findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any());
+        assertEquals(1.0, meterRegistry.counter(IdempotentOrderCreator.REPLAYS_METRIC, "source", "memory").count());
+    }
+
+    @Test
+    @DisplayName("Should replay a key stored before a restart with the response the order was created with")
+    void createOrder_WithKeyOnlyInDatabase_ShouldReplayStoredResponse() {
+        // Arrange
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.empty());
+        when(orderService.createOrder(request)).thenReturn(order);
+        creator.createOrder(KEY, request);
+        ArgumentCaptor<IdempotencyKey> saved = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(saved.capture());
+
+        IdempotentOrderCreator restarted = new IdempotentOrderCreator(orderService, idempotencyKeyRepository,
+                TransactionOperations.withoutTransaction(), meterRegistry, 100, Duration.ofMinutes(10), clock::get);
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.of(saved.getValue()));
+
+        // Act
+        IdempotentOrderCreator.Outcome outcome = restarted.createOrder(KEY, copyOf(request));
+
+        // Assert
+        assertTrue(outcome.replayed());
+        assertEquals("ABC12345", outcome.order().getOrderCode());
+        assertEquals(OrderStatus.PENDING, outcome.order().getStatus());
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    @Test
+    @DisplayName("Should replay the winner when another instance committed the same key first")
+    void createOrder_WhenKeyInsertConflicts_ShouldReplayCommittedOrder() {
+        // Arrange
+        OrderResponse winnerOrder = OrderResponse.builder().id(9L).orderCode("XYZ98765").build();
+        IdempotencyKey winner = IdempotencyKey.builder()
+                .idempotencyKey(KEY)
+                .requestHash(null)
+                .orderId(9L)
+                .response(winnerOrder)
+                .build();
+        when(orderService.createOrder(request)).thenReturn(order);
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            // The winner's row carries the same request hash as ours
+            winner.setRequestHash(invocation.<IdempotencyKey>getArgument(0).getRequestHash());
+            throw new DataIntegrityViolationException("duplicate key");
+        });
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+
+        // Act
+        IdempotentOrderCreator.Outcome outcome = creator.createOrder(KEY, request);
+
+        // Assert
+        assertTrue(outcome.replayed());
+        assertEquals("XYZ98765", outcome.order().getOrderCode());
+    }
+
+    @Test
+    @DisplayName("Should ignore a stored key older than the TTL and replace it with the new order")
+    void createOrder_WithExpiredKeyNotYetPurged_ShouldCreateNewOrder() {
+        // Arrange
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.empty());
+        when(orderService.createOrder(request)).thenReturn(order);
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        IdempotentOrderCreator.Outcome outcome = creator.createOrder(KEY, request);
+
+        // Assert
+        assertFalse(outcome.replayed());
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(idempotencyKeyRepository).findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), cutoff.capture());
+        assertFalse(cutoff.getValue().isBefore(before.minusMinutes(10)));
+        assertFalse(cutoff.getValue().isAfter(LocalDateTime.now().minusMinutes(10)));
+        InOrder inOrder = inOrder(idempotencyKeyRepository);
+        inOrder.verify(idempotencyKeyRepository).deleteExpired(KEY, cutoff.getValue());
+        inOrder.verify(idempotencyKeyRepository).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different order")
+    void createOrder_WithKeyReusedForDifferentRequest_ShouldThrowException() {
+        // Arrange
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.empty());
+        when(orderService.createOrder(request)).thenReturn(order);
+        creator.createOrder(KEY, request);
+        CreateOrderRequest different = CreateOrderRequest.builder()
+                .items(List.of(PizzaItemDto.builder().pizzaId(1L).quantity(3).build()))
+                .build();
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyReuseException.class, () -> creator.createOrder(KEY, different));
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    @Test
+    @DisplayName("Should store the hash of the request as JSON with sorted properties")
+    void createOrder_WithNewKey_ShouldHashCanonicalJson() throws Exception {
+        // Arrange
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.empty());
+        when(orderService.createOrder(request)).thenReturn(order);
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(
+                "{\"items\":[{\"notes\":null,\"pizzaId\":1,\"quantity\":2}]}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        creator.createOrder(KEY, request);
+
+        // Assert
+        ArgumentCaptor<IdempotencyKey> saved = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(saved.capture());
+        assertArrayEquals(expected, saved.getValue().getRequestHash());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database once a key has expired from memory")
+    void createOrder_AfterTtl_ShouldLookUpDatabaseAgain() {
+        // Arrange
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.empty());
+        when(orderService.createOrder(request)).thenReturn(order);
+        creator.createOrder(KEY, request);
+        ArgumentCaptor<IdempotencyKey> saved = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(saved.capture());
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.of(saved.getValue()));
+
+        // Act
+        clock.addAndGet(Duration.ofMinutes(10).toNanos());
+        IdempotentOrderCreator.Outcome outcome = creator.createOrder(KEY, request);
+
+        // Assert
+        assertTrue(outcome.replayed());
+        assertEquals(1.0, meterRegistry.counter(IdempotentOrderCreator.REPLAYS_METRIC, "source", "database").count());
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    @Test
+    @DisplayName("Should collapse concurrent requests with the same key onto one creation")
+    void createOrder_WithConcurrentDuplicates_ShouldCreateOnce() throws Exception {
+        // Arrange
+        int duplicates = 8;
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(eq(KEY), any()))
+                .thenReturn(Optional.empty());
+        when(orderService.createOrder(any())).thenAnswer(invocation -> {
+            creating.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return order;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates);
+
+        // Act
+        List<Future<IdempotentOrderCreator.Outcome>> outcomes = new ArrayList<>();
+        try {
+            outcomes.add(executor.submit(() -> creator.createOrder(KEY, request)));
+            assertTrue(creating.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < duplicates; i++) {
+                outcomes.add(executor.submit(() -> creator.createOrder(KEY, copyOf(request))));
+            }
+            // Lets the duplicates reach the in-flight creation before it completes
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            int created = 0;
+            for (Future<IdempotentOrderCreator.Outcome> outcome : outcomes) {
+                IdempotentOrderCreator.Outcome result = outcome.get(5, TimeUnit.SECONDS);
+                assertEquals("ABC12345", result.order().getOrderCode());
+                created += result.replayed() ? 0 : 1;
+            }
+            assertEquals(1, created);
+            verify(orderService, times(1)).createOrder(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject empty, overlong and non-ASCII keys")
+    void createOrder_WithMalformedKey_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidIdempotencyKeyException.class, () -> creator.createOrder("", request));
+        assertThrows(InvalidIdempotencyKeyException.class, () -> creator.createOrder("k".repeat(65), request));
+        assertThrows(InvalidIdempotencyKeyException.class, () -> creator.createOrder("chiaveè", request));
+        verifyNoInteractions(orderService, idempotencyKeyRepository);
+    }
+
+    private static CreateOrderRequest copyOf(CreateOrderRequest request) {
+        return CreateOrderRequest.builder()
+                .items(request.getItems().stream()
+                        .map(item -> PizzaItemDto.builder()
+                                .pizzaId(item.getPizzaId())
+                                .quantity(item.getQuantity())
+                                .notes(item.getNotes())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KitchenQueueStream Unit Tests")
+class KitchenQueueStreamTest {
+
+    @Mock
+    private PizzeriaService pizzeriaService;
+
+    private KitchenQueueStream kitchenQueueStream;
+
+    @BeforeEach
+    void setUp() {
+        kitchenQueueStream = new KitchenQueueStream(pizzeriaService, 60_000, 2);
+    }
+
+    @Test
+    @DisplayName("Should assign increasing sequence numbers to deltas")
+    void onOrderEvents_ShouldIncrementSequence() {
+        // Arrange
+        when(pizzeriaService.getOrder(1L)).thenReturn(OrderResponse.builder()
+                .id(1L)
+                .orderCode("ORDER001")
+                .status(OrderStatus.PENDING)
+                .build());
+
+        // Act
+        kitchenQueueStream.onOrderCreated(new OrderCreatedEvent(1L, "ORDER001"));
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.IN_PREPARATION));
+
+        // Assert
+        assertEquals(2, kitchenQueueStream.getSequence());
+    }
+
+    @Test
+    @DisplayName("Should resume from the replay buffer without reloading the queue")
+    void subscribe_WithBufferedSequence_ShouldNotLoadSnapshot() {
+        // Arrange
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.IN_PREPARATION));
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.READY));
+
+        // Act
+        kitchenQueueStream.subscribe(kitchenQueueStream.eventId(1));
+
+        // Assert
+        verify(pizzeriaService, never()).getOrderQueue();
+        assertEquals(1, kitchenQueueStream.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should reload the queue when missed deltas were evicted from the buffer")
+    void subscribe_WithEvictedSequence_ShouldLoadSnapshot() {
+        // Arrange
+        when(pizzeriaService.getOrderQueue()).thenReturn(Collections.emptyList());
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.IN_PREPARATION));
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.READY));
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.COMPLETED));
+
+        // Act
+        kitchenQueueStream.subscribe(kitchenQueueStream.eventId(0));
+
+        // Assert
+        verify(pizzeriaService).getOrderQueue();
+        assertEquals(1, kitchenQueueStream.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should not keep a subscriber when the snapshot cannot be loaded")
+    void subscribe_WhenSnapshotFails_ShouldNotRegisterSubscriber() {
+        // Arrange
+        when(pizzeriaService.getOrderQueue()).thenThrow(new IllegalStateException("database unavailable"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> kitchenQueueStream.subscribe(null));
+        assertEquals(0, kitchenQueueStream.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should keep publishing while a subscriber's send is stuck, and drop it once it falls behind the buffer")
+    void publish_WithStuckSubscriber_ShouldNotBlockAndShouldDropIt() {
+        // Arrange
+        List<Runnable> stuckSends = new ArrayList<>();
+        ExecutorService sendExecutor = mock(ExecutorService.class);
+        doAnswer(invocation -> stuckSends.add(invocation.getArgument(0))).when(sendExecutor).execute(any());
+        kitchenQueueStream = new KitchenQueueStream(pizzeriaService, 60_000, 2, sendExecutor);
+        when(pizzeriaService.getOrderQueue()).thenReturn(Collections.emptyList());
+        // The snapshot is buffered by the subscribing thread, so only the deltas go through the executor
+        kitchenQueueStream.subscribe(null);
+
+        // Act
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.IN_PREPARATION));
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.READY));
+        int subscribersWithFullBuffer = kitchenQueueStream.getSubscriberCount();
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.COMPLETED));
+
+        // Assert
+        assertEquals(1, stuckSends.size(), "Only one send task may own a subscriber's emitter");
+        assertEquals(1, subscribersWithFullBuffer);
+        assertEquals(0, kitchenQueueStream.getSubscriberCount());
+        assertEquals(3, kitchenQueueStream.getSequence());
+    }
+
+    @Test
+    @DisplayName("Should reload the queue for an event id from an earlier run")
+    void subscribe_WithEventIdFromAnotherRun_ShouldLoadSnapshot() {
+        // Arrange
+        when(pizzeriaService.getOrderQueue()).thenReturn(Collections.emptyList());
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.IN_PREPARATION));
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.READY));
+        String idFromEarlierRun = new KitchenQueueStream(pizzeriaService, 60_000, 2).eventId(1);
+
+        // Act
+        kitchenQueueStream.subscribe(idFromEarlierRun);
+
+        // Assert
+        verify(pizzeriaService).getOrderQueue();
+        assertEquals(1, kitchenQueueStream.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should drop deltas the snapshot already shows and send the first newer one")
+    void publish_WithDeltaCoveredBySnapshot_ShouldSkipIt() {
+        // Arrange
+        List<Runnable> sends = new ArrayList<>();
+        ExecutorService sendExecutor = mock(ExecutorService.class);
+        doAnswer(invocation -> sends.add(invocation.getArgument(0))).when(sendExecutor).execute(any());
+        kitchenQueueStream = new KitchenQueueStream(pizzeriaService, 60_000, 2, sendExecutor);
+        when(pizzeriaService.getOrderQueue()).thenReturn(List.of(OrderResponse.builder()
+                .id(1L)
+                .orderCode("ORDER001")
+                .status(OrderStatus.IN_PREPARATION)
+                .build()));
+        kitchenQueueStream.subscribe(null);
+
+        // Act
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.IN_PREPARATION));
+        int sendsAfterCoveredDelta = sends.size();
+        kitchenQueueStream.onOrderStatusChanged(statusChanged("ORDER001", OrderStatus.READY));
+
+        // Assert
+        assertEquals(0, sendsAfterCoveredDelta);
+        assertEquals(1, sends.size());
+    }
+
+    private OrderStatusChangedEvent statusChanged(String orderCode, OrderStatus newStatus) {
+        return new OrderStatusChangedEvent(orderCode, null, newStatus, LocalDateTime.now());
+    }
+}
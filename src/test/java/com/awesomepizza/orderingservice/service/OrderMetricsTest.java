@@ -0,0 +1,129 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.entity.OrderView;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusCount;
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderMetrics Unit Tests")
+class OrderMetricsTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderMetrics orderMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderMetrics = new OrderMetrics(orderRepository, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should seed status gauges once and then follow committed events")
+    void statusGauges_ShouldBeSeededThenMaintainedIncrementally() {
+        // Arrange
+        when(orderRepository.countByStatus()).thenReturn(List.of(
+                new OrderStatusCount(OrderStatus.PENDING, 3L),
+                new OrderStatusCount(OrderStatus.READY, 1L)));
+        orderMetrics.seedStatusCounts();
+
+        // Act
+        orderMetrics.onOrderCreated(new OrderCreatedEvent(10L, "ABC12345"));
+        orderMetrics.onOrderStatusChanged(new OrderStatusChangedEvent(
+                "ABC12345", OrderStatus.PENDING, OrderStatus.IN_PREPARATION, LocalDateTime.now()));
+
+        // Assert
+        assertEquals(3, gauge(OrderStatus.PENDING));
+        assertEquals(1, gauge(OrderStatus.IN_PREPARATION));
+        assertEquals(1, gauge(OrderStatus.READY));
+        assertEquals(0, gauge(OrderStatus.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("Should replace drifted status gauges with the database counts on refresh")
+    void refreshStatusCounts_ShouldResetGaugesFromDatabase() {
+        // Arrange
+        when(orderRepository.countByStatus())
+                .thenReturn(List.of(new OrderStatusCount(OrderStatus.PENDING, 3L)))
+                .thenReturn(List.of(
+                        new OrderStatusCount(OrderStatus.PENDING, 1L),
+                        new OrderStatusCount(OrderStatus.IN_PREPARATION, 4L)));
+        orderMetrics.seedStatusCounts();
+        // Another instance claimed orders this one never heard about
+        orderMetrics.onOrderCreated(new OrderCreatedEvent(10L, "ABC12345"));
+
+        // Act
+        orderMetrics.refreshStatusCounts();
+
+        // Assert
+        assertEquals(1, gauge(OrderStatus.PENDING));
+        assertEquals(4, gauge(OrderStatus.IN_PREPARATION));
+        assertEquals(0, gauge(OrderStatus.READY));
+    }
+
+    @Test
+    @DisplayName("Should time each lifecycle stage from the order's timestamps")
+    void recordStages_ShouldTimeEachStage() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(30);
+        OrderView order = OrderView.builder()
+                .createdAt(createdAt)
+                .startedAt(createdAt.plusMinutes(5))
+                .readyAt(createdAt.plusMinutes(17))
+                .completedAt(createdAt.plusMinutes(20))
+                .build();
+
+        // Act
+        orderMetrics.recordStarted(order);
+        orderMetrics.recordReady(order);
+        orderMetrics.recordCompleted(order);
+
+        // Assert
+        assertEquals(5, stage("created_to_started").totalTime(TimeUnit.MINUTES), 0.001);
+        assertEquals(12, stage("started_to_ready").totalTime(TimeUnit.MINUTES), 0.001);
+        assertEquals(3, stage("ready_to_completed").totalTime(TimeUnit.MINUTES), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should skip stages whose start timestamp is missing")
+    void recordCompleted_WithoutReadyTimestamp_ShouldNotRecord() {
+        // Arrange
+        OrderView order = OrderView.builder()
+                .completedAt(LocalDateTime.now())
+                .build();
+
+        // Act
+        orderMetrics.recordCompleted(order);
+
+        // Assert
+        assertEquals(0, stage("ready_to_completed").count());
+    }
+
+    private double gauge(OrderStatus status) {
+        return meterRegistry.get(OrderMetrics.STATUS_METRIC).tag("status", status.name()).gauge().value();
+    }
+
+    private Timer stage(String stage) {
+        return meterRegistry.get(OrderMetrics.STAGE_METRIC).tag("stage", stage).timer();
+    }
+}
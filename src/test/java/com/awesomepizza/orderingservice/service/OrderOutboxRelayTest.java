@@ -0,0 +1,223 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderEventSubscriber;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.entity.OutboxEvent;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.projection.OutboxHead;
+import com.awesomepizza.orderingservice.model.enums.OutboxEventType;
+import com.awesomepizza.orderingservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderOutboxRelay Unit Tests")
+class OrderOutboxRelayTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingSubscriber first;
+    private RecordingSubscriber second;
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        first = new RecordingSubscriber();
+        second = new RecordingSubscriber();
+        relay = new OrderOutboxRelay(outboxEventRepository, TransactionOperations.withoutTransaction(),
+                TransactionOperations.withoutTransaction(), List.of(first, second), meterRegistry, false, 10, 1000,
+                MAX_ATTEMPTS);
+    }
+
+    @Test
+    @DisplayName("Should deliver rows in order to every subscriber and then delete them")
+    void relayPending_ShouldDeliverInOrderAndDelete() {
+        // Arrange
+        when(outboxEventRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(
+                created(1L, "AAAA1111"),
+                statusChanged(2L, "AAAA1111", OrderStatus.PENDING, OrderStatus.IN_PREPARATION),
+                created(3L, "BBBB2222")));
+
+        // Act
+        int relayed = relay.relayPending();
+
+        // Assert
+        assertEquals(3, relayed);
+        List<String> expected = List.of("created AAAA1111", "IN_PREPARATION AAAA1111", "created BBBB2222");
+        assertEquals(expected, first.received);
+        assertEquals(expected, second.received);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(outboxEventRepository, never()).incrementAttempts(any());
+        assertEquals(3, meterRegistry.get(OrderOutboxRelay.LAG_METRIC).timer().count());
+    }
+
+    @Test
+    @DisplayName("Should deliver an order's events by version when another instance's ids sort them the other way")
+    void relayPending_WithIdsFromDifferentBlocks_ShouldDeliverByVersion() {
+        // Arrange: one instance created the order with an id from a later block than another's transitions
+        when(outboxEventRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(
+                statusChanged(3L, "AAAA1111", OrderStatus.PENDING, OrderStatus.IN_PREPARATION),
+                statusChanged(4L, "AAAA1111", OrderStatus.IN_PREPARATION, OrderStatus.READY),
+                created(51L, "AAAA1111")));
+
+        // Act
+        int relayed = relay.relayPending();
+
+        // Assert
+        assertEquals(3, relayed);
+        assertEquals(List.of("created AAAA1111", "IN_PREPARATION AAAA1111", "READY AAAA1111"), first.received);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(51L, 3L, 4L));
+    }
+
+    @Test
+    @DisplayName("Should hold back an order's later events behind a failed one while other orders carry on")
+    void relayPending_WhenSubscriberFails_ShouldKeepOrderOfThatOrder() {
+        // Arrange
+        first.failOn = "IN_PREPARATION AAAA1111";
+        when(outboxEventRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(
+                statusChanged(1L, "AAAA1111", OrderStatus.PENDING, OrderStatus.IN_PREPARATION),
+                statusChanged(2L, "AAAA1111", OrderStatus.IN_PREPARATION, OrderStatus.READY),
+                created(3L, "BBBB2222")));
+
+        // Act
+        int relayed = relay.relayPending();
+
+        // Assert
+        assertEquals(1, relayed);
+        assertEquals(List.of("created BBBB2222"), first.received);
+        // The other subscriber still saw the failed event, which is why delivery is at least once
+        assertEquals(List.of("IN_PREPARATION AAAA1111", "created BBBB2222"), second.received);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(outboxEventRepository).incrementAttempts(List.of(1L));
+        verify(outboxEventRepository, times(1)).findByOrderByIdAsc(any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("Should drop an event once it has failed max-attempts times")
+    void relayPending_AfterMaxAttempts_ShouldDropEvent() {
+        // Arrange
+        first.failOn = "READY AAAA1111";
+        OutboxEvent exhausted = statusChanged(1L, "AAAA1111", OrderStatus.IN_PREPARATION, OrderStatus.READY);
+        exhausted.setAttempts(MAX_ATTEMPTS - 1);
+        when(outboxEventRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(
+                exhausted,
+                statusChanged(2L, "AAAA1111", OrderStatus.READY, OrderStatus.COMPLETED)));
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        assertEquals(List.of("COMPLETED AAAA1111"), first.received);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository, never()).incrementAttempts(any());
+        assertEquals(1.0, meterRegistry.counter(OrderOutboxRelay.DROPPED_METRIC, "type", "STATUS_CHANGED").count());
+    }
+
+    @Test
+    @DisplayName("Should keep reading while batches come back full")
+    void relayPending_WithFullBatches_ShouldReadUntilEmpty() {
+        // Arrange
+        List<OutboxEvent> fullBatch = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            fullBatch.add(created(id, "CODE%04d".formatted(id)));
+        }
+        when(outboxEventRepository.findByOrderByIdAsc(any(Limit.class)))
+                .thenReturn(fullBatch)
+                .thenReturn(List.of(created(11L, "CODE0011")));
+
+        // Act
+        int relayed = relay.relayPending();
+
+        // Assert
+        assertEquals(11, relayed);
+        verify(outboxEventRepository, times(2)).findByOrderByIdAsc(any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("Should leave an order's events alone while an earlier one is outside the batch")
+    void relayPending_WithEarlierRowClaimedElsewhere_ShouldWaitForIt() {
+        // Arrange
+        when(outboxEventRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(
+                statusChanged(5L, "AAAA1111", OrderStatus.IN_PREPARATION, OrderStatus.READY),
+                created(6L, "BBBB2222")));
+        when(outboxEventRepository.findHeadsOutside(Set.of("AAAA1111", "BBBB2222"), List.of(5L, 6L)))
+                .thenReturn(List.of(new OutboxHead("AAAA1111", OrderStatus.IN_PREPARATION.orderVersion())));
+
+        // Act
+        int relayed = relay.relayPending();
+
+        // Assert
+        assertEquals(1, relayed);
+        assertEquals(List.of("created BBBB2222"), first.received);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(6L));
+        verify(outboxEventRepository, never()).incrementAttempts(any());
+    }
+
+    private static OutboxEvent created(Long id, String orderCode) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEventType.ORDER_CREATED)
+                .orderId(id)
+                .orderCode(orderCode)
+                .orderVersion(OrderStatus.PENDING.orderVersion())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static OutboxEvent statusChanged(Long id, String orderCode, OrderStatus previous, OrderStatus next) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEventType.STATUS_CHANGED)
+                .orderCode(orderCode)
+                .orderVersion(next.orderVersion())
+                .previousStatus(previous)
+                .newStatus(next)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static final class RecordingSubscriber implements OrderEventSubscriber {
+
+        private final List<String> received = new ArrayList<>();
+        private String failOn;
+
+        @Override
+        public void onOrderCreated(OrderCreatedEvent event) {
+            receive("created " + event.orderCode());
+        }
+
+        @Override
+        public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+            receive(event.newStatus() + " " + event.orderCode());
+        }
+
+        private void receive(String event) {
+            if (event.equals(failOn)) {
+                throw new IllegalStateException("Subscriber unavailable");
+            }
+            received.add(event);
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.awesomepizza.orderingservice.service;
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
 import com.awesomepizza.orderingservice.model.dto.CreateOrderRequest;
 import com.awesomepizza.orderingservice.model.dto.OrderResponse;
 import com.awesomepizza.orderingservice.model.dto.OrderStatusResponse;
 import com.awesomepizza.orderingservice.model.dto.PizzaItemDto;
 import com.awesomepizza.orderingservice.model.entity.Order;
 import com.awesomepizza.orderingservice.model.entity.OrderItem;
+import com.awesomepizza.orderingservice.model.entity.OrderView;
 import com.awesomepizza.orderingservice.model.entity.Pizza;
 import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusView;
+import com.awesomepizza.orderingservice.exception.InvalidOrderItemsException;
 import com.awesomepizza.orderingservice.exception.OrderNotFoundException;
+import com.awesomepizza.orderingservice.repository.ArchivedOrderRepository;
 import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
 import com.awesomepizza.orderingservice.repository.PizzaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,15 +24,19 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,9 +46,24 @@ class OrderServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderViewRepository orderViewRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
     @Mock
     private PizzaRepository pizzaRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderCodeGenerator orderCodeGenerator;
+
+    @Mock
+    private OrderStatusIndex orderStatusIndex;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -97,9 +122,9 @@ class OrderServiceImplTest {
     @DisplayName("Should create order successfully with multiple items")
     void createOrder_WithValidRequest_ShouldReturnOrderResponse() {
         // Arrange
-        when(pizzaRepository.findById(1L)).thenReturn(Optional.of(margherita));
-        when(pizzaRepository.findById(2L)).thenReturn(Optional.of(diavola));
-        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+        when(pizzaRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(margherita, diavola));
+        when(orderCodeGenerator.nextCode()).thenReturn("ABC12345");
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(savedOrder);
 
         // Act
         OrderResponse response = orderService.createOrder(validRequest);
@@ -111,31 +136,55 @@ class OrderServiceImplTest {
         assertEquals("In attesa", response.getStatusDescription());
 
         // Verify interactions
-        verify(pizzaRepository, times(1)).findById(1L);
-        verify(pizzaRepository, times(1)).findById(2L);
-        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(pizzaRepository, times(1)).findAllById(Set.of(1L, 2L));
+        verify(pizzaRepository, never()).findById(any());
+        verify(orderRepository, times(1)).saveAndFlush(any(Order.class));
+        verify(eventPublisher).publishEvent(new OrderCreatedEvent(1L, "ABC12345"));
 
         // Verify the order saved with correct details
         ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
-        verify(orderRepository).save(orderCaptor.capture());
+        verify(orderRepository).saveAndFlush(orderCaptor.capture());
         Order capturedOrder = orderCaptor.getValue();
         assertEquals(OrderStatus.PENDING, capturedOrder.getStatus());
+        assertEquals("ABC12345", capturedOrder.getOrderCode());
+
+        // Verify the read model is written with the order
+        ArgumentCaptor<OrderView> viewCaptor = ArgumentCaptor.forClass(OrderView.class);
+        verify(orderViewRepository).save(viewCaptor.capture());
+        assertEquals(1L, viewCaptor.getValue().getOrderId());
+        assertEquals("ABC12345", viewCaptor.getValue().getOrderCode());
+        assertEquals(OrderStatus.PENDING, viewCaptor.getValue().getStatus());
     }
 
     @Test
-    @DisplayName("Should throw exception when pizza not found")
-    void createOrder_WithInvalidPizzaId_ShouldThrowException() {
+    @DisplayName("Should report every missing and unavailable pizza in one error")
+    void createOrder_WithInvalidPizzaIds_ShouldReportAllItemErrors() {
         // Arrange
-        when(pizzaRepository.findById(1L)).thenReturn(Optional.empty());
+        diavola.setAvailable(false);
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .items(Arrays.asList(
+                        PizzaItemDto.builder().pizzaId(1L).quantity(1).build(),
+                        PizzaItemDto.builder().pizzaId(2L).quantity(1).build(),
+                        PizzaItemDto.builder().pizzaId(7L).quantity(1).build(),
+                        PizzaItemDto.builder().pizzaId(9L).quantity(1).build()
+                ))
+                .build();
+        when(pizzaRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(margherita, diavola));
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(
-                IllegalArgumentException.class,
-                () -> orderService.createOrder(validRequest)
+        InvalidOrderItemsException exception = assertThrows(
+                InvalidOrderItemsException.class,
+                () -> orderService.createOrder(request)
         );
 
-        assertEquals("Pizza not found: 1", exception.getMessage());
-        verify(orderRepository, never()).save(any(Order.class));
+        assertEquals(3, exception.getItemErrors().size());
+        assertEquals("Pizza not available: 2", exception.getItemErrors().get("items[1].pizzaId"));
+        assertEquals("Pizza not found: 7", exception.getItemErrors().get("items[2].pizzaId"));
+        assertEquals("Pizza not found: 9", exception.getItemErrors().get("items[3].pizzaId"));
+        verify(pizzaRepository, times(1)).findAllById(anyCollection());
+        verify(orderRepository, never()).saveAndFlush(any(Order.class));
+        verify(orderCodeGenerator, never()).nextCode();
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -151,8 +200,9 @@ class OrderServiceImplTest {
                 ))
                 .build();
 
-        when(pizzaRepository.findById(1L)).thenReturn(Optional.of(margherita));
-        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+        when(pizzaRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(margherita));
+        when(orderCodeGenerator.nextCode()).thenReturn("ABC12345");
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(savedOrder);
 
         // Act
         OrderResponse response = orderService.createOrder(singleItemRequest);
@@ -160,21 +210,16 @@ class OrderServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals("ABC12345", response.getOrderCode());
-        verify(pizzaRepository, times(1)).findById(1L);
-        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(pizzaRepository, times(1)).findAllById(Set.of(1L));
+        verify(orderRepository, times(1)).saveAndFlush(any(Order.class));
     }
 
     @Test
     @DisplayName("Should get order status successfully")
     void getOrderStatus_WithValidOrderCode_ShouldReturnStatus() {
         // Arrange
-        Order orderInPreparation = Order.builder()
-                .orderCode("ABC12345")
-                .status(OrderStatus.IN_PREPARATION)
-                .build();
-
-        when(orderRepository.findByOrderCode("ABC12345"))
-                .thenReturn(Optional.of(orderInPreparation));
+        when(orderRepository.findStatusByOrderCode("ABC12345"))
+                .thenReturn(Optional.of(new OrderStatusView("ABC12345", OrderStatus.IN_PREPARATION)));
 
         // Act
         OrderStatusResponse response = orderService.getOrderStatus("ABC12345");
@@ -185,13 +230,65 @@ class OrderServiceImplTest {
         assertEquals(OrderStatus.IN_PREPARATION, response.getStatus());
         assertEquals("In preparazione", response.getStatusDescription());
         assertEquals("Il pizzaiolo sta preparando il tuo ordine", response.getMessage());
+        verify(orderRepository, never()).findByOrderCode(any());
+    }
+
+    @Test
+    @DisplayName("Should cache the status read on a miss")
+    void getOrderStatus_OnCacheMiss_ShouldFillIndex() {
+        // Arrange
+        when(orderRepository.findStatusByOrderCode("ABC12345"))
+                .thenReturn(Optional.of(new OrderStatusView("ABC12345", OrderStatus.READY)));
+
+        // Act
+        orderService.getOrderStatus("ABC12345");
+
+        // Assert
+        verify(orderStatusIndex).put("ABC12345", OrderStatus.READY);
+    }
+
+    @Test
+    @DisplayName("Should bypass the index inside a transaction, whose own transitions it has not seen yet")
+    void getOrderStatus_InsideTransaction_ShouldNotUseIndex() {
+        // Arrange
+        when(orderRepository.findStatusByOrderCode("ABC12345"))
+                .thenReturn(Optional.of(new OrderStatusView("ABC12345", OrderStatus.PENDING)));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act
+        OrderStatusResponse response;
+        try {
+            response = orderService.getOrderStatus("ABC12345");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Assert
+        assertEquals(OrderStatus.PENDING, response.getStatus());
+        verifyNoInteractions(orderStatusIndex);
+    }
+
+    @Test
+    @DisplayName("Should serve a cached status without touching the repository")
+    void getOrderStatus_OnCacheHit_ShouldSkipRepository() {
+        // Arrange
+        when(orderStatusIndex.get("ABC12345")).thenReturn(OrderStatus.READY);
+
+        // Act
+        OrderStatusResponse response = orderService.getOrderStatus("ABC12345");
+
+        // Assert
+        assertEquals("ABC12345", response.getOrderCode());
+        assertEquals(OrderStatus.READY, response.getStatus());
+        assertEquals("Il tuo ordine è pronto!", response.getMessage());
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
     @DisplayName("Should throw exception when order not found")
     void getOrderStatus_WithInvalidOrderCode_ShouldThrowException() {
         // Arrange
-        when(orderRepository.findByOrderCode("INVALID"))
+        when(orderRepository.findStatusByOrderCode("INVALID"))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -201,6 +298,37 @@ class OrderServiceImplTest {
         );
 
         assertEquals("Order not found: INVALID", exception.getMessage());
+        verify(archivedOrderRepository).findStatusByOrderCode("INVALID");
+    }
+
+    @Test
+    @DisplayName("Should fall through to the archive when the hot table has no such code")
+    void getOrderStatus_WithArchivedOrder_ShouldReadArchive() {
+        // Arrange
+        when(orderRepository.findStatusByOrderCode("OLD12345")).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findStatusByOrderCode("OLD12345"))
+                .thenReturn(Optional.of(new OrderStatusView("OLD12345", OrderStatus.COMPLETED)));
+
+        // Act
+        OrderStatusResponse response = orderService.getOrderStatus("OLD12345");
+
+        // Assert
+        assertEquals(OrderStatus.COMPLETED, response.getStatus());
+        verify(orderStatusIndex).put("OLD12345", OrderStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Should not read the archive when the hot table has the code")
+    void getOrderStatus_WithHotOrder_ShouldSkipArchive() {
+        // Arrange
+        when(orderRepository.findStatusByOrderCode("ABC12345"))
+                .thenReturn(Optional.of(new OrderStatusView("ABC12345", OrderStatus.PENDING)));
+
+        // Act
+        orderService.getOrderStatus("ABC12345");
+
+        // Assert
+        verifyNoInteractions(archivedOrderRepository);
     }
 
     @Test
@@ -220,13 +348,8 @@ class OrderServiceImplTest {
     }
 
     private void testStatusMessage(OrderStatus status, String expectedMessage) {
-        Order order = Order.builder()
-                .orderCode("TEST123")
-                .status(status)
-                .build();
-
-        when(orderRepository.findByOrderCode("TEST123"))
-                .thenReturn(Optional.of(order));
+        when(orderRepository.findStatusByOrderCode("TEST123"))
+                .thenReturn(Optional.of(new OrderStatusView("TEST123", status)));
 
         OrderStatusResponse response = orderService.getOrderStatus("TEST123");
         assertEquals(expectedMessage, response.getMessage());
@@ -0,0 +1,119 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.exception.OrderNotFoundException;
+import com.awesomepizza.orderingservice.model.dto.OrderStatusResponse;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("OrderStatusBroadcaster Unit Tests")
+class OrderStatusBroadcasterTest {
+
+    private OrderStatusBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new OrderStatusBroadcaster(60_000);
+    }
+
+    @Test
+    @DisplayName("Should register a subscriber per stream")
+    void subscribe_WithKnownOrder_ShouldRegisterSubscriber() {
+        // Act
+        broadcaster.subscribe("ORDER001", () -> statusOf("ORDER001", OrderStatus.PENDING));
+        broadcaster.subscribe("ORDER001", () -> statusOf("ORDER001", OrderStatus.PENDING));
+
+        // Assert
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should not keep a subscriber when the order cannot be found")
+    void subscribe_WithUnknownOrder_ShouldNotRegisterSubscriber() {
+        // Act & Assert
+        assertThrows(OrderNotFoundException.class, () -> broadcaster.subscribe("INVALID", () -> {
+            throw new OrderNotFoundException("Order not found: INVALID");
+        }));
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should subscribe and release immediately for an already completed order")
+    void subscribe_WithCompletedOrder_ShouldReleaseSubscriber() {
+        // Act
+        broadcaster.subscribe("ORDER001", () -> statusOf("ORDER001", OrderStatus.COMPLETED));
+
+        // Assert
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should release subscribers once the order is completed")
+    void onOrderStatusChanged_WithCompletedStatus_ShouldReleaseSubscribers() {
+        // Arrange
+        broadcaster.subscribe("ORDER001", () -> statusOf("ORDER001", OrderStatus.READY));
+        broadcaster.subscribe("ORDER002", () -> statusOf("ORDER002", OrderStatus.PENDING));
+
+        // Act
+        broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(
+                "ORDER001", OrderStatus.READY, OrderStatus.COMPLETED, LocalDateTime.now()));
+
+        // Assert
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should ignore a status older than the one already pushed")
+    void onOrderStatusChanged_WithStaleStatus_ShouldKeepSubscriber() {
+        // Arrange
+        broadcaster.subscribe("ORDER001", () -> statusOf("ORDER001", OrderStatus.READY));
+
+        // Act
+        broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(
+                "ORDER001", OrderStatus.PENDING, OrderStatus.IN_PREPARATION, LocalDateTime.now()));
+
+        // Assert
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should hand heartbeats to the heartbeat executor instead of writing on the scheduler thread")
+    void sendHeartbeats_ShouldNotSendOnCallingThread() {
+        // Arrange
+        List<Runnable> heartbeats = new ArrayList<>();
+        ExecutorService heartbeatExecutor = mock(ExecutorService.class);
+        doAnswer(invocation -> heartbeats.add(invocation.getArgument(0))).when(heartbeatExecutor).execute(any());
+        broadcaster = new OrderStatusBroadcaster(60_000, heartbeatExecutor);
+        broadcaster.subscribe("ORDER001", () -> statusOf("ORDER001", OrderStatus.PENDING));
+        broadcaster.subscribe("ORDER002", () -> statusOf("ORDER002", OrderStatus.PENDING));
+
+        // Act
+        broadcaster.sendHeartbeats();
+        heartbeats.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(2, heartbeats.size());
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+
+    private OrderStatusResponse statusOf(String orderCode, OrderStatus status) {
+        return OrderStatusResponse.builder()
+                .orderCode(orderCode)
+                .status(status)
+                .statusDescription(status.getDescription())
+                .message(status.getCustomerMessage())
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.event.OrderCreatedEvent;
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderStatusIndex Unit Tests")
+class OrderStatusIndexTest {
+
+    @Test
+    @DisplayName("Should return the status written for a code and nothing for unknown codes")
+    void get_AfterPut_ShouldReturnStatus() {
+        // Arrange
+        OrderStatusIndex index = new OrderStatusIndex(16, 0);
+
+        // Act
+        index.put("ABC12345", OrderStatus.IN_PREPARATION);
+
+        // Assert
+        assertEquals(OrderStatus.IN_PREPARATION, index.get("ABC12345"));
+        assertNull(index.get("ABC12346"));
+    }
+
+    @Test
+    @DisplayName("Should never move a cached status backwards")
+    void put_WithOlderStatus_ShouldKeepNewerStatus() {
+        // Arrange
+        OrderStatusIndex index = new OrderStatusIndex(16, 0);
+        index.put("ABC12345", OrderStatus.READY);
+
+        // Act
+        index.put("ABC12345", OrderStatus.PENDING);
+
+        // Assert
+        assertEquals(OrderStatus.READY, index.get("ABC12345"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("Should bypass strings that are not canonical order codes")
+    void put_WithNonCanonicalCode_ShouldNotCache() {
+        // Arrange
+        OrderStatusIndex index = new OrderStatusIndex(16, 0);
+
+        // Act
+        index.put("abc12345", OrderStatus.PENDING);
+        index.put("ABC1234", OrderStatus.PENDING);
+        index.put("ABCI2345", OrderStatus.PENDING);
+
+        // Assert
+        assertEquals(0, index.size());
+        assertNull(index.get("abc12345"));
+        assertNull(index.get(null));
+    }
+
+    @Test
+    @DisplayName("Should evict completed orders first when full")
+    void put_WhenFull_ShouldEvictCompletedOrders() {
+        // Arrange
+        OrderStatusIndex index = new OrderStatusIndex(4, 0);
+        index.put("00000001", OrderStatus.PENDING);
+        index.put("00000002", OrderStatus.COMPLETED);
+        index.put("00000003", OrderStatus.READY);
+        index.put("00000004", OrderStatus.COMPLETED);
+
+        // Act
+        index.put("00000005", OrderStatus.PENDING);
+
+        // Assert
+        assertEquals(3, index.size());
+        assertEquals(OrderStatus.PENDING, index.get("00000001"));
+        assertEquals(OrderStatus.READY, index.get("00000003"));
+        assertEquals(OrderStatus.PENDING, index.get("00000005"));
+        assertNull(index.get("00000002"));
+        assertNull(index.get("00000004"));
+    }
+
+    @Test
+    @DisplayName("Should leave new codes to the database when full of active orders")
+    void put_WhenFullOfActiveOrders_ShouldSkipNewCode() {
+        // Arrange
+        OrderStatusIndex index = new OrderStatusIndex(2, 0);
+        index.put("00000001", OrderStatus.PENDING);
+        index.put("00000002", OrderStatus.IN_PREPARATION);
+
+        // Act
+        index.put("00000003", OrderStatus.PENDING);
+
+        // Assert
+        assertEquals(2, index.size());
+        assertNull(index.get("00000003"));
+        assertEquals(OrderStatus.PENDING, index.get("00000001"));
+    }
+
+    @Test
+    @DisplayName("Should be written through by creation and status change events")
+    void events_ShouldWriteThrough() {
+        // Arrange
+        OrderStatusIndex index = new OrderStatusIndex(16, 0);
+
+        // Act
+        index.onOrderCreated(new OrderCreatedEvent(1L, "ABC12345"));
+        OrderStatus afterCreate = index.get("ABC12345");
+        index.onOrderStatusChanged(new OrderStatusChangedEvent(
+                "ABC12345", OrderStatus.PENDING, OrderStatus.IN_PREPARATION, LocalDateTime.now()));
+
+        // Assert
+        assertEquals(OrderStatus.PENDING, afterCreate);
+        assertEquals(OrderStatus.IN_PREPARATION, index.get("ABC12345"));
+    }
+
+    @Test
+    @DisplayName("Should treat entries older than the max age as misses until confirmed again")
+    void get_AfterMaxAge_ShouldMissUntilRefreshed() {
+        // Arrange
+        AtomicInteger seconds = new AtomicInteger();
+        OrderStatusIndex index = new OrderStatusIndex(16, 5, seconds::get);
+        index.put("ABC12345", OrderStatus.PENDING);
+
+        // Act
+        seconds.set(4);
+        OrderStatus beforeExpiry = index.get("ABC12345");
+        seconds.set(5);
+        OrderStatus afterExpiry = index.get("ABC12345");
+        index.put("ABC12345", OrderStatus.PENDING);
+
+        // Assert
+        assertEquals(OrderStatus.PENDING, beforeExpiry);
+        assertNull(afterExpiry);
+        assertEquals(OrderStatus.PENDING, index.get("ABC12345"));
+    }
+
+    @Test
+    @DisplayName("Should keep every entry readable under concurrent writers")
+    void put_Concurrently_ShouldKeepAllEntries() throws Exception {
+        // Arrange
+        int threads = 4;
+        int codesPerThread = 5_000;
+        OrderStatusIndex index = new OrderStatusIndex(threads * codesPerThread, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < codesPerThread; i++) {
+                    String code = ScrambledCounterOrderCodeGenerator.encode((long) thread * codesPerThread + i);
+                    index.put(code, OrderStatus.PENDING);
+                    assertEquals(OrderStatus.PENDING, index.get(code));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(threads * codesPerThread, index.size());
+    }
+}
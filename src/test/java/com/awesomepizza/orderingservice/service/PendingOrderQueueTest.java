@@ -0,0 +1,91 @@
+package com.awesomepizza.orderingservice.service;
+
+import com.awesomepizza.orderingservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("PendingOrderQueue Unit Tests")
+class PendingOrderQueueTest {
+
+    private PendingOrderQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new PendingOrderQueue(mock(OrderRepository.class));
+        queue.offer(1L);
+        queue.offer(2L);
+        queue.offer(3L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should put a polled id back at the head when its claim rolls back")
+    void poll_WhenTransactionRollsBack_ShouldRequeueAtHead() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(Optional.of(1L), queue.poll());
+
+        // Act
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals(3, queue.size());
+        assertEquals(Optional.of(1L), queue.poll());
+        assertEquals(Optional.of(2L), queue.poll());
+    }
+
+    @Test
+    @DisplayName("Should drop a polled id once its claim commits")
+    void poll_WhenTransactionCommits_ShouldNotRequeue() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        queue.poll();
+
+        // Act
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals(2, queue.size());
+        assertEquals(Optional.of(2L), queue.poll());
+    }
+
+    @Test
+    @DisplayName("Should not bring back a stale id when the transaction that polled it rolls back")
+    void discard_WhenTransactionRollsBack_ShouldNotRequeue() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        queue.poll();
+        assertEquals(Optional.of(2L), queue.poll());
+        queue.discard(1L);
+
+        // Act
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals(2, queue.size());
+        assertEquals(Optional.of(2L), queue.poll());
+        assertEquals(Optional.of(3L), queue.poll());
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
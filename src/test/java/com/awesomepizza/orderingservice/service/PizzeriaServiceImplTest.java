@@ -1,21 +1,32 @@
 package com.awesomepizza.orderingservice.service;
 
+import com.awesomepizza.orderingservice.event.OrderStatusChangedEvent;
+import com.awesomepizza.orderingservice.model.dto.OrderPage;
 import com.awesomepizza.orderingservice.model.dto.OrderResponse;
+import com.awesomepizza.orderingservice.model.entity.ArchivedOrder;
 import com.awesomepizza.orderingservice.model.entity.Order;
 import com.awesomepizza.orderingservice.model.entity.OrderItem;
+import com.awesomepizza.orderingservice.model.entity.OrderView;
 import com.awesomepizza.orderingservice.model.entity.Pizza;
 import com.awesomepizza.orderingservice.model.enums.OrderStatus;
+import com.awesomepizza.orderingservice.model.projection.OrderStatusView;
 import com.awesomepizza.orderingservice.exception.InvalidOrderStateException;
+import com.awesomepizza.orderingservice.exception.InvalidPageRequestException;
 import com.awesomepizza.orderingservice.exception.OrderNotFoundException;
+import com.awesomepizza.orderingservice.repository.ArchivedOrderRepository;
 import com.awesomepizza.orderingservice.repository.OrderRepository;
+import com.awesomepizza.orderingservice.repository.OrderViewRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,6 +34,8 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,9 +45,27 @@ class PizzeriaServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderViewRepository orderViewRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private PendingOrderQueue pendingOrderQueue;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderMetrics orderMetrics;
+
     @InjectMocks
     private PizzeriaServiceImpl pizzeriaService;
 
+    @Captor
+    private ArgumentCaptor<List<OrderStatus>> statusCaptor;
+
     private Order pendingOrder;
     private Order inPreparationOrder;
     private Order readyOrder;
@@ -84,8 +115,9 @@ class PizzeriaServiceImplTest {
     @DisplayName("Should get order queue with all active orders")
     void getOrderQueue_ShouldReturnAllActiveOrders() {
         // Arrange
-        List<Order> activeOrders = Arrays.asList(pendingOrder, inPreparationOrder, readyOrder);
-        when(orderRepository.findByStatusInOrderByCreatedAtAsc(any(List.class)))
+        List<OrderView> activeOrders = Arrays.asList(
+                OrderView.from(pendingOrder), OrderView.from(inPreparationOrder), OrderView.from(readyOrder));
+        when(orderViewRepository.findByStatusInOrderByCreatedAtAscOrderIdAsc(anyList()))
                 .thenReturn(activeOrders);
 
         // Act
@@ -99,8 +131,7 @@ class PizzeriaServiceImplTest {
         assertEquals("ORDER003", queue.get(2).getOrderCode());
 
         // Verify correct statuses were queried
-        ArgumentCaptor<List<OrderStatus>> statusCaptor = ArgumentCaptor.forClass(List.class);
-        verify(orderRepository).findByStatusInOrderByCreatedAtAsc(statusCaptor.capture());
+        verify(orderViewRepository).findByStatusInOrderByCreatedAtAscOrderIdAsc(statusCaptor.capture());
         List<OrderStatus> queriedStatuses = statusCaptor.getValue();
         assertTrue(queriedStatuses.contains(OrderStatus.PENDING));
         assertTrue(queriedStatuses.contains(OrderStatus.IN_PREPARATION));
@@ -112,10 +143,10 @@ class PizzeriaServiceImplTest {
     @DisplayName("Should take next pending order successfully")
     void takeNextOrder_WithPendingOrders_ShouldReturnFirstOrder() {
         // Arrange
-        List<Order> pendingOrders = Arrays.asList(pendingOrder);
-        when(orderRepository.findByStatusOrderByCreatedAtAsc(OrderStatus.PENDING))
-                .thenReturn(pendingOrders);
+        when(orderRepository.findFirstByStatusOrderByCreatedAtAscIdAsc(OrderStatus.PENDING))
+                .thenReturn(Optional.of(pendingOrder));
         when(orderRepository.save(any(Order.class))).thenReturn(pendingOrder);
+        when(orderViewRepository.findById(1L)).thenReturn(Optional.of(OrderView.from(pendingOrder)));
 
         // Act
         OrderResponse response = pizzeriaService.takeNextOrder();
@@ -123,6 +154,7 @@ class PizzeriaServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals("ORDER001", response.getOrderCode());
+        verify(orderViewRepository).markInPreparation(eq(1L), eq(pendingOrder.getStartedAt()));
 
         // Verify order status was updated
         ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
@@ -132,12 +164,56 @@ class PizzeriaServiceImplTest {
         assertNotNull(capturedOrder.getStartedAt());
     }
 
+    @Test
+    @DisplayName("Should take next order from dispatch queue without scanning pending orders")
+    void takeNextOrder_WithQueuedOrder_ShouldClaimById() {
+        // Arrange
+        pendingOrder.setStatus(OrderStatus.IN_PREPARATION);
+        when(pendingOrderQueue.poll()).thenReturn(Optional.of(1L));
+        when(orderRepository.claimPendingOrder(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(orderViewRepository.findById(1L)).thenReturn(Optional.of(OrderView.from(pendingOrder)));
+
+        // Act
+        OrderResponse response = pizzeriaService.takeNextOrder();
+
+        // Assert
+        assertEquals("ORDER001", response.getOrderCode());
+        assertEquals(OrderStatus.IN_PREPARATION, response.getStatus());
+        verify(orderViewRepository).markInPreparation(eq(1L), any(LocalDateTime.class));
+        verify(orderRepository, never()).findWithItemsById(any());
+        verify(orderRepository, never()).findFirstByStatusOrderByCreatedAtAscIdAsc(any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should skip stale queue entries and fall back to the database")
+    void takeNextOrder_WithStaleQueueEntry_ShouldFallBackToDatabase() {
+        // Arrange
+        when(pendingOrderQueue.poll()).thenReturn(Optional.of(99L)).thenReturn(Optional.empty());
+        when(orderRepository.claimPendingOrder(eq(99L), any(LocalDateTime.class))).thenReturn(0);
+        when(orderRepository.findStatusById(99L)).thenReturn(Optional.of(OrderStatus.IN_PREPARATION));
+        when(orderRepository.findFirstByStatusOrderByCreatedAtAscIdAsc(OrderStatus.PENDING))
+                .thenReturn(Optional.of(pendingOrder));
+        when(orderRepository.save(any(Order.class))).thenReturn(pendingOrder);
+        when(orderViewRepository.findById(1L)).thenReturn(Optional.of(OrderView.from(pendingOrder)));
+
+        // Act
+        OrderResponse response = pizzeriaService.takeNextOrder();
+
+        // Assert
+        assertEquals("ORDER001", response.getOrderCode());
+        assertEquals(OrderStatus.IN_PREPARATION, pendingOrder.getStatus());
+        verify(orderViewRepository, never()).markInPreparation(eq(99L), any());
+        verify(pendingOrderQueue).discard(99L);
+        verify(orderMetrics).recordConflict(OrderStatus.IN_PREPARATION, OrderStatus.IN_PREPARATION);
+    }
+
     @Test
     @DisplayName("Should throw exception when no pending orders")
     void takeNextOrder_WithNoPendingOrders_ShouldThrowException() {
         // Arrange
-        when(orderRepository.findByStatusOrderByCreatedAtAsc(OrderStatus.PENDING))
-                .thenReturn(Collections.emptyList());
+        when(orderRepository.findFirstByStatusOrderByCreatedAtAscIdAsc(OrderStatus.PENDING))
+                .thenReturn(Optional.empty());
 
         // Act & Assert
         OrderNotFoundException exception = assertThrows(
@@ -150,12 +226,13 @@ class PizzeriaServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should mark order as ready successfully")
+    @DisplayName("Should mark order as ready with a single conditional update")
     void markOrderAsReady_WithValidTransition_ShouldUpdateStatus() {
         // Arrange
-        when(orderRepository.findByOrderCode("ORDER002"))
-                .thenReturn(Optional.of(inPreparationOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(inPreparationOrder);
+        inPreparationOrder.setStatus(OrderStatus.READY);
+        when(orderRepository.markOrderReady(eq("ORDER002"), any(LocalDateTime.class))).thenReturn(1);
+        when(orderViewRepository.findByOrderCode("ORDER002"))
+                .thenReturn(Optional.of(OrderView.from(inPreparationOrder)));
 
         // Act
         OrderResponse response = pizzeriaService.markOrderAsReady("ORDER002");
@@ -163,19 +240,24 @@ class PizzeriaServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals("ORDER002", response.getOrderCode());
+        assertEquals(OrderStatus.READY, response.getStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, never()).findStatusByOrderCode(any());
+        verify(orderRepository, never()).findByOrderCode(any());
 
-        // Verify status transition
-        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
-        verify(orderRepository).save(orderCaptor.capture());
-        assertEquals(OrderStatus.READY, orderCaptor.getValue().getStatus());
+        // The view gets the same timestamp as the order row
+        ArgumentCaptor<LocalDateTime> readyAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(orderRepository).markOrderReady(eq("ORDER002"), readyAt.capture());
+        verify(orderViewRepository).markReady("ORDER002", readyAt.getValue());
     }
 
     @Test
     @DisplayName("Should throw exception for invalid status transition")
     void markOrderAsReady_WithInvalidTransition_ShouldThrowException() {
         // Arrange - trying to mark PENDING order as READY (invalid transition)
-        when(orderRepository.findByOrderCode("ORDER001"))
-                .thenReturn(Optional.of(pendingOrder));
+        when(orderRepository.markOrderReady(eq("ORDER001"), any(LocalDateTime.class))).thenReturn(0);
+        when(orderRepository.findStatusByOrderCode("ORDER001"))
+                .thenReturn(Optional.of(new OrderStatusView("ORDER001", OrderStatus.PENDING)));
 
         // Act & Assert
         InvalidOrderStateException exception = assertThrows(
@@ -184,16 +266,19 @@ class PizzeriaServiceImplTest {
         );
 
         assertEquals("Cannot transition from PENDING to READY", exception.getMessage());
-        verify(orderRepository, never()).save(any(Order.class));
+        verifyNoInteractions(orderViewRepository, eventPublisher);
+        verify(orderMetrics).recordConflict(OrderStatus.READY, OrderStatus.PENDING);
     }
 
     @Test
     @DisplayName("Should complete order successfully")
     void completeOrder_WithValidTransition_ShouldUpdateStatus() {
         // Arrange
-        when(orderRepository.findByOrderCode("ORDER003"))
-                .thenReturn(Optional.of(readyOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(readyOrder);
+        readyOrder.setStatus(OrderStatus.COMPLETED);
+        readyOrder.setCompletedAt(LocalDateTime.now());
+        when(orderRepository.completeReadyOrder(eq("ORDER003"), any(LocalDateTime.class))).thenReturn(1);
+        when(orderViewRepository.findByOrderCode("ORDER003"))
+                .thenReturn(Optional.of(OrderView.from(readyOrder)));
 
         // Act
         OrderResponse response = pizzeriaService.completeOrder("ORDER003");
@@ -201,20 +286,23 @@ class PizzeriaServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals("ORDER003", response.getOrderCode());
-
-        // Verify completion
-        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
-        verify(orderRepository).save(orderCaptor.capture());
-        Order capturedOrder = orderCaptor.getValue();
-        assertEquals(OrderStatus.COMPLETED, capturedOrder.getStatus());
-        assertNotNull(capturedOrder.getCompletedAt());
+        assertEquals(OrderStatus.COMPLETED, response.getStatus());
+        assertNotNull(response.getCompletedAt());
+
+        // Verify status change is published
+        ArgumentCaptor<OrderStatusChangedEvent> eventCaptor = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals("ORDER003", eventCaptor.getValue().orderCode());
+        assertEquals(OrderStatus.READY, eventCaptor.getValue().previousStatus());
+        assertEquals(OrderStatus.COMPLETED, eventCaptor.getValue().newStatus());
     }
 
     @Test
     @DisplayName("Should throw exception when order not found")
     void completeOrder_WithInvalidOrderCode_ShouldThrowException() {
         // Arrange
-        when(orderRepository.findByOrderCode("INVALID"))
+        when(orderRepository.completeReadyOrder(eq("INVALID"), any(LocalDateTime.class))).thenReturn(0);
+        when(orderRepository.findStatusByOrderCode("INVALID"))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -224,6 +312,125 @@ class PizzeriaServiceImplTest {
         );
 
         assertEquals("Order not found: INVALID", exception.getMessage());
+        verify(orderMetrics, never()).recordConflict(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should report an archived order as completed rather than missing")
+    void completeOrder_WithArchivedOrder_ShouldThrowInvalidState() {
+        // Arrange
+        when(orderRepository.completeReadyOrder(eq("ARCHIVED"), any(LocalDateTime.class))).thenReturn(0);
+        when(orderRepository.findStatusByOrderCode("ARCHIVED")).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findStatusByOrderCode("ARCHIVED"))
+                .thenReturn(Optional.of(new OrderStatusView("ARCHIVED", OrderStatus.COMPLETED)));
+
+        // Act & Assert
+        InvalidOrderStateException exception = assertThrows(
+                InvalidOrderStateException.class,
+                () -> pizzeriaService.completeOrder("ARCHIVED")
+        );
+
+        assertEquals("Cannot transition from COMPLETED to COMPLETED", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should answer an archived order by id from the archive")
+    void getOrder_WithArchivedOrder_ShouldReadArchive() {
+        // Arrange
+        readyOrder.setStatus(OrderStatus.COMPLETED);
+        readyOrder.setCompletedAt(LocalDateTime.now().minusDays(1));
+        when(orderViewRepository.findById(3L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findById(3L)).thenReturn(Optional.of(
+                ArchivedOrder.from(OrderView.from(readyOrder), LocalDateTime.now())));
+
+        // Act
+        OrderResponse response = pizzeriaService.getOrder(3L);
+
+        // Assert
+        assertEquals("ORDER003", response.getOrderCode());
+        assertEquals(OrderStatus.COMPLETED, response.getStatus());
+        assertEquals("Margherita", response.getItems().get(0).getPizzaName());
+    }
+
+    @Test
+    @DisplayName("Should transition without loading the order when no response is needed")
+    void transitionOrder_WithValidTransition_ShouldNotLoadOrder() {
+        // Arrange
+        when(orderRepository.markOrderReady(eq("ORDER002"), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act
+        pizzeriaService.transitionOrder("ORDER002", OrderStatus.READY);
+
+        // Assert
+        verify(orderViewRepository).markReady(eq("ORDER002"), any(LocalDateTime.class));
+        verify(orderViewRepository, never()).findByOrderCode(any());
+        ArgumentCaptor<OrderStatusChangedEvent> eventCaptor = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(OrderStatus.IN_PREPARATION, eventCaptor.getValue().previousStatus());
+        assertEquals(OrderStatus.READY, eventCaptor.getValue().newStatus());
+    }
+
+    @Test
+    @DisplayName("Should return a queue page with a cursor when more orders follow")
+    void getOrderQueuePage_WithMoreOrders_ShouldReturnNextCursor() {
+        // Arrange
+        when(orderViewRepository.findByStatusInOrderByCreatedAtAscOrderIdAsc(anyList(), eq(Limit.of(3))))
+                .thenReturn(Arrays.asList(
+                        OrderView.from(readyOrder), OrderView.from(inPreparationOrder), OrderView.from(pendingOrder)));
+
+        // Act
+        OrderPage page = pizzeriaService.getOrderQueue(null, null, 2);
+
+        // Assert
+        assertEquals(2, page.getOrders().size());
+        assertEquals("ORDER003", page.getOrders().get(0).getOrderCode());
+        assertEquals("ORDER002", page.getOrders().get(1).getOrderCode());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should seek past the cursor position for the next queue page")
+    void getOrderQueuePage_WithCursor_ShouldSeekAfterLastOrder() {
+        // Arrange
+        String cursor = OrderCursor.of(OrderView.from(inPreparationOrder)).encode();
+        when(orderViewRepository.findByStatusInAfter(
+                List.of(OrderStatus.PENDING), inPreparationOrder.getCreatedAt(), 2L, Limit.of(3)))
+                .thenReturn(List.of(OrderView.from(pendingOrder)));
+
+        // Act
+        OrderPage page = pizzeriaService.getOrderQueue(List.of(OrderStatus.PENDING), cursor, 2);
+
+        // Assert
+        assertEquals(1, page.getOrders().size());
+        assertEquals("ORDER001", page.getOrders().get(0).getOrderCode());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject completed status in the queue filter")
+    void getOrderQueuePage_WithCompletedStatus_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidPageRequestException.class,
+                () -> pizzeriaService.getOrderQueue(List.of(OrderStatus.COMPLETED), null, 10));
+        verifyNoInteractions(orderRepository, orderViewRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject page sizes outside the allowed range")
+    void getOrderHistory_WithInvalidLimit_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidPageRequestException.class,
+                () -> pizzeriaService.getOrderHistory(null, null, 0));
+        assertThrows(InvalidPageRequestException.class,
+                () -> pizzeriaService.getOrderHistory(null, null, PizzeriaServiceImpl.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void getOrderHistory_WithMalformedCursor_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidPageRequestException.class,
+                () -> pizzeriaService.getOrderHistory(null, "not-a-cursor", 10));
     }
 
     @Test
@@ -253,8 +460,8 @@ class PizzeriaServiceImplTest {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        when(orderRepository.findByStatusInOrderByCreatedAtAsc(any(List.class)))
-                .thenReturn(Arrays.asList(orderWithMultipleItems));
+        when(orderViewRepository.findByStatusInOrderByCreatedAtAscOrderIdAsc(anyList()))
+                .thenReturn(Arrays.asList(OrderView.from(orderWithMultipleItems)));
 
         // Act
         List<OrderResponse> queue = pizzeriaService.getOrderQueue();
@@ -0,0 +1,309 @@
+package com.awesomepizza.orderingservice.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScrambledCounterOrderCodeGenerator Unit Tests")
+class ScrambledCounterOrderCodeGeneratorTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final String SECRET = "test-secret-0123456789";
+
+    @Test
+    @DisplayName("Should never repeat a code across millions of codes from several nodes")
+    void nextCode_AcrossNodes_ShouldNeverRepeat() {
+        // Arrange
+        int nodes = 4;
+        int codesPerNode = 1_000_000;
+        InMemoryAllocator allocator = new InMemoryAllocator();
+        long[] values = new long[nodes * codesPerNode];
+
+        // Act
+        int index = 0;
+        for (int node = 0; node < nodes; node++) {
+            ScrambledCounterOrderCodeGenerator generator =
+                    new ScrambledCounterOrderCodeGenerator(allocator, node, 10_000, SECRET);
+            for (int i = 0; i < codesPerNode; i++) {
+                values[index++] = decode(generator.nextCode());
+            }
+        }
+
+        // Assert
+        Arrays.sort(values);
+        for (int i = 1; i < values.length; i++) {
+            assertNotEquals(values[i - 1], values[i], "Duplicate order code generated");
+        }
+    }
+
+    @Test
+    @DisplayName("Should be a bijection over a full 20-bit slice of the counter space")
+    void scramble_OverCounterRange_ShouldBeInjective() {
+        // Arrange
+        ScrambledCounterOrderCodeGenerator generator =
+                new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 0, 1000, SECRET);
+        int count = 1 << 20;
+        long[] scrambled = new long[count];
+
+        // Act
+        for (int i = 0; i < count; i++) {
+            scrambled[i] = generator.scramble(((long) 63 << ScrambledCounterOrderCodeGenerator.COUNTER_BITS) | i);
+        }
+
+        // Assert
+        Arrays.sort(scrambled);
+        for (int i = 1; i < count; i++) {
+            assertNotEquals(scrambled[i - 1], scrambled[i]);
+        }
+        assertTrue(scrambled[count - 1] < (1L << 40));
+    }
+
+    @Test
+    @DisplayName("Should hand out unique codes to concurrent callers")
+    void nextCode_FromConcurrentThreads_ShouldNeverRepeat() throws Exception {
+        // Arrange
+        ScrambledCounterOrderCodeGenerator generator =
+                new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 1, 100, SECRET);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 25_000; i++) {
+                        codes.add(generator.nextCode());
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(200_000, codes.size());
+    }
+
+    @Test
+    @DisplayName("Should not pin virtual threads while a slow block reservation is in flight")
+    void nextCode_FromVirtualThreadsWithSlowAllocator_ShouldNotPinCarriers() throws Exception {
+        // Arrange
+        OrderCodeBlockAllocator slowAllocator = new OrderCodeBlockAllocator() {
+            private final AtomicLong nextBlock = new AtomicLong();
+
+            @Override
+            public long reserveBlock(int nodeId) {
+                try {
+                    // Stands in for the JDBC round trip of the real allocator
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return nextBlock.getAndIncrement();
+            }
+        };
+        ScrambledCounterOrderCodeGenerator generator =
+                new ScrambledCounterOrderCodeGenerator(slowAllocator, 0, 10, SECRET);
+        Path dump = Files.createTempFile("pinning-", ".jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int t = 0; t < 16; t++) {
+                    executor.submit(() -> {
+                        for (int i = 0; i < 20; i++) {
+                            generator.nextCode();
+                        }
+                    });
+                }
+            }
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> pinned;
+        try {
+            // Other recordings alive in the same JVM add their own event types to the dump
+            pinned = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                    .filter(event -> event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                            .map(RecordedFrame::getMethod)
+                            .anyMatch(method -> method.getType().getName()
+                                    .equals(ScrambledCounterOrderCodeGenerator.class.getName())))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+
+        // Assert
+        assertTrue(pinned.isEmpty(), "Virtual threads pinned in the generator: " + pinned);
+    }
+
+    @Test
+    @DisplayName("Should produce 8-character Crockford base32 codes")
+    void nextCode_ShouldMatchCodeFormat() {
+        // Arrange
+        ScrambledCounterOrderCodeGenerator generator =
+                new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 0, 1000, SECRET);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(generator.nextCode().matches("[0-9A-HJKMNP-TV-Z]{8}"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should decode a code back to its value and reject anything else")
+    void decode_ShouldInvertEncode() {
+        // Arrange
+        ScrambledCounterOrderCodeGenerator generator =
+                new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 0, 1000, SECRET);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            String code = generator.nextCode();
+            assertEquals(decode(code), ScrambledCounterOrderCodeGenerator.decode(code));
+        }
+        assertEquals((1L << 40) - 1, ScrambledCounterOrderCodeGenerator.decode("ZZZZZZZZ"));
+        assertEquals(-1, ScrambledCounterOrderCodeGenerator.decode("abc12345"));
+        assertEquals(-1, ScrambledCounterOrderCodeGenerator.decode("ABCO2345"));
+        assertEquals(-1, ScrambledCounterOrderCodeGenerator.decode("ABC1234"));
+        assertEquals(-1, ScrambledCounterOrderCodeGenerator.decode("ABC1234\u00e9"));
+        assertEquals(-1, ScrambledCounterOrderCodeGenerator.decode(null));
+    }
+
+    @Test
+    @DisplayName("Should not reveal the counter in consecutive codes")
+    void nextCode_WithConsecutiveCounters_ShouldLookUnrelated() {
+        // Arrange
+        ScrambledCounterOrderCodeGenerator generator =
+                new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 0, 1000, SECRET);
+
+        // Act
+        String first = generator.nextCode();
+        String second = generator.nextCode();
+
+        // Assert
+        int sharedPrefix = 0;
+        while (sharedPrefix < first.length() && first.charAt(sharedPrefix) == second.charAt(sharedPrefix)) {
+            sharedPrefix++;
+        }
+        assertTrue(sharedPrefix < 4, first + " and " + second + " share a long prefix");
+    }
+
+    @Test
+    @DisplayName("Should derive a different code sequence from a different secret")
+    void nextCode_WithDifferentSecret_ShouldProduceDifferentCodes() {
+        // Arrange
+        ScrambledCounterOrderCodeGenerator first =
+                new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 0, 1000, "first-secret-0123456789");
+        ScrambledCounterOrderCodeGenerator second =
+                new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 0, 1000, "second-secret-0123456789");
+
+        // Act
+        Set<String> firstCodes = new HashSet<>();
+        Set<String> secondCodes = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            firstCodes.add(first.nextCode());
+            secondCodes.add(second.nextCode());
+        }
+
+        // Assert
+        assertNotEquals(firstCodes, secondCodes);
+    }
+
+    @Test
+    @DisplayName("Should reserve a new block only when the current one is used up")
+    void nextCode_ShouldReserveOneBlockPerBlockSizeCodes() {
+        // Arrange
+        InMemoryAllocator allocator = new InMemoryAllocator();
+        ScrambledCounterOrderCodeGenerator generator =
+                new ScrambledCounterOrderCodeGenerator(allocator, 0, 100, SECRET);
+
+        // Act
+        for (int i = 0; i < 250; i++) {
+            generator.nextCode();
+        }
+
+        // Assert
+        assertEquals(3, allocator.reservations.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a node id outside the node field")
+    void constructor_WithInvalidNodeId_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 64, 1000, SECRET));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), -1, 1000, SECRET));
+    }
+
+    @Test
+    @DisplayName("Should refuse to start without a secret long enough to keep codes unguessable")
+    void constructor_WithMissingOrShortSecret_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 0, 1000, ""));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 0, 1000, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScrambledCounterOrderCodeGenerator(new InMemoryAllocator(), 0, 1000, "too-short"));
+    }
+
+    @Test
+    @DisplayName("Should fail instead of wrapping around when the counter space is exhausted")
+    void nextCode_WhenCounterSpaceExhausted_ShouldThrowException() {
+        // Arrange
+        long lastBlock = (1L << ScrambledCounterOrderCodeGenerator.COUNTER_BITS) / 1024;
+        ScrambledCounterOrderCodeGenerator generator =
+                new ScrambledCounterOrderCodeGenerator(nodeId -> lastBlock, 0, 1024, SECRET);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, generator::nextCode);
+    }
+
+    private static long decode(String code) {
+        long value = 0;
+        for (int i = 0; i < code.length(); i++) {
+            value = (value << 5) | ALPHABET.indexOf(code.charAt(i));
+        }
+        return value;
+    }
+
+    private static final class InMemoryAllocator implements OrderCodeBlockAllocator {
+        private final Map<Integer, AtomicLong> nextBlocks = new ConcurrentHashMap<>();
+        private final AtomicInteger reservations = new AtomicInteger();
+
+        @Override
+        public long reserveBlock(int nodeId) {
+            reservations.incrementAndGet();
+            return nextBlocks.computeIfAbsent(nodeId, id -> new AtomicLong()).getAndIncrement();
+        }
+    }
+}
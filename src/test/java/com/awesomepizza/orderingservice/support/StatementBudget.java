@@ -0,0 +1,39 @@
+package com.awesomepizza.orderingservice.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs and fails the test when
+ * the action goes over its budget. Statements from after-commit listeners are included.
+ */
+public final class StatementBudget {
+
+    private final Statistics statistics;
+
+    private StatementBudget(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public static StatementBudget of(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        return new StatementBudget(statistics);
+    }
+
+    public <T> T expectAtMost(long maxStatements, String description, ThrowingSupplier<T> action) {
+        statistics.clear();
+        T result = assertDoesNotThrow(action);
+        long statements = statistics.getPrepareStatementCount();
+        if (statements > maxStatements) {
+            fail(String.format("%s issued %d statements, budget is %d (queries: %s)",
+                    description, statements, maxStatements, String.join(" | ", statistics.getQueries())));
+        }
+        return result;
+    }
+}